@@ -0,0 +1,36 @@
+package org.jmel.mastermind.bench;
+
+import org.jmel.mastermind.core.Code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Helpers shared by the benchmarks.
+ */
+final class Benchmarks {
+    static final int NUM_SAMPLES = 1024; // power of two, so sample indexes can be masked
+
+    private Benchmarks() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    static List<Integer> randomValue(SplittableRandom random, int codeLength, int numColors) {
+        List<Integer> value = new ArrayList<>(codeLength);
+        for (int i = 0; i < codeLength; i++) {
+            value.add(random.nextInt(numColors));
+        }
+
+        return value;
+    }
+
+    static Code[] randomCodes(SplittableRandom random, int codeLength, int numColors) {
+        Code[] codes = new Code[NUM_SAMPLES];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = Code.from(randomValue(random, codeLength, numColors), codeLength, numColors);
+        }
+
+        return codes;
+    }
+}
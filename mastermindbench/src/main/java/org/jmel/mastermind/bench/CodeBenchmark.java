@@ -0,0 +1,49 @@
+package org.jmel.mastermind.bench;
+
+import org.jmel.mastermind.core.Code;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating Code objects from the {@code List<Integer>} clients pass to {@code Game.processGuess}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeBenchmark {
+    @Param({"4", "8", "16"})
+    private int codeLength;
+
+    @Param({"6", "8", "10"})
+    private int numColors;
+
+    private List<Integer> value;
+    private Code code;
+
+    @Setup
+    public void setUp() {
+        value = Benchmarks.randomValue(new SplittableRandom(1), codeLength, numColors);
+        code = Code.from(value, codeLength, numColors);
+    }
+
+    @Benchmark
+    public Code from() {
+        return Code.from(value, codeLength, numColors);
+    }
+
+    @Benchmark
+    public int hashCodeOfNewCode() {
+        return Code.from(value, codeLength, numColors).hashCode();
+    }
+
+    @Benchmark
+    public List<Integer> valueOfNewCode() {
+        return Code.fromPacked(code.packed(), codeLength, numColors).value();
+    }
+}
@@ -0,0 +1,69 @@
+package org.jmel.mastermind.bench;
+
+import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.LocalRandomCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.SeededRandomCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the local code suppliers. The random.org supplier is left out: its cost is network latency, which a
+ * microbenchmark cannot measure meaningfully.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeSupplierBenchmark {
+    @Param({"4", "8", "16"})
+    private int codeLength;
+
+    @Param({"6", "8", "10"})
+    private int numColors;
+
+    private CodeSupplier localRandom;
+    private CodeSupplier userDefined;
+    private SeededRandomCodeSupplier seededRandom;
+    private long[] packed;
+
+    @Setup
+    public void setUp() {
+        localRandom = LocalRandomCodeSupplier.of(codeLength, numColors);
+        userDefined = UserDefinedCodeSupplier.of(Benchmarks.randomValue(new SplittableRandom(4), codeLength, numColors));
+        seededRandom = SeededRandomCodeSupplier.of(codeLength, numColors, 4);
+        packed = new long[Benchmarks.NUM_SAMPLES];
+    }
+
+    @Benchmark
+    public List<Integer> localRandom() throws IOException {
+        return localRandom.get();
+    }
+
+    @Benchmark
+    public List<Integer> userDefined() throws IOException {
+        return userDefined.get();
+    }
+
+    @Benchmark
+    public List<Integer> seededRandom() {
+        return seededRandom.get();
+    }
+
+    /**
+     * Fills {@link Benchmarks#NUM_SAMPLES} packed codes per operation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Benchmarks.NUM_SAMPLES)
+    public long[] seededRandomFill() {
+        seededRandom.fill(packed, 0, packed.length);
+
+        return packed;
+    }
+}
@@ -0,0 +1,57 @@
+package org.jmel.mastermind.bench;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks scoring a guess against a secret code with each {@link FeedbackStrategyImpl}.
+ * <p></p>
+ * Pairs are drawn from a fixed pool of random codes so the results do not depend on a single lucky pair. The fork
+ * enables the Vector API module, so long codes are scored with the vectorized path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class FeedbackStrategyBenchmark {
+    @Param({"DEFAULT", "ORIGINAL_MASTERMIND", "HIGHER_LOWER", "PERFECT"})
+    private FeedbackStrategyImpl strategy;
+
+    @Param({"4", "8", "16", "64"})
+    private int codeLength;
+
+    @Param({"6", "8", "10"})
+    private int numColors;
+
+    private Code[] secretCodes;
+    private Code[] guesses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(2);
+        secretCodes = Benchmarks.randomCodes(random, codeLength, numColors);
+        guesses = Benchmarks.randomCodes(random, codeLength, numColors);
+    }
+
+    @Benchmark
+    public Feedback get() {
+        int i = next++ & (Benchmarks.NUM_SAMPLES - 1);
+
+        return strategy.get(secretCodes[i], guesses[i]);
+    }
+
+    @Benchmark
+    public int ordinal() {
+        int i = next++ & (Benchmarks.NUM_SAMPLES - 1);
+
+        return strategy.supportsOrdinals(codeLength) ? strategy.ordinal(secretCodes[i], guesses[i]) : -1;
+    }
+}
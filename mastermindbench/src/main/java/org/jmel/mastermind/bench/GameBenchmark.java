@@ -0,0 +1,120 @@
+package org.jmel.mastermind.bench;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks playing a game through {@link Game#processGuess(List)} and reading its history.
+ * <p></p>
+ * A game only accepts {@code maxAttempts} guesses, so {@link #processGuess} plays a whole losing game per invocation.
+ * Each iteration is a batch of {@value #GAMES_PER_ITERATION} invocations, timed as a single shot, and the score is the
+ * average time per guess. The games of every iteration are built before the first one starts, so neither the time nor
+ * the allocations of building them (see {@link #build}) are counted, and there is no per-invocation setup to skew the
+ * timing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int GAMES_PER_ITERATION = 2_000;
+
+    @Param({"4", "8", "16"})
+    private int codeLength;
+
+    @Param({"6", "8", "10"})
+    private int numColors;
+
+    private Game.Builder builder;
+    private List<List<Integer>> guesses;
+    private Game playedGame;
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(3);
+        List<Integer> secretCode = Benchmarks.randomValue(random, codeLength, numColors);
+        builder = new Game.Builder()
+                .codeLength(codeLength)
+                .numColors(numColors)
+                .maxAttempts(MAX_ATTEMPTS)
+                .codeSupplier(UserDefinedCodeSupplier.of(secretCode));
+
+        guesses = new ArrayList<>();
+        while (guesses.size() < MAX_ATTEMPTS) {
+            List<Integer> guess = Benchmarks.randomValue(random, codeLength, numColors);
+            if (!guess.equals(secretCode)) guesses.add(guess);
+        }
+
+        playedGame = builder.build();
+        guesses.forEach(playedGame::processGuess);
+    }
+
+    /**
+     * The new games of a run of {@link #processGuess}, one per invocation. They are built at the trial level because
+     * the GC profiler also counts allocations made by iteration-level setup.
+     */
+    @State(Scope.Thread)
+    public static class NewGames {
+        private Game[] games;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(GameBenchmark benchmark, BenchmarkParams params) throws IOException {
+            int count = params.getWarmup().getCount() * params.getWarmup().getBatchSize()
+                    + params.getMeasurement().getCount() * params.getMeasurement().getBatchSize();
+            games = new Game[count];
+            for (int i = 0; i < count; i++) {
+                games[i] = benchmark.builder.build();
+            }
+            next = 0;
+        }
+
+        private Game next() {
+            Game game = games[next];
+            games[next++] = null; // played games can be collected
+            return game;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 20, batchSize = GAMES_PER_ITERATION)
+    @Measurement(iterations = 20, batchSize = GAMES_PER_ITERATION)
+    @OperationsPerInvocation(MAX_ATTEMPTS * GAMES_PER_ITERATION) // a single shot is the whole batch
+    public void processGuess(NewGames newGames, Blackhole blackhole) {
+        Game game = newGames.next();
+        for (List<Integer> guess : guesses) {
+            blackhole.consume(game.processGuess(guess));
+        }
+    }
+
+    @Benchmark
+    public Game build() throws IOException {
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<Code> guessHistory() {
+        return playedGame.guessHistory();
+    }
+
+    @Benchmark
+    public List<Feedback> feedbackHistory() {
+        return playedGame.feedbackHistory();
+    }
+}
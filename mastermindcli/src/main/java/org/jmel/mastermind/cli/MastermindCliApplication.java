@@ -48,7 +48,7 @@ public class MastermindCliApplication {
 
             if (currentMenu == EXIT) System.exit(0);
 
-            for (int i = 0; i < gameNum; i++) games.add(builder.build());
+            games.addAll(builder.buildMany(gameNum));
         } catch (IOException | IllegalArgumentException e) {
             System.out.println("Error creating game: " + e.getMessage());
             currentMenu = GAME_SETUP_FAILED;
@@ -0,0 +1,209 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * A candidate set stored as a bitset of 64-bit words, in which bit {@code i} is set while the code packed as {@code i}
+ * is a candidate. Subclasses only provide the storage of the words. See {@link CandidateSet}.
+ */
+abstract sealed class BitSetCandidateSet implements CandidateSet permits HeapCandidateSet, OffHeapCandidateSet {
+    /**
+     * The largest configuration supported: 2<sup>36</sup> codes, or 8 GiB of bits.
+     */
+    static final long MAX_CODES = 1L << 36;
+    private static final int BATCH_SIZE = 1024;
+
+    private final int codeLength;
+    private final int numColors;
+    private final int wordCount;
+    private long size;
+
+    BitSetCandidateSet(CodeSpace space) {
+        this.codeLength = space.codeLength();
+        this.numColors = space.numColors();
+        this.wordCount = wordCount(space);
+        this.size = space.size();
+    }
+
+    /**
+     * Returns the space of a configuration that fits in a bitset.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid or too large
+     */
+    static CodeSpace checkedSpace(int codeLength, int numColors) {
+        CodeSpace space = CodeSpace.of(codeLength, numColors);
+        if (space.size() > MAX_CODES)
+            throw new IllegalArgumentException("Too many codes to track: at most %d are supported".formatted(MAX_CODES));
+
+        return space;
+    }
+
+    static int wordCount(CodeSpace space) {
+        return (int) ((space.size() + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Returns the word holding every code of a space in which all the codes are candidates, for the word at an index.
+     */
+    static long fullWord(CodeSpace space, int index) {
+        int tail = (int) (space.size() % Long.SIZE);
+
+        return tail != 0 && index == wordCount(space) - 1 ? (1L << tail) - 1 : -1L;
+    }
+
+    /**
+     * Returns the word at an index.
+     */
+    abstract long word(int index);
+
+    /**
+     * Clears the bits of the word at an index that are set in a mask.
+     */
+    abstract void clearBits(int index, long mask);
+
+    @Override
+    public int codeLength() {
+        return codeLength;
+    }
+
+    @Override
+    public int numColors() {
+        return numColors;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Code code) {
+        if (Objects.isNull(code) || code.length() != codeLength || code.numColors() != numColors) return false;
+        long packed = code.packed();
+
+        return (word((int) (packed >>> 6)) & (1L << packed)) != 0;
+    }
+
+    @Override
+    public long retain(Code guess, Feedback feedback, FeedbackStrategy strategy) {
+        if (Objects.isNull(guess) || guess.length() != codeLength || guess.numColors() != numColors)
+            throw new IllegalArgumentException("Invalid guess! Must be a code of the candidate set's configuration");
+        if (Objects.isNull(feedback)) throw new IllegalArgumentException("Invalid feedback");
+        if (Objects.isNull(strategy)) throw new IllegalArgumentException("Invalid feedback strategy");
+
+        if (strategy.supportsOrdinals(codeLength)) {
+            retainByOrdinal(guess, feedback.ordinal(), strategy);
+        } else {
+            retainByEquality(guess, feedback, strategy);
+        }
+
+        return size;
+    }
+
+    /**
+     * Scores the survivors in batches: their packed forms are gathered into a buffer, scored in one call, and the bits
+     * of the ones with another ordinal are cleared.
+     */
+    private void retainByOrdinal(Code guess, int ordinal, FeedbackStrategy strategy) {
+        int capacity = (int) Math.min(BATCH_SIZE, size);
+        long[] batch = new long[capacity];
+        int[] ordinals = new int[capacity];
+        int count = 0;
+        for (int w = 0; w < wordCount; w++) {
+            for (long word = word(w); word != 0; word &= word - 1) {
+                batch[count++] = ((long) w << 6) | Long.numberOfTrailingZeros(word);
+                if (count == capacity) {
+                    clearMismatches(guess, ordinal, strategy, batch, ordinals, count);
+                    count = 0;
+                }
+            }
+        }
+        clearMismatches(guess, ordinal, strategy, batch, ordinals, count);
+    }
+
+    /**
+     * Clears the mismatching codes of a batch. Codes in a batch are in increasing order, so the bits to clear in each
+     * word are collected in a mask and cleared at once.
+     */
+    private void clearMismatches(Code guess, int ordinal, FeedbackStrategy strategy, long[] batch, int[] ordinals,
+                                 int count) {
+        if (count == 0) return;
+
+        strategy.ordinals(guess, batch, 0, count, ordinals);
+        int index = -1;
+        long mask = 0;
+        for (int i = 0; i < count; i++) {
+            if (ordinals[i] == ordinal) continue;
+            int w = (int) (batch[i] >>> 6);
+            if (w != index) {
+                clearWord(index, mask);
+                index = w;
+                mask = 0;
+            }
+            mask |= 1L << batch[i];
+        }
+        clearWord(index, mask);
+    }
+
+    private void retainByEquality(Code guess, Feedback feedback, FeedbackStrategy strategy) {
+        for (int w = 0; w < wordCount; w++) {
+            long mask = 0;
+            for (long word = word(w); word != 0; word &= word - 1) {
+                long packed = ((long) w << 6) | Long.numberOfTrailingZeros(word);
+                if (!feedback.equals(strategy.get(Code.fromPacked(packed, codeLength, numColors), guess))) {
+                    mask |= 1L << packed;
+                }
+            }
+            clearWord(w, mask);
+        }
+    }
+
+    private void clearWord(int index, long mask) {
+        if (mask == 0) return;
+
+        clearBits(index, mask);
+        size -= Long.bitCount(mask);
+    }
+
+    @Override
+    public void forEachPacked(LongConsumer action) {
+        Objects.requireNonNull(action);
+        for (int w = 0; w < wordCount; w++) {
+            for (long word = word(w); word != 0; word &= word - 1) {
+                action.accept(((long) w << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Code> iterator() {
+        return new Iterator<>() {
+            private int index = -1; // index of the word being consumed
+            private long word;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && index + 1 < wordCount) {
+                    word = word(++index);
+                }
+
+                return word != 0;
+            }
+
+            @Override
+            public Code next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                long packed = ((long) index << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                return Code.fromPacked(packed, codeLength, numColors);
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The codes of a game configuration that are still consistent with the guesses made so far and their feedback.
+ * <p></p>
+ * A candidate set starts with every code of the configuration and only ever shrinks: {@link #retain(Code, Feedback,
+ * FeedbackStrategy)} keeps the candidates that would have produced the given feedback had they been the secret code.
+ * Only the surviving candidates are scored, so narrowing gets cheaper as the game goes on. Codes are identified by their
+ * packed form (see {@link Code#packed()}), which is why only configurations whose codes can be packed are supported.
+ * <p></p>
+ * Candidates are stored as a bitset of one bit per code, either on the Java heap or, for large configurations whose
+ * bitsets would weigh on the garbage collector, outside of it (see {@link Storage}). Both behave the same; an off-heap
+ * set should be closed once it is no longer needed.
+ * <p></p>
+ * Instances are not thread-safe.
+ */
+public interface CandidateSet extends Iterable<Code>, AutoCloseable {
+    /**
+     * Creates a candidate set holding every code of a configuration, stored on the Java heap.
+     *
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @return a new CandidateSet
+     * @throws IllegalArgumentException if the configuration is not a valid {@link CodeSpace}, or it has more than
+     *                                  2<sup>36</sup> codes
+     */
+    static CandidateSet of(int codeLength, int numColors) {
+        return HeapCandidateSet.of(codeLength, numColors);
+    }
+
+    /**
+     * Creates a candidate set holding every code of a configuration, stored outside the Java heap. See
+     * {@link Storage#OFF_HEAP}.
+     *
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @return a new CandidateSet, to be closed once no longer needed
+     * @throws IllegalArgumentException if the configuration is not a valid {@link CodeSpace}, or it has more than
+     *                                  2<sup>36</sup> codes
+     */
+    static CandidateSet offHeap(int codeLength, int numColors) {
+        return OffHeapCandidateSet.of(codeLength, numColors);
+    }
+
+    /**
+     * Creates a candidate set holding every code of a configuration, with the given storage.
+     *
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @param storage    where the candidates are stored
+     * @return a new CandidateSet
+     * @throws IllegalArgumentException if the storage is null, the configuration is not a valid {@link CodeSpace}, or
+     *                                  it has more than 2<sup>36</sup> codes
+     */
+    static CandidateSet of(int codeLength, int numColors, Storage storage) {
+        if (Objects.isNull(storage)) throw new IllegalArgumentException("Invalid candidate storage");
+
+        return switch (storage) {
+            case HEAP -> of(codeLength, numColors);
+            case OFF_HEAP -> offHeap(codeLength, numColors);
+        };
+    }
+
+    /**
+     * Returns the length of the codes in the set.
+     *
+     * @return the length of the codes
+     */
+    int codeLength();
+
+    /**
+     * Returns the number of colors of the codes in the set.
+     *
+     * @return the number of colors that can be used in the codes
+     */
+    int numColors();
+
+    /**
+     * Returns the number of candidates left.
+     *
+     * @return the number of codes in the set
+     */
+    long size();
+
+    /**
+     * Returns true if a code is still a candidate.
+     *
+     * @param code a code
+     * @return true if the code belongs to the set, false if it was eliminated or belongs to another configuration
+     */
+    boolean contains(Code code);
+
+    /**
+     * Removes every candidate that would not have produced a feedback for a guess, had it been the secret code.
+     * <p></p>
+     * When the strategy supports ordinals for the code length, the survivors are scored in batches with
+     * {@link FeedbackStrategy#ordinals(Code, long[], int, int, int[])}; otherwise each survivor's feedback is compared
+     * with {@code feedback} using {@code equals}.
+     *
+     * @param guess    the guess, of the set's configuration
+     * @param feedback the feedback the guess received
+     * @param strategy the strategy the feedback was computed with
+     * @return the number of candidates left
+     * @throws IllegalArgumentException if a parameter is null or the guess does not belong to the set's configuration
+     */
+    long retain(Code guess, Feedback feedback, FeedbackStrategy strategy);
+
+    /**
+     * Passes the packed form of every candidate, in increasing order, to an action. This avoids creating Code objects.
+     *
+     * @param action the action receiving the packed candidates
+     */
+    void forEachPacked(LongConsumer action);
+
+    /**
+     * Returns an iterator over the candidates, in increasing packed order. The set must not be narrowed while
+     * iterating.
+     *
+     * @return an iterator over the candidates
+     */
+    @Override
+    Iterator<Code> iterator();
+
+    /**
+     * Returns a sequential stream of the candidates, in increasing packed order. The set must not be narrowed while
+     * the stream is consumed.
+     *
+     * @return a stream of the candidates
+     */
+    default Stream<Code> stream() {
+        Spliterator<Code> spliterator = Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Releases the memory of an off-heap set, which cannot be used afterwards. Closing an on-heap set does nothing.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Where the bits of a candidate set are stored.
+     */
+    enum Storage {
+        /**
+         * In a {@code long[]} on the Java heap, reclaimed with the set by the garbage collector.
+         */
+        HEAP,
+        /**
+         * In direct buffers outside the Java heap, so that large sets do not count towards the heap size or trigger
+         * collections. The memory is released once the set is closed and its buffers are collected.
+         */
+        OFF_HEAP
+    }
+}
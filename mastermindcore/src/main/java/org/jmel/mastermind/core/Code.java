@@ -11,12 +11,26 @@ import java.util.Objects;
  * code as Integers, these can be easily mapped to any desired symbol client side (for example, 0 can be mapped to 'A'
  * or '*' or any other symbol).These constraints are specified in Game.Builder and will match the constraints of the
  * secret code.
+ * <p></p>
+ * Internally, a code is stored as a single {@code long} holding its colors as the digits of a base-{@code numColors}
+ * number (the first element being the most significant digit). Codes whose space does not fit in a {@code long} are
+ * stored as an {@code int[]} instead. The {@code List<Integer>} returned by {@link #value()} is only built when it is
+ * first requested.
  */
 public class Code {
-    private final List<Integer> value;
+    private final int length;
+    private final int numColors;
+    private final long packed;
+    private final int[] colors; // null when the code is packed
+    private final int hash;
+    private List<Integer> value; // lazily materialized, see value()
 
-    private Code(List<Integer> value) {
-        this.value = List.copyOf(value);
+    private Code(long packed, int[] colors, int length, int numColors) {
+        this.length = length;
+        this.numColors = numColors;
+        this.packed = packed;
+        this.colors = colors;
+        this.hash = computeHash();
     }
 
     /**
@@ -32,10 +46,94 @@ public class Code {
         if (Objects.isNull(possibleCode)) throw new IllegalArgumentException("Invalid code! Cannot be null");
         if (possibleCode.size() != codeLength)
             throw new IllegalArgumentException("Invalid code length! Code must be %d elements long".formatted(codeLength));
-        if (possibleCode.stream().anyMatch(i -> i < 0 || i >= numColors))
+        if (possibleCode.stream().anyMatch(i -> i == null || i < 0 || i >= numColors))
             throw new IllegalArgumentException("Invalid code colors! Colors must be in the range 0 to %d (inclusive)".formatted(numColors - 1));
 
-        return new Code(possibleCode);
+        int[] colors = new int[codeLength];
+        for (int i = 0; i < codeLength; i++) {
+            colors[i] = possibleCode.get(i);
+        }
+
+        return fromValidated(colors, codeLength, numColors);
+    }
+
+    /**
+     * Creates a Code object from an array of integers. The array is copied, so later changes to it do not affect the
+     * code.
+     *
+     * @param possibleCode array of integers representing a code
+     * @param codeLength   the length of the code
+     * @param numColors    the number of colors that can be used in the code
+     * @return a Code object
+     * @throws IllegalArgumentException if the code is null, has an invalid length, or contains invalid colors
+     */
+    public static Code from(int[] possibleCode, int codeLength, int numColors) {
+        if (Objects.isNull(possibleCode)) throw new IllegalArgumentException("Invalid code! Cannot be null");
+        if (possibleCode.length != codeLength)
+            throw new IllegalArgumentException("Invalid code length! Code must be %d elements long".formatted(codeLength));
+        for (int color : possibleCode) {
+            if (color < 0 || color >= numColors)
+                throw new IllegalArgumentException("Invalid code colors! Colors must be in the range 0 to %d (inclusive)".formatted(numColors - 1));
+        }
+
+        return fromValidated(possibleCode.clone(), codeLength, numColors);
+    }
+
+    /**
+     * Creates a Code object from its packed representation. See {@link #packed()}.
+     *
+     * @param packed     the colors of the code as the digits of a base-{@code numColors} number
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @return a Code object
+     * @throws IllegalArgumentException if codes of the given length and colors cannot be packed, or if {@code packed} is
+     *                                  outside the range 0 to numColors^codeLength - 1
+     */
+    public static Code fromPacked(long packed, int codeLength, int numColors) {
+        long spaceSize = packedSpaceSize(codeLength, numColors);
+        if (spaceSize < 0)
+            throw new IllegalArgumentException("Codes of length %d with %d colors cannot be packed".formatted(codeLength, numColors));
+        if (packed < 0 || packed >= spaceSize)
+            throw new IllegalArgumentException("Invalid packed code! Must be in the range 0 to %d (inclusive)".formatted(spaceSize - 1));
+
+        return new Code(packed, null, codeLength, numColors);
+    }
+
+    /**
+     * Returns true if codes of the given length and number of colors are stored in packed form.
+     *
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @return true if numColors^codeLength fits in a {@code long}
+     */
+    public static boolean isPackable(int codeLength, int numColors) {
+        return packedSpaceSize(codeLength, numColors) > 0;
+    }
+
+    /**
+     * Returns numColors^codeLength, or -1 if it does not fit in a {@code long}.
+     */
+    static long packedSpaceSize(int codeLength, int numColors) {
+        if (codeLength < 1 || numColors < 1) return -1;
+
+        long size = 1;
+        for (int i = 0; i < codeLength; i++) {
+            if (size > Long.MAX_VALUE / numColors) return -1;
+            size *= numColors;
+        }
+
+        return size;
+    }
+
+    private static Code fromValidated(int[] colors, int codeLength, int numColors) {
+        if (!isPackable(codeLength, numColors)) return new Code(0, colors, codeLength, numColors);
+
+        long packed = 0;
+        for (int color : colors) {
+            packed = packed * numColors + color;
+        }
+
+        return new Code(packed, null, codeLength, numColors);
     }
 
     /**
@@ -44,11 +142,104 @@ public class Code {
      * @return an immutable list of integers representing the code
      */
     public List<Integer> value() {
-        return value;
+        // Benign race: the list is immutable, so at worst a few threads build equal copies (same idea as String.hash)
+        List<Integer> result = value;
+        if (result == null) {
+            int[] digits = new int[length];
+            copyColorsTo(digits);
+            Integer[] boxed = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                boxed[i] = digits[i];
+            }
+            result = List.of(boxed);
+            value = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the length of the code.
+     *
+     * @return the number of elements in the code
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of colors this code was validated against.
+     *
+     * @return the number of colors that can be used in the code
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    /**
+     * Returns the color at a given position without boxing.
+     *
+     * @param position a position in the range 0 to length() - 1
+     * @return the color at {@code position}
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public int colorAt(int position) {
+        Objects.checkIndex(position, length);
+        if (colors != null) return colors[position];
+
+        long remaining = packed;
+        for (int i = length - 1; i > position; i--) {
+            remaining /= numColors;
+        }
+
+        return (int) (remaining % numColors);
+    }
+
+    /**
+     * Copies the colors of this code into {@code destination}, starting at index 0.
+     *
+     * @param destination an array with at least length() elements
+     * @throws IndexOutOfBoundsException if the array is too short
+     */
+    public void copyColorsTo(int[] destination) {
+        Objects.checkFromIndexSize(0, length, destination.length);
+        if (colors != null) {
+            System.arraycopy(colors, 0, destination, 0, length);
+            return;
+        }
+
+        long remaining = packed;
+        for (int i = length - 1; i >= 0; i--) {
+            destination[i] = (int) (remaining % numColors);
+            remaining /= numColors;
+        }
+    }
+
+    /**
+     * Returns true if this code is stored in packed form, in which case {@link #packed()} can be used.
+     *
+     * @return true if the code is packed
+     */
+    public boolean isPacked() {
+        return colors == null;
     }
 
     /**
-     * Returns true if the underlying {@code List<Integer>}s are equal.
+     * Returns the packed representation of the code: its colors read as the digits of a base-{@code numColors} number,
+     * the first element being the most significant. Packed values are dense in the range 0 to numColors^length - 1 and
+     * follow the lexicographic order of the codes.
+     *
+     * @return the packed representation of the code
+     * @throws IllegalStateException if the code is too large to be packed. See {@link #isPacked()}
+     */
+    public long packed() {
+        if (colors != null) throw new IllegalStateException("Code is too large to be packed");
+
+        return packed;
+    }
+
+    /**
+     * Returns true if both codes have the same colors in the same positions.
      * <p></p>
      * Two codes are equal if they are the same instance. If not, two codes can be equal if they have the same value.
      *
@@ -60,7 +251,14 @@ public class Code {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Code code = (Code) o;
-        return value.equals(code.value);
+        if (length != code.length || hash != code.hash) return false;
+        if (isPacked() && code.isPacked() && numColors == code.numColors) return packed == code.packed;
+
+        for (int i = 0; i < length; i++) {
+            if (colorAt(i) != code.colorAt(i)) return false;
+        }
+
+        return true;
     }
 
     /**
@@ -68,6 +266,26 @@ public class Code {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
+    }
+
+    // Matches Objects.hash(value()) so hashes are unchanged from the List<Integer> representation
+    private int computeHash() {
+        int listHash = 0;
+        int weight = 1;
+        long remaining = packed;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit;
+            if (colors != null) {
+                digit = colors[i];
+            } else {
+                digit = (int) (remaining % numColors);
+                remaining /= numColors;
+            }
+            listHash += digit * weight;
+            weight *= 31;
+        }
+
+        return 31 + listHash + weight;
     }
 }
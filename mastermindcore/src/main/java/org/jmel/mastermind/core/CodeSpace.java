@@ -0,0 +1,247 @@
+package org.jmel.mastermind.core;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Every code of a game configuration, indexed densely from 0 to {@code size() - 1}.
+ * <p></p>
+ * The index of a code is its packed form (see {@link Code#packed()}): its colors read as the digits of a
+ * base-{@code numColors} number, first position most significant. {@link #rank(Code)} and {@link #unrank(long)}
+ * convert between the two, so a space is never materialized and can be as large as a {@code long} can index, e.g.
+ * the 10<sup>10</sup> codes of 10 positions and 10 colors. Codes are created lazily when streamed or iterated, and
+ * {@link #spliterator()} splits its range of indices in halves, so parallel streams divide the work evenly.
+ * <p></p>
+ * Instances are immutable and thread-safe.
+ */
+public final class CodeSpace implements Iterable<Code> {
+    private final int codeLength;
+    private final int numColors;
+    private final long size;
+
+    private CodeSpace(int codeLength, int numColors, long size) {
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.size = size;
+    }
+
+    /**
+     * Creates the space of codes of a configuration.
+     *
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @return a new instance of CodeSpace
+     * @throws IllegalArgumentException if the code length is less than 1, the number of colors is less than 2, or there
+     *                                  are too many codes to index with a {@code long} (see
+     *                                  {@link Code#isPackable(int, int)})
+     */
+    public static CodeSpace of(int codeLength, int numColors) {
+        if (codeLength < 1) throw new IllegalArgumentException("Invalid code length");
+        if (numColors <= 1) throw new IllegalArgumentException("Invalid number of colors");
+        long size = Code.packedSpaceSize(codeLength, numColors);
+        if (size < 0)
+            throw new IllegalArgumentException("Codes of length %d with %d colors cannot be indexed".formatted(codeLength, numColors));
+
+        return new CodeSpace(codeLength, numColors, size);
+    }
+
+    /**
+     * Returns the length of the codes in the space.
+     *
+     * @return the length of the codes
+     */
+    public int codeLength() {
+        return codeLength;
+    }
+
+    /**
+     * Returns the number of colors of the codes in the space.
+     *
+     * @return the number of colors that can be used in the codes
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    /**
+     * Returns the number of codes in the space, numColors<sup>codeLength</sup>.
+     *
+     * @return the number of codes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns true if a code belongs to the space.
+     *
+     * @param code a code
+     * @return true if the code has the space's length and number of colors
+     */
+    public boolean contains(Code code) {
+        return Objects.nonNull(code) && code.length() == codeLength && code.numColors() == numColors;
+    }
+
+    /**
+     * Returns the index of a code in the space.
+     *
+     * @param code a code of the space
+     * @return the index of the code, between 0 and {@code size() - 1}
+     * @throws IllegalArgumentException if the code does not belong to the space
+     */
+    public long rank(Code code) {
+        if (!contains(code)) throw new IllegalArgumentException("Invalid code! Must belong to the code space");
+
+        return code.packed();
+    }
+
+    /**
+     * Returns the code at an index of the space.
+     *
+     * @param index an index between 0 and {@code size() - 1}
+     * @return the code at that index
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public Code unrank(long index) {
+        return Code.fromPacked(index, codeLength, numColors);
+    }
+
+    /**
+     * Returns a sequential stream of every code, in index order.
+     *
+     * @return a stream of the codes
+     */
+    public Stream<Code> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of every code. The space is split evenly between threads.
+     *
+     * @return a parallel stream of the codes
+     */
+    public Stream<Code> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a sequential stream of the codes whose index is in a range, in index order.
+     *
+     * @param from the first index, inclusive
+     * @param to   the last index, exclusive
+     * @return a stream of the codes in the range
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public Stream<Code> stream(long from, long to) {
+        Objects.checkFromToIndex(from, to, size);
+
+        return StreamSupport.stream(new CodeSpliterator(from, to), false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return an iterator over the codes, in index order
+     */
+    @Override
+    public Iterator<Code> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The spliterator covers a range of indices and splits it in halves.
+     *
+     * @return a spliterator over the codes, in index order
+     */
+    @Override
+    public Spliterator<Code> spliterator() {
+        return new CodeSpliterator(0, size);
+    }
+
+    /**
+     * Returns true if both spaces have the same code length and number of colors.
+     *
+     * @param o the object to compare
+     * @return true if the spaces are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CodeSpace that)) return false;
+
+        return codeLength == that.codeLength && numColors == that.numColors;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(codeLength, numColors);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CodeSpace[codeLength=%d, numColors=%d, size=%d]".formatted(codeLength, numColors, size);
+    }
+
+    private final class CodeSpliterator implements Spliterator<Code> {
+        private long next;
+        private final long end;
+
+        private CodeSpliterator(long from, long to) {
+            this.next = from;
+            this.end = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Code> action) {
+            Objects.requireNonNull(action);
+            if (next >= end) return false;
+            action.accept(unrank(next++));
+
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Code> action) {
+            Objects.requireNonNull(action);
+            long from = next;
+            next = end;
+            for (long index = from; index < end; index++) {
+                action.accept(unrank(index));
+            }
+        }
+
+        @Override
+        public Spliterator<Code> trySplit() {
+            long middle = next + (end - next) / 2;
+            if (middle == next) return null;
+
+            Spliterator<Code> prefix = new CodeSpliterator(next, middle);
+            next = middle;
+
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
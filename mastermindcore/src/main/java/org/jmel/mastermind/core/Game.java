@@ -3,6 +3,7 @@ package org.jmel.mastermind.core;
 import org.jmel.mastermind.core.feedbackstrategy.Feedback;
 import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
 import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
 import org.jmel.mastermind.core.secretcodesupplier.ApiCodeSupplier;
 import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
 
@@ -10,34 +11,47 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Represents a Mastermind game.
  * <p></p>
  * A game is played by making guesses against a secret code. The game is over when a guess matches the secret code or if
  * the maximum number of attempts is reached. A game can be configured with a custom code length, number of colors,
- * maximum number of attempts, secret code supplier, and feedback strategy.
+ * maximum number of attempts, secret code supplier, and feedback strategy. A game can also keep track of the codes
+ * that are still consistent with its guesses and feedback; see {@link Builder#trackCandidates(boolean)}.
  */
 public class Game {
     private final int codeLength;
     private final int numColors;
     private final int maxAttempts;
     private final Code secretCode;
-    private final List<Code> guessHistory = new ArrayList<>();
-    private final List<Feedback> feedbackHistory = new ArrayList<>();
     private final FeedbackStrategy feedbackStrategy;
+    private final GameHistory history;
+    private final CandidateSet candidates; // null unless candidates are tracked
+    private boolean won;
 
     /**
      * Game constructor that initializes a game with a given configuration.
      *
-     * @param builder a Game.Builder object that contains a game's configuration
+     * @param builder    a Game.Builder object that contains a game's configuration
+     * @param secretCode the secret code of the game, validated against the builder's configuration
      */
-    private Game(Builder builder) {
+    private Game(Builder builder, Code secretCode) {
         this.codeLength = builder.codeLength;
         this.numColors = builder.numColors;
         this.maxAttempts = builder.maxAttempts;
-        this.secretCode = builder.secretCode;
-        this.feedbackStrategy = builder.feedbackStrategy;
+        this.secretCode = secretCode;
+        this.feedbackStrategy = FeedbackTable.lookup(builder.feedbackStrategy, codeLength, numColors)
+                .<FeedbackStrategy>map(table -> table)
+                .orElse(builder.feedbackStrategy);
+        this.history = new GameHistory(codeLength, numColors, maxAttempts, feedbackStrategy);
+        this.candidates = builder.candidateStorage != null
+                ? CandidateSet.of(codeLength, numColors, builder.candidateStorage)
+                : null;
     }
 
     /**
@@ -55,17 +69,53 @@ public class Game {
      *                                  colors
      */
     public Feedback processGuess(List<Integer> guessInput) {
+        checkCanGuess();
+
+        return recordGuess(Code.from(guessInput, this.codeLength, this.numColors));
+    }
+
+    /**
+     * Processes a guess that is already a Code object, avoiding the conversion from a list of integers. See
+     * {@link #processGuess(List)}; the name differs so that {@code processGuess(null)} stays unambiguous.
+     *
+     * @param guess a Code that conforms to the game's code length and number of colors
+     * @return Feedback object representing the result of the guess against the secret code based on a feedback strategy
+     * @throws IllegalStateException    if the game is already over
+     * @throws IllegalArgumentException if {@param guess} is null or does not conform to the game's code length and
+     *                                  number of colors
+     */
+    public Feedback processGuessCode(Code guess) {
+        checkCanGuess();
+        if (Objects.isNull(guess)) throw new IllegalArgumentException("Invalid code! Cannot be null");
+        if (guess.numColors() != this.numColors || guess.length() != this.codeLength) {
+            int[] colors = new int[guess.length()];
+            guess.copyColorsTo(colors);
+            guess = Code.from(colors, this.codeLength, this.numColors);
+        }
+
+        return recordGuess(guess);
+    }
+
+    void checkCanGuess() {
         if (isGameWon())
             throw new IllegalStateException("Game already won!");
 
         if (movesCompleted() == maxAttempts)
             throw new IllegalStateException("Game is over. Cannot make more guesses.");
+    }
 
-        Code guess = Code.from(guessInput, this.codeLength, this.numColors);
-        guessHistory.add(guess);
-
-        Feedback feedback = feedbackStrategy.get(secretCode, guess);
-        feedbackHistory.add(feedback);
+    private Feedback recordGuess(Code guess) {
+        Feedback feedback;
+        if (history.storesOrdinals()) {
+            int ordinal = feedbackStrategy.ordinal(secretCode, guess);
+            history.add(guess, ordinal);
+            feedback = feedbackStrategy.fromOrdinal(ordinal, codeLength);
+        } else {
+            feedback = feedbackStrategy.get(secretCode, guess);
+            history.add(guess, feedback);
+        }
+        won = guess.equals(secretCode);
+        if (candidates != null) candidates.retain(guess, feedback, feedbackStrategy);
 
         return feedback;
     }
@@ -78,10 +128,10 @@ public class Game {
      * @return an integer representing the number of moves completed in the game
      */
     public int movesCompleted() {
-        if (guessHistory.size() > maxAttempts)
+        if (history.size() > maxAttempts)
             throw new IllegalStateException("Game in illegal state -- more moves than attempts");
 
-        return guessHistory.size();
+        return history.size();
     }
 
     /**
@@ -92,7 +142,7 @@ public class Game {
      * @return a boolean representing whether the game is won
      */
     public boolean isGameWon() {
-        return !guessHistory.isEmpty() && Objects.equals(guessHistory.get(guessHistory.size() - 1), secretCode);
+        return won;
     }
 
     /**
@@ -128,6 +178,40 @@ public class Game {
         return this.maxAttempts;
     }
 
+    /**
+     * Returns the feedback strategy used to score guesses.
+     * <p></p>
+     * This can be used by automated players to reason about the feedback they receive. If a
+     * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackTable} was picked up when the game was built, the table
+     * is returned.
+     *
+     * @return the FeedbackStrategy of the game
+     */
+    public FeedbackStrategy feedbackStrategy() {
+        return this.feedbackStrategy;
+    }
+
+    /**
+     * Returns the secret code, for persistence within the library. Never expose it to players.
+     */
+    Code secretCode() {
+        return secretCode;
+    }
+
+    /**
+     * Returns the guess of a completed move, without materializing the whole history.
+     */
+    Code guess(int move) {
+        return history.guess(move);
+    }
+
+    /**
+     * Returns the feedback of a completed move, without materializing the whole history.
+     */
+    Feedback feedback(int move) {
+        return history.feedback(move);
+    }
+
     /**
      * Returns the history of guesses.
      * <p></p>
@@ -136,7 +220,7 @@ public class Game {
      * @return an immutable list of Code objects representing the history of guesses prior to this method being called
      */
     public List<Code> guessHistory() {
-        return List.copyOf(guessHistory);
+        return history.guesses();
     }
 
     /**
@@ -148,7 +232,51 @@ public class Game {
      * being called
      */
     public List<Feedback> feedbackHistory() {
-        return List.copyOf(feedbackHistory);
+        return history.feedbacks();
+    }
+
+    /**
+     * Returns true if the game keeps track of the codes that are still consistent with its guesses and feedback.
+     *
+     * @return a boolean representing whether candidates are tracked
+     */
+    public boolean isTrackingCandidates() {
+        return candidates != null;
+    }
+
+    /**
+     * Returns the number of codes that are still consistent with every guess and feedback so far, i.e. the number of
+     * codes that could be the secret code.
+     * <p></p>
+     * This is maintained as guesses are processed, so calling it is cheap.
+     *
+     * @return the number of remaining candidates
+     * @throws IllegalStateException if the game does not track candidates. See {@link #isTrackingCandidates()}
+     */
+    public long remainingCandidateCount() {
+        checkTracksCandidates();
+
+        return candidates.size();
+    }
+
+    /**
+     * Returns the codes that are still consistent with every guess and feedback so far, in increasing packed order
+     * (see {@link Code#packed()}).
+     * <p></p>
+     * The stream is lazy and reads the game's current state, so no guess should be processed while it is consumed.
+     *
+     * @return a stream of the remaining candidates
+     * @throws IllegalStateException if the game does not track candidates. See {@link #isTrackingCandidates()}
+     */
+    public Stream<Code> candidates() {
+        checkTracksCandidates();
+
+        return candidates.stream();
+    }
+
+    private void checkTracksCandidates() {
+        if (candidates == null)
+            throw new IllegalStateException("Candidates are not tracked. See Game.Builder#trackCandidates");
     }
 
     /**
@@ -158,12 +286,13 @@ public class Game {
      * can be set using the builder's methods and will throw exceptions if invalid values are provided.
      */
     public static class Builder {
+        private static final Executor ASYNC_EXECUTOR = task -> Thread.ofVirtual().name("game-builder").start(task);
         private int codeLength = 4;
         private int numColors = 8;
         private int maxAttempts = 10;
         private CodeSupplier codeSupplier;
         private FeedbackStrategy feedbackStrategy = FeedbackStrategyImpl.DEFAULT;
-        private Code secretCode;
+        private CandidateSet.Storage candidateStorage; // null unless candidates are tracked
 
         /**
          * Returns the current length of the secret code in the builder.
@@ -252,7 +381,9 @@ public class Game {
          * Sets the feedback strategy for a game instance.
          * <p></p>
          * If the feedback strategy is not set, a default feedback strategy will be used. See
-         * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl}
+         * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl}. If a
+         * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackTable} is registered for the strategy and the game's
+         * code length and number of colors, the game scores guesses with that table instead.
          *
          * @param strategy a FeedbackStrategy object that determines the feedback for a guess
          * @return the current builder object
@@ -266,24 +397,138 @@ public class Game {
             return this;
         }
 
+        /**
+         * Sets whether a game instance keeps track of the codes that are still consistent with its guesses and
+         * feedback. See {@link Game#remainingCandidateCount()} and {@link Game#candidates()}.
+         * <p></p>
+         * Tracking is off by default. It costs one bit per code of the configuration, and each guess scores the
+         * remaining candidates. Only configurations whose codes can be packed (see {@link Code#isPackable(int, int)})
+         * and that have at most 2<sup>36</sup> codes can be tracked; building a game otherwise fails.
+         *
+         * @param trackCandidates true to track candidates on the Java heap
+         * @return the current builder object
+         */
+        public Builder trackCandidates(boolean trackCandidates) {
+            this.candidateStorage = trackCandidates ? CandidateSet.Storage.HEAP : null;
+
+            return this;
+        }
+
+        /**
+         * Makes a game instance keep track of the codes that are still consistent with its guesses and feedback, with
+         * the given storage. See {@link #trackCandidates(boolean)} and {@link CandidateSet.Storage}.
+         * <p></p>
+         * Off-heap candidates of a game are released when the game is garbage collected.
+         *
+         * @param storage where the candidates are stored
+         * @return the current builder object
+         * @throws IllegalArgumentException if the storage is null
+         */
+        public Builder trackCandidates(CandidateSet.Storage storage) {
+            if (Objects.isNull(storage)) throw new IllegalArgumentException("Invalid candidate storage");
+            this.candidateStorage = storage;
+
+            return this;
+        }
+
         /**
          * Builds a Game object with the specified configuration.
          *
          * @return a Game object with the specified configuration
-         * @throws IllegalArgumentException if the code supplier supplies a code which conflicts with {@code codeLength} or {@code numColors}
+         * @throws IllegalArgumentException if the code supplier supplies a code which conflicts with {@code codeLength} or {@code numColors},
+         *                                  or candidates are tracked and the configuration is too large to track
          * @throws IOException              if the code supplier fails to supply a code
          */
         public Game build() throws IOException {
-            if (codeSupplier == null) {
-                codeSupplier(ApiCodeSupplier.of(codeLength, numColors));
-            }
+            resolveCodeSupplier();
 
             try {
-                this.secretCode = Code.from(codeSupplier.get(), this.codeLength, this.numColors);
-                return new Game(this);
+                return new Game(this, Code.from(codeSupplier.get(), this.codeLength, this.numColors));
             } catch (IOException e) {
                 throw new IOException("Failed to get code from code supplier", e);
             }
         }
+
+        /**
+         * Builds several Game objects with the specified configuration, each with its own secret code.
+         * <p></p>
+         * All the secret codes are requested from the code supplier in a single call (see
+         * {@link CodeSupplier#getMany(int)}), so suppliers backed by a remote service make one request regardless of
+         * the number of games.
+         *
+         * @param count the number of games to build
+         * @return an immutable list of {@code count} Game objects with the specified configuration
+         * @throws IllegalArgumentException if {@code count} is negative, the code supplier supplies a code which
+         *                                  conflicts with {@code codeLength} or {@code numColors}, or candidates are
+         *                                  tracked and the configuration is too large to track
+         * @throws IOException              if the code supplier fails to supply the codes
+         */
+        public List<Game> buildMany(int count) throws IOException {
+            if (count < 0) throw new IllegalArgumentException("Invalid number of games");
+            resolveCodeSupplier();
+
+            List<List<Integer>> codes;
+            try {
+                codes = codeSupplier.getMany(count);
+            } catch (IOException e) {
+                throw new IOException("Failed to get codes from code supplier", e);
+            }
+            if (codes.size() != count)
+                throw new IOException("Code supplier returned %d codes instead of %d".formatted(codes.size(), count));
+
+            List<Game> games = new ArrayList<>(count);
+            for (List<Integer> code : codes) {
+                games.add(new Game(this, Code.from(code, this.codeLength, this.numColors)));
+            }
+
+            return List.copyOf(games);
+        }
+
+        /**
+         * Builds a Game object with the specified configuration without blocking the calling thread.
+         * <p></p>
+         * The configuration is captured when this method is called, so the builder can be changed or reused right away.
+         * The secret code is requested on a virtual thread, which suits suppliers that block on I/O.
+         *
+         * @return a CompletableFuture completed with the Game, or completed exceptionally with the exception
+         * {@link #build()} would have thrown
+         */
+        public CompletableFuture<Game> buildAsync() {
+            return buildAsync(ASYNC_EXECUTOR);
+        }
+
+        /**
+         * Builds a Game object with the specified configuration on the given executor. See {@link #buildAsync()}.
+         *
+         * @param executor the executor that requests the secret code
+         * @return a CompletableFuture completed with the Game, or completed exceptionally with the exception
+         * {@link #build()} would have thrown
+         * @throws IllegalArgumentException if the executor is null
+         */
+        public CompletableFuture<Game> buildAsync(Executor executor) {
+            if (Objects.isNull(executor)) throw new IllegalArgumentException("Invalid executor");
+            resolveCodeSupplier();
+            Builder snapshot = new Builder()
+                    .codeLength(codeLength)
+                    .numColors(numColors)
+                    .maxAttempts(maxAttempts)
+                    .codeSupplier(codeSupplier)
+                    .feedbackStrategy(feedbackStrategy);
+            snapshot.candidateStorage = candidateStorage;
+
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return snapshot.build();
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+
+        private void resolveCodeSupplier() {
+            if (codeSupplier == null) {
+                codeSupplier(ApiCodeSupplier.of(codeLength, numColors));
+            }
+        }
     }
 }
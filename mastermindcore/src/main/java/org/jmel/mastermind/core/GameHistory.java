@@ -0,0 +1,123 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The guesses of a game and their feedback, stored as primitives whenever possible.
+ * <p></p>
+ * Guesses are stored in packed form (see {@link Code#packed()}) in a {@code long[]}, and feedback as ordinals in a
+ * {@code byte[]} when the strategy has at most 256 of them. Configurations that do not allow it fall back to arrays
+ * of objects. The arrays are sized for the maximum number of attempts, up to {@value #MAX_INITIAL_CAPACITY} guesses,
+ * and grow beyond that only for games that actually need it. Code and Feedback objects are only created when the
+ * history is read.
+ */
+final class GameHistory {
+    private static final int MAX_INITIAL_CAPACITY = 32;
+    private static final int MAX_BYTE_ORDINALS = 256;
+
+    private final int codeLength;
+    private final int numColors;
+    private final int maxAttempts;
+    private final FeedbackStrategy strategy;
+    private final boolean ordinals;
+    private long[] packedGuesses; // null if codes cannot be packed
+    private Code[] guesses; // null if codes can be packed
+    private byte[] feedbackOrdinals; // null if feedback is stored as objects
+    private Feedback[] feedbacks; // null if feedback is stored as ordinals
+    private int size;
+
+    GameHistory(int codeLength, int numColors, int maxAttempts, FeedbackStrategy strategy) {
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.maxAttempts = maxAttempts;
+        this.strategy = strategy;
+        this.ordinals = strategy.supportsOrdinals(codeLength) && strategy.ordinalCount(codeLength) <= MAX_BYTE_ORDINALS;
+
+        int capacity = Math.min(maxAttempts, MAX_INITIAL_CAPACITY);
+        if (Code.isPackable(codeLength, numColors)) packedGuesses = new long[capacity];
+        else guesses = new Code[capacity];
+        if (ordinals) feedbackOrdinals = new byte[capacity];
+        else feedbacks = new Feedback[capacity];
+    }
+
+    /**
+     * Returns true if feedback is stored as ordinals, in which case it must be added with
+     * {@link #add(Code, int)}.
+     */
+    boolean storesOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * Adds a guess and the ordinal of its feedback. See {@link #storesOrdinals()}.
+     */
+    void add(Code guess, int ordinal) {
+        int index = reserve(guess);
+        feedbackOrdinals[index] = (byte) ordinal;
+    }
+
+    /**
+     * Adds a guess and its feedback, for strategies whose feedback is not stored as ordinals.
+     */
+    void add(Code guess, Feedback feedback) {
+        int index = reserve(guess);
+        feedbacks[index] = feedback;
+    }
+
+    private int reserve(Code guess) {
+        if (size == capacity()) grow();
+        if (packedGuesses != null) packedGuesses[size] = guess.packed();
+        else guesses[size] = guess;
+
+        return size++;
+    }
+
+    private int capacity() {
+        return packedGuesses != null ? packedGuesses.length : guesses.length;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(maxAttempts, 2L * capacity());
+        if (packedGuesses != null) packedGuesses = Arrays.copyOf(packedGuesses, capacity);
+        else guesses = Arrays.copyOf(guesses, capacity);
+        if (feedbackOrdinals != null) feedbackOrdinals = Arrays.copyOf(feedbackOrdinals, capacity);
+        else feedbacks = Arrays.copyOf(feedbacks, capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    Code guess(int index) {
+        return packedGuesses != null ? Code.fromPacked(packedGuesses[index], codeLength, numColors) : guesses[index];
+    }
+
+    Feedback feedback(int index) {
+        return feedbackOrdinals != null
+                ? strategy.fromOrdinal(Byte.toUnsignedInt(feedbackOrdinals[index]), codeLength)
+                : feedbacks[index];
+    }
+
+    List<Code> guesses() {
+        List<Code> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(guess(i));
+        }
+
+        return List.copyOf(list);
+    }
+
+    List<Feedback> feedbacks() {
+        List<Feedback> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(feedback(i));
+        }
+
+        return List.copyOf(list);
+    }
+}
@@ -0,0 +1,669 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only binary log of game events, from which games can be rebuilt after a restart.
+ * <p></p>
+ * Three events are recorded: a game was created ({@link #recordCreated(String, Game)}), a guess is about to be
+ * processed ({@link #recordGuess(String, Game, Code)}), and a game was removed ({@link #recordRemoved(String)}). Each record is
+ * framed with its length and a CRC-32 checksum, and holds codes in packed form and feedback as an ordinal. Recording
+ * returns once the record is on disk. Records are written by a single thread, which flushes and syncs everything
+ * appended since its previous write at once (group commit): the more threads record concurrently, the more records
+ * share one {@code fsync}.
+ * <p></p>
+ * The log is a series of segment files in a directory, and each time a journal is opened it starts a new segment, so a
+ * record torn by a crash is always at the end of a segment and is simply ignored by {@link #recover()}. To keep recovery
+ * time bounded, {@link #compact(GameRegistry)} should be called periodically: it starts a new segment, writes a
+ * snapshot of the games of a registry, and deletes the older segments and snapshots. Recovery then reads the latest
+ * snapshot and the segments written since.
+ * <p></p>
+ * If a batch cannot be written or synced, the writer retries it once in a new segment: the failed segment may end with
+ * part of the batch, which recovery ignores or replays twice harmlessly. If the retry fails too, the journal stops:
+ * the records waiting for that batch and every later record fail with an {@link IOException}, and the journal has to
+ * be reopened.
+ * <p></p>
+ * Only games scored with a {@link FeedbackStrategyImpl}, or a {@link FeedbackTable} of one, can be journaled, since the
+ * strategy is recorded by name. Instances are thread-safe.
+ */
+public class GameJournal implements Closeable {
+    private static final int MAGIC = 0x4D4D4A4C; // "MMJL"
+    private static final int VERSION = 1;
+    private static final byte CREATED = 1;
+    private static final byte GUESSED = 2;
+    private static final byte REMOVED = 3;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition(); // records appended, a new segment requested, or closing
+    private final Condition written = lock.newCondition(); // records made durable, or the writer failed
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended; // number of records appended so far
+    private long durable; // number of records on disk
+    private long segment; // the segment being written
+    private long rotationsRequested; // number of new segments requested by compactions
+    private long rotationsDone; // number of those requests served by the writer
+    private IOException failure; // set once the writer has stopped
+    private boolean closed;
+    private FileChannel channel; // only used by the writer thread
+    private final Thread writer;
+
+    private GameJournal(Path directory, long segment, FileChannel channel) {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = channel;
+        this.writer = Thread.ofPlatform().name("game-journal-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Opens the journal stored in a directory, creating the directory if needed. Records are appended to a new
+     * segment; existing records can be read with {@link #recover()}.
+     *
+     * @param directory the directory of the journal
+     * @return a new instance of GameJournal
+     * @throws IOException              if the directory cannot be created or written to
+     * @throws IllegalArgumentException if the directory is null
+     */
+    public static GameJournal open(Path directory) throws IOException {
+        if (Objects.isNull(directory)) throw new IllegalArgumentException("Invalid journal directory");
+        Files.createDirectories(directory);
+
+        long last = Math.max(lastNumber(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX),
+                lastNumber(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+        long segment = last + 1;
+
+        return new GameJournal(directory, segment, openSegment(directory, segment));
+    }
+
+    /**
+     * Records that a game was created, along with the guesses it already has.
+     *
+     * @param id   the id of the game
+     * @param game the game
+     * @throws IOException              if the record cannot be written, or the journal is closed
+     * @throws IllegalArgumentException if a parameter is null or the game's feedback strategy cannot be journaled
+     */
+    public void recordCreated(String id, Game game) throws IOException {
+        if (Objects.isNull(id)) throw new IllegalArgumentException("Invalid game id");
+        if (Objects.isNull(game)) throw new IllegalArgumentException("Invalid game");
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        writeGame(records, id, game);
+        append(records.toByteArray());
+    }
+
+    /**
+     * Records a guess before it is processed, so that a game never gets ahead of its journal: the feedback is computed
+     * without changing the game, and once the record is on disk, the caller processes the guess with
+     * {@link Game#processGuessCode(Code)}. If recording fails, the guess must not be processed. It must be called for every
+     * guess, typically while holding the game's lock (see {@link GameRegistry#withGame}), so that guesses are recorded
+     * in the order they are processed.
+     *
+     * @param id    the id of the game
+     * @param game  the game
+     * @param guess the guess about to be processed
+     * @throws IOException              if the record cannot be written, or the journal is closed
+     * @throws IllegalArgumentException if a parameter is null, or the guess does not conform to the game's code length
+     *                                  and number of colors
+     * @throws IllegalStateException    if the game is already over
+     */
+    public void recordGuess(String id, Game game, Code guess) throws IOException {
+        if (Objects.isNull(id)) throw new IllegalArgumentException("Invalid game id");
+        if (Objects.isNull(game)) throw new IllegalArgumentException("Invalid game");
+        game.checkCanGuess();
+        if (Objects.isNull(guess) || guess.length() != game.codeLength() || guess.numColors() != game.numColors())
+            throw new IllegalArgumentException("Invalid guess! Must conform to the game's code length and number of colors");
+
+        FeedbackStrategy strategy = game.feedbackStrategy();
+        int ordinal = strategy.supportsOrdinals(game.codeLength()) ? strategy.ordinal(game.secretCode(), guess) : -1;
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeGuess(record, id, game.movesCompleted(), guess, ordinal);
+        append(record.toByteArray());
+    }
+
+    /**
+     * Records that a game was removed, so that it is not recovered.
+     *
+     * @param id the id of the game
+     * @throws IOException              if the record cannot be written, or the journal is closed
+     * @throws IllegalArgumentException if the id is null
+     */
+    public void recordRemoved(String id) throws IOException {
+        if (Objects.isNull(id)) throw new IllegalArgumentException("Invalid game id");
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        writeRecord(record, out -> {
+            out.writeByte(REMOVED);
+            out.writeUTF(id);
+        });
+        append(record.toByteArray());
+    }
+
+    /**
+     * Rebuilds the games recorded before this journal was opened, from the latest snapshot and the segments written
+     * after it. A record torn by a crash at the end of a segment is ignored.
+     *
+     * @return the games that were not removed, by id, in order of creation
+     * @throws IOException if the journal cannot be read, is corrupted, or does not match the games it records
+     */
+    public Map<String, Game> recover() throws IOException {
+        long snapshot = lastNumber(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        Map<String, Game> games = new LinkedHashMap<>();
+        if (snapshot > 0) replay(directory.resolve(SNAPSHOT_PREFIX + snapshot + SNAPSHOT_SUFFIX), games, false);
+
+        List<Long> segments = numbers(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (long number : segments) {
+            if (number >= snapshot && number < segment())
+                replay(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX), games, true);
+        }
+
+        return games;
+    }
+
+    /**
+     * Replaces the journal recorded so far with a snapshot of the games of a registry. Records are written to a new
+     * segment from the start of the compaction on, so recording can continue meanwhile; once the snapshot is on disk,
+     * older segments and snapshots are deleted.
+     *
+     * @param games the registry holding every game that should be recovered
+     * @throws IOException              if the snapshot cannot be written, or the journal is closed
+     * @throws IllegalArgumentException if the registry is null, or holds a game that cannot be journaled
+     */
+    public void compact(GameRegistry games) throws IOException {
+        if (Objects.isNull(games)) throw new IllegalArgumentException("Invalid game registry");
+
+        long number = rotate();
+        Path snapshot = directory.resolve(SNAPSHOT_PREFIX + number + SNAPSHOT_SUFFIX);
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + number + SNAPSHOT_SUFFIX + ".tmp");
+        try {
+            writeSnapshot(temporary, games);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+
+        for (long old : numbers(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (old < number) Files.deleteIfExists(directory.resolve(SEGMENT_PREFIX + old + SEGMENT_SUFFIX));
+        }
+        for (long old : numbers(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < number) Files.deleteIfExists(directory.resolve(SNAPSHOT_PREFIX + old + SNAPSHOT_SUFFIX));
+        }
+    }
+
+    private static void writeSnapshot(Path temporary, GameRegistry games) throws IOException {
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedOutputStream out = new BufferedOutputStream(Channels.newOutputStream(file));
+            writeHeader(out);
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            IOException[] error = new IOException[1];
+            games.forEach((id, game) -> {
+                if (error[0] != null) return;
+                try {
+                    records.reset();
+                    writeGame(records, id, game);
+                    records.writeTo(out);
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) throw error[0];
+            out.flush();
+            file.force(true);
+        }
+    }
+
+    /**
+     * Writes the records appended so far and stops the writer. Recording fails afterwards.
+     *
+     * @throws IOException if the pending records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            work.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        channel.close();
+        lock.lock();
+        try {
+            if (failure != null) throw new IOException("Failed to write journal", failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long segment() {
+        lock.lock();
+        try {
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends records and waits until they are on disk.
+     */
+    private void append(byte[] records) throws IOException {
+        lock.lock();
+        try {
+            checkWritable();
+            pending.writeBytes(records);
+            long sequence = ++appended;
+            work.signal();
+            while (durable < sequence && failure == null) {
+                written.await();
+            }
+            if (durable < sequence) throw new IOException("Failed to write journal", failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the writer switch to a new segment once the records appended so far are written, and waits for it.
+     *
+     * @return the number of the segment now being written: records appended before this call are all in older segments
+     */
+    private long rotate() throws IOException {
+        lock.lock();
+        try {
+            checkWritable();
+            long ticket = ++rotationsRequested;
+            work.signal();
+            while (rotationsDone < ticket && failure == null) {
+                written.await();
+            }
+            if (rotationsDone < ticket) throw new IOException("Failed to write journal", failure);
+
+            return segment;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rotating journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (closed) throw new IOException("Journal is closed");
+        if (failure != null) throw new IOException("Failed to write journal", failure);
+    }
+
+    private void writeLoop() {
+        while (true) {
+            byte[] batch;
+            long sequence;
+            long rotations;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && rotationsRequested == rotationsDone && !closed) {
+                    work.awaitUninterruptibly();
+                }
+                if (pending.size() == 0 && rotationsRequested == rotationsDone) return; // closed
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+                sequence = appended;
+                rotations = rotationsRequested;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (batch.length > 0) writeBatch(batch);
+                if (rotations != rotationsDone) switchSegment();
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    written.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durable = sequence;
+                rotationsDone = rotations;
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes and syncs a batch of records, retrying once in a new segment if the current one fails.
+     */
+    private void writeBatch(byte[] batch) throws IOException {
+        try {
+            writeFully(channel, batch);
+        } catch (IOException e) {
+            try {
+                switchSegment();
+                writeFully(channel, batch);
+            } catch (IOException retry) {
+                retry.addSuppressed(e);
+                throw retry;
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Makes the writer continue in the next segment. Only called by the writer thread.
+     */
+    private void switchSegment() throws IOException {
+        long next = segment() + 1;
+        FileChannel fresh = openSegment(directory, next);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Everything written to the old segment was synced, or is written again to the new one
+        }
+        channel = fresh;
+        lock.lock();
+        try {
+            segment = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static FileChannel openSegment(Path directory, long number) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            writeHeader(header);
+            channel.write(ByteBuffer.wrap(header.toByteArray()));
+            channel.force(true);
+            forceDirectory(directory);
+
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.flush();
+    }
+
+    /**
+     * Makes the creation, deletion or renaming of files in a directory durable, where the platform supports it.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open directories; their file systems make metadata durable on their own
+        }
+    }
+
+    private static long lastNumber(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> numbers = numbers(directory, prefix, suffix);
+
+        return numbers.isEmpty() ? 0 : numbers.get(numbers.size() - 1);
+    }
+
+    /**
+     * Returns the numbers of the files named prefix + number + suffix in a directory, in increasing order.
+     */
+    private static List<Long> numbers(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> name.substring(prefix.length(), name.length() - suffix.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void writeGame(ByteArrayOutputStream records, String id, Game game) throws IOException {
+        String strategy = strategyName(game.feedbackStrategy());
+        writeRecord(records, out -> {
+            out.writeByte(CREATED);
+            out.writeUTF(id);
+            out.writeInt(game.codeLength());
+            out.writeInt(game.numColors());
+            out.writeInt(game.maxAttempts());
+            out.writeUTF(strategy);
+            writeCode(out, game.secretCode());
+        });
+        boolean ordinals = game.feedbackStrategy().supportsOrdinals(game.codeLength());
+        for (int move = 0; move < game.movesCompleted(); move++) {
+            writeGuess(records, id, move, game.guess(move), ordinals ? game.feedback(move).ordinal() : -1);
+        }
+    }
+
+    private static void writeGuess(ByteArrayOutputStream records, String id, int move, Code guess, int ordinal)
+            throws IOException {
+        writeRecord(records, out -> {
+            out.writeByte(GUESSED);
+            out.writeUTF(id);
+            out.writeInt(move);
+            writeCode(out, guess);
+            out.writeInt(ordinal);
+        });
+    }
+
+    private static String strategyName(FeedbackStrategy strategy) {
+        if (strategy instanceof FeedbackTable table) strategy = table.strategy();
+        if (!(strategy instanceof FeedbackStrategyImpl impl))
+            throw new IllegalArgumentException("Only games scored with a FeedbackStrategyImpl can be journaled");
+
+        return impl.name();
+    }
+
+    private static FeedbackStrategy strategy(String name, Path file) throws IOException {
+        try {
+            return FeedbackStrategyImpl.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Journal %s has an unknown feedback strategy %s".formatted(file, name), e);
+        }
+    }
+
+    private static void writeCode(DataOutputStream out, Code code) throws IOException {
+        if (code.isPacked()) {
+            out.writeLong(code.packed());
+        } else {
+            for (int i = 0; i < code.length(); i++) {
+                out.writeInt(code.colorAt(i));
+            }
+        }
+    }
+
+    private static Code readCode(DataInputStream in, int codeLength, int numColors) throws IOException {
+        if (Code.isPackable(codeLength, numColors)) return Code.fromPacked(in.readLong(), codeLength, numColors);
+
+        int[] colors = new int[codeLength];
+        for (int i = 0; i < codeLength; i++) {
+            colors[i] = in.readInt();
+        }
+
+        return Code.from(colors, codeLength, numColors);
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes a record as its length, its payload, and the CRC-32 of its payload.
+     */
+    private static void writeRecord(ByteArrayOutputStream records, RecordWriter writer) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writer.write(new DataOutputStream(payload));
+        CRC32 crc = new CRC32();
+        crc.update(payload.toByteArray());
+
+        DataOutputStream out = new DataOutputStream(records);
+        out.writeInt(payload.size());
+        payload.writeTo(out);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Applies the records of a file to a map of games. A torn or corrupted record ends a segment, but not a snapshot; a
+     * segment whose header is missing or short was torn while being created, and holds no record.
+     */
+    private static void replay(Path file, Map<String, Game> games, boolean segment) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            byte[] header = in.readNBytes(2 * Integer.BYTES);
+            if (header.length < 2 * Integer.BYTES && segment) return;
+            ByteBuffer fields = ByteBuffer.wrap(header);
+            if (header.length < 2 * Integer.BYTES || fields.getInt() != MAGIC || fields.getInt() != VERSION)
+                throw new IOException("%s is not a game journal".formatted(file));
+
+            while (true) {
+                byte[] payload = readPayload(in);
+                if (payload == null) return;
+                if (payload.length == 0) {
+                    if (segment) return;
+                    throw new IOException("Journal snapshot %s is corrupted".formatted(file));
+                }
+                apply(new DataInputStream(new ByteArrayInputStream(payload)), games, file);
+            }
+        } catch (EOFException e) {
+            throw new IOException("%s is not a game journal".formatted(file), e);
+        }
+    }
+
+    /**
+     * Reads the payload of the next record.
+     *
+     * @return the payload, null at the end of the file, or an empty array if the record is torn or corrupted
+     */
+    private static byte[] readPayload(DataInputStream in) throws IOException {
+        byte[] length = in.readNBytes(Integer.BYTES);
+        if (length.length == 0) return null;
+        if (length.length < Integer.BYTES) return new byte[0];
+
+        int size = ByteBuffer.wrap(length).getInt();
+        if (size <= 0 || size > MAX_RECORD_SIZE) return new byte[0];
+        byte[] payload = in.readNBytes(size);
+        byte[] checksum = in.readNBytes(Integer.BYTES);
+        if (payload.length < size || checksum.length < Integer.BYTES) return new byte[0];
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        return (int) crc.getValue() == ByteBuffer.wrap(checksum).getInt() ? payload : new byte[0];
+    }
+
+    private static void apply(DataInputStream in, Map<String, Game> games, Path file) throws IOException {
+        byte type = in.readByte();
+        String id = in.readUTF();
+        switch (type) {
+            case CREATED -> {
+                int codeLength = in.readInt();
+                int numColors = in.readInt();
+                int maxAttempts = in.readInt();
+                FeedbackStrategy strategy = strategy(in.readUTF(), file);
+                Code secretCode = readCode(in, codeLength, numColors);
+                if (games.containsKey(id)) return; // created before a snapshot that already holds it
+
+                games.put(id, new Game.Builder()
+                        .codeLength(codeLength)
+                        .numColors(numColors)
+                        .maxAttempts(maxAttempts)
+                        .feedbackStrategy(strategy)
+                        .codeSupplier(UserDefinedCodeSupplier.of(secretCode.value()))
+                        .build());
+            }
+            case GUESSED -> {
+                Game game = games.get(id);
+                if (game == null) return; // removed before a snapshot
+                int move = in.readInt();
+                Code guess = readCode(in, game.codeLength(), game.numColors());
+                int ordinal = in.readInt();
+                if (move < game.movesCompleted()) return; // already in a snapshot
+                if (move > game.movesCompleted())
+                    throw new IOException("Journal %s is missing guesses of game %s".formatted(file, id));
+
+                Feedback feedback = game.processGuessCode(guess);
+                if (ordinal >= 0 && feedback.ordinal() != ordinal)
+                    throw new IOException("Journal %s does not match game %s".formatted(file, id));
+            }
+            case REMOVED -> games.remove(id);
+            default -> throw new IOException("Journal %s has an unknown record type %d".formatted(file, type));
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The complete history of a finished game, as written by {@link GameRecordWriter} and read by
+ * {@link GameRecordReader}.
+ * <p></p>
+ * Codes are held in packed form (see {@link Code#packed()}) and feedback as ordinals (see {@link Feedback#ordinal()}),
+ * so a record is a handful of primitives; {@link #secretCode()}, {@link #guess(int)} and {@link #feedback(int)} turn
+ * them back into objects.
+ */
+public final class GameRecord {
+    private final int codeLength;
+    private final int numColors;
+    private final int maxAttempts;
+    private final FeedbackStrategyImpl feedbackStrategy;
+    private final long packedSecretCode;
+    private final long[] packedGuesses;
+    private final int[] feedbackOrdinals;
+
+    /**
+     * Creates a record, copying the arrays.
+     *
+     * @param codeLength       the length of the codes
+     * @param numColors        the number of colors that can be used in the codes
+     * @param maxAttempts      the maximum number of attempts of the game
+     * @param feedbackStrategy the feedback strategy of the game
+     * @param packedSecretCode the secret code, packed
+     * @param packedGuesses    the guesses, packed, in the order they were made
+     * @param feedbackOrdinals the ordinals of the feedback of each guess
+     * @throws IllegalArgumentException if codes of the configuration cannot be packed, the strategy does not support
+     *                                  ordinals, or the guesses and their feedback do not match the configuration
+     */
+    public GameRecord(int codeLength, int numColors, int maxAttempts, FeedbackStrategyImpl feedbackStrategy,
+                      long packedSecretCode, long[] packedGuesses, int[] feedbackOrdinals) {
+        if (codeLength < 1) throw new IllegalArgumentException("Invalid code length");
+        if (numColors <= 1) throw new IllegalArgumentException("Invalid number of colors");
+        if (!Code.isPackable(codeLength, numColors))
+            throw new IllegalArgumentException("Codes of length %d with %d colors cannot be packed".formatted(codeLength, numColors));
+        if (maxAttempts < 1) throw new IllegalArgumentException("Invalid max attempts");
+        if (Objects.isNull(feedbackStrategy) || !feedbackStrategy.supportsOrdinals(codeLength))
+            throw new IllegalArgumentException("Invalid feedback strategy");
+        long spaceSize = Code.packedSpaceSize(codeLength, numColors);
+        if (packedSecretCode < 0 || packedSecretCode >= spaceSize)
+            throw new IllegalArgumentException("Invalid secret code");
+        if (Objects.isNull(packedGuesses) || Objects.isNull(feedbackOrdinals)
+                || packedGuesses.length != feedbackOrdinals.length || packedGuesses.length > maxAttempts)
+            throw new IllegalArgumentException("Invalid guesses");
+        int ordinalCount = feedbackStrategy.ordinalCount(codeLength);
+        for (int move = 0; move < packedGuesses.length; move++) {
+            if (packedGuesses[move] < 0 || packedGuesses[move] >= spaceSize)
+                throw new IllegalArgumentException("Invalid guesses");
+            if (feedbackOrdinals[move] < 0 || feedbackOrdinals[move] >= ordinalCount)
+                throw new IllegalArgumentException("Invalid feedback ordinals");
+        }
+
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.maxAttempts = maxAttempts;
+        this.feedbackStrategy = feedbackStrategy;
+        this.packedSecretCode = packedSecretCode;
+        this.packedGuesses = packedGuesses.clone();
+        this.feedbackOrdinals = feedbackOrdinals.clone();
+    }
+
+    /**
+     * Creates a record from the moves {@code from} (inclusive) to {@code to} (exclusive) of the guesses and ordinals
+     * of a block, copying them once and without checking any field: the block was validated as it was decoded.
+     */
+    GameRecord(int codeLength, int numColors, int maxAttempts, FeedbackStrategyImpl feedbackStrategy,
+               long packedSecretCode, long[] guesses, int[] ordinals, int from, int to) {
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.maxAttempts = maxAttempts;
+        this.feedbackStrategy = feedbackStrategy;
+        this.packedSecretCode = packedSecretCode;
+        this.packedGuesses = Arrays.copyOfRange(guesses, from, to);
+        this.feedbackOrdinals = Arrays.copyOfRange(ordinals, from, to);
+    }
+
+    /**
+     * Creates the record of a finished game.
+     *
+     * @param game a game that is won or has used all its attempts
+     * @return a new instance of GameRecord
+     * @throws IllegalArgumentException if the game is null or cannot be recorded: its codes cannot be packed, or its
+     *                                  feedback strategy is not a {@link FeedbackStrategyImpl} (or a
+     *                                  {@link FeedbackTable} of one) supporting ordinals
+     * @throws IllegalStateException    if the game is not finished
+     */
+    public static GameRecord of(Game game) {
+        if (Objects.isNull(game)) throw new IllegalArgumentException("Invalid game");
+        if (!game.isGameWon() && game.movesCompleted() < game.maxAttempts())
+            throw new IllegalStateException("Game is not finished");
+
+        FeedbackStrategy strategy = game.feedbackStrategy();
+        if (strategy instanceof FeedbackTable table) strategy = table.strategy();
+        if (!(strategy instanceof FeedbackStrategyImpl impl))
+            throw new IllegalArgumentException("Only games scored with a FeedbackStrategyImpl can be recorded");
+        if (!Code.isPackable(game.codeLength(), game.numColors()))
+            throw new IllegalArgumentException("Codes of length %d with %d colors cannot be packed".formatted(game.codeLength(), game.numColors()));
+
+        int moves = game.movesCompleted();
+        long[] guesses = new long[moves];
+        int[] ordinals = new int[moves];
+        for (int move = 0; move < moves; move++) {
+            guesses[move] = game.guess(move).packed();
+            ordinals[move] = game.feedback(move).ordinal();
+        }
+
+        return new GameRecord(game.codeLength(), game.numColors(), game.maxAttempts(), impl,
+                game.secretCode().packed(), guesses, ordinals);
+    }
+
+    /**
+     * Returns the length of the codes.
+     *
+     * @return the length of the codes
+     */
+    public int codeLength() {
+        return codeLength;
+    }
+
+    /**
+     * Returns the number of colors that can be used in the codes.
+     *
+     * @return the number of colors
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    /**
+     * Returns the maximum number of attempts of the game.
+     *
+     * @return the maximum number of attempts
+     */
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the feedback strategy of the game.
+     *
+     * @return the feedback strategy
+     */
+    public FeedbackStrategyImpl feedbackStrategy() {
+        return feedbackStrategy;
+    }
+
+    /**
+     * Returns the secret code, packed.
+     *
+     * @return the packed secret code
+     */
+    public long packedSecretCode() {
+        return packedSecretCode;
+    }
+
+    /**
+     * Returns the guesses, packed, in the order they were made.
+     *
+     * @return a copy of the guesses array
+     */
+    public long[] packedGuesses() {
+        return packedGuesses.clone();
+    }
+
+    /**
+     * Returns the ordinals of the feedback of each guess.
+     *
+     * @return a copy of the ordinals array
+     */
+    public int[] feedbackOrdinals() {
+        return feedbackOrdinals.clone();
+    }
+
+    /**
+     * Returns a guess, packed, without copying the guesses array.
+     */
+    long packedGuess(int move) {
+        return packedGuesses[move];
+    }
+
+    /**
+     * Returns the ordinal of the feedback of a guess, without copying the ordinals array.
+     */
+    int feedbackOrdinal(int move) {
+        return feedbackOrdinals[move];
+    }
+
+    /**
+     * Returns the number of guesses made.
+     *
+     * @return the number of guesses
+     */
+    public int movesCompleted() {
+        return packedGuesses.length;
+    }
+
+    /**
+     * Returns whether the secret code was guessed.
+     *
+     * @return true if the last guess is the secret code
+     */
+    public boolean isWon() {
+        return packedGuesses.length > 0 && packedGuesses[packedGuesses.length - 1] == packedSecretCode;
+    }
+
+    /**
+     * Returns the secret code.
+     *
+     * @return the secret code
+     */
+    public Code secretCode() {
+        return Code.fromPacked(packedSecretCode, codeLength, numColors);
+    }
+
+    /**
+     * Returns a guess.
+     *
+     * @param move the index of the guess, from 0
+     * @return the guess
+     * @throws IndexOutOfBoundsException if there is no such guess
+     */
+    public Code guess(int move) {
+        return Code.fromPacked(packedGuesses[Objects.checkIndex(move, packedGuesses.length)], codeLength, numColors);
+    }
+
+    /**
+     * Returns the feedback of a guess.
+     *
+     * @param move the index of the guess, from 0
+     * @return the feedback of the guess
+     * @throws IndexOutOfBoundsException if there is no such guess
+     */
+    public Feedback feedback(int move) {
+        return feedbackStrategy.fromOrdinal(feedbackOrdinals[Objects.checkIndex(move, feedbackOrdinals.length)], codeLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameRecord that)) return false;
+
+        return codeLength == that.codeLength && numColors == that.numColors && maxAttempts == that.maxAttempts
+                && feedbackStrategy == that.feedbackStrategy && packedSecretCode == that.packedSecretCode
+                && Arrays.equals(packedGuesses, that.packedGuesses)
+                && Arrays.equals(feedbackOrdinals, that.feedbackOrdinals);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(codeLength, numColors, maxAttempts, feedbackStrategy, packedSecretCode,
+                Arrays.hashCode(packedGuesses), Arrays.hashCode(feedbackOrdinals));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "GameRecord[codeLength=%d, numColors=%d, maxAttempts=%d, feedbackStrategy=%s, packedSecretCode=%d, packedGuesses=%s, feedbackOrdinals=%s]"
+                .formatted(codeLength, numColors, maxAttempts, feedbackStrategy, packedSecretCode,
+                        Arrays.toString(packedGuesses), Arrays.toString(feedbackOrdinals));
+    }
+}
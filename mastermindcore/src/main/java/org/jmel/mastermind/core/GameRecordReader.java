@@ -0,0 +1,306 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Reads game records written by a {@link GameRecordWriter}, one block at a time.
+ * <p></p>
+ * Only the current block is held in memory, so files of any size can be scanned with constant memory, at the speed
+ * the stream delivers bytes. A file that ends in the middle of a block, or whose block does not match its checksum, is
+ * reported with an {@link IOException} once the records before it have been read. Instances are not thread-safe.
+ */
+public class GameRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataInputStream in;
+    private byte[] payload = new byte[0];
+    private long recordCount;
+    // The current block, decoded column by column
+    private int blockSize;
+    private int nextRecord;
+    private int nextGuess;
+    private int[] codeLengths;
+    private int[] numColors;
+    private int[] maxAttempts;
+    private FeedbackStrategyImpl[] strategies; // the dictionary of the block
+    private int[] strategyCodes;
+    private int[] moves;
+    private long[] secretCodes;
+    private long[] guesses;
+    private int[] ordinals;
+
+    private GameRecordReader(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * Creates a reader of a stream, starting with the header of the format.
+     *
+     * @param in the stream the records are read from; it is closed with the reader
+     * @return a new instance of GameRecordReader
+     * @throws IOException              if the header cannot be read, or the stream does not hold game records
+     * @throws IllegalArgumentException if the stream is null
+     */
+    public static GameRecordReader of(InputStream in) throws IOException {
+        if (Objects.isNull(in)) throw new IllegalArgumentException("Invalid input stream");
+
+        GameRecordReader reader = new GameRecordReader(new BufferedInputStream(in, BUFFER_SIZE));
+        try {
+            if (reader.in.readInt() != GameRecordWriter.MAGIC) throw new IOException("Stream does not hold game records");
+            int version = reader.in.readInt();
+            if (version != GameRecordWriter.VERSION)
+                throw new IOException("Unsupported game record version %d".formatted(version));
+        } catch (IOException e) {
+            reader.close();
+            throw e instanceof EOFException ? new IOException("Stream does not hold game records", e) : e;
+        }
+
+        return reader;
+    }
+
+    /**
+     * Creates a reader of a file.
+     *
+     * @param file a file written by a {@link GameRecordWriter}
+     * @return a new instance of GameRecordReader
+     * @throws IOException              if the file cannot be read, or does not hold game records
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static GameRecordReader open(Path file) throws IOException {
+        if (Objects.isNull(file)) throw new IllegalArgumentException("Invalid file");
+
+        return of(Files.newInputStream(file));
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next record, or null at the end of the stream
+     * @throws IOException if the stream cannot be read, or is truncated or corrupted
+     */
+    public GameRecord read() throws IOException {
+        if (nextRecord == blockSize && !readBlock()) return null;
+
+        int record = nextRecord++;
+        int firstGuess = nextGuess;
+        nextGuess += moves[record];
+        recordCount++;
+
+        return new GameRecord(codeLengths[record], numColors[record], maxAttempts[record],
+                strategies[strategyCodes[record]], secretCodes[record], guesses, ordinals, firstGuess, nextGuess);
+    }
+
+    /**
+     * Returns a lazily populated stream of the remaining records. I/O errors are thrown as
+     * {@link UncheckedIOException} from the stream operation that reads the failing block.
+     *
+     * @return a sequential stream of records
+     */
+    public Stream<GameRecord> records() {
+        Iterator<GameRecord> iterator = new Iterator<>() {
+            private GameRecord next;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) return true;
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return next != null;
+            }
+
+            @Override
+            public GameRecord next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                GameRecord record = next;
+                next = null;
+
+                return record;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the number of records read so far.
+     *
+     * @return the number of records
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Closes the stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads and decodes the next block.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean readBlock() throws IOException {
+        byte[] header = in.readNBytes(Integer.BYTES);
+        if (header.length == 0) return false;
+        if (header.length < Integer.BYTES) throw new IOException("Game records are truncated");
+
+        int length = ByteBuffer.wrap(header).getInt();
+        if (length <= 0 || length > GameRecordWriter.MAX_BLOCK_BYTES)
+            throw new IOException("Game record block is corrupted");
+        if (payload.length < length) payload = new byte[Math.max(length, 2 * payload.length)];
+        byte[] checksum = new byte[Integer.BYTES];
+        if (in.readNBytes(payload, 0, length) < length || in.readNBytes(checksum, 0, Integer.BYTES) < Integer.BYTES)
+            throw new IOException("Game records are truncated");
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, length);
+        if ((int) crc.getValue() != ByteBuffer.wrap(checksum).getInt())
+            throw new IOException("Game record block is corrupted");
+
+        decode(new Varints.Decoder(payload, 0, length), length);
+        nextRecord = 0;
+        nextGuess = 0;
+
+        return true;
+    }
+
+    /**
+     * Decodes a block, checking every record the way {@link GameRecord}'s public constructor does, so that the records
+     * can be built from it without checking them again.
+     */
+    private void decode(Varints.Decoder block, int length) throws IOException {
+        int count = block.nextInt();
+        if (count <= 0 || count > length) throw new IOException("Game record block is corrupted");
+
+        codeLengths = runs(block.nextRange(), count);
+        numColors = runs(block.nextRange(), count);
+        maxAttempts = runs(block.nextRange(), count);
+        strategies = strategies(block.nextRange());
+        strategyCodes = runs(block.nextRange(), count);
+        for (int code : strategyCodes) {
+            if (code < 0 || code >= strategies.length) throw new IOException("Game record block is corrupted");
+        }
+
+        Varints.Decoder column = block.nextRange();
+        moves = new int[count];
+        long guessCount = 0;
+        for (int i = 0; i < count; i++) {
+            moves[i] = column.nextInt();
+            if (moves[i] < 0 || maxAttempts[i] < 1 || moves[i] > maxAttempts[i])
+                throw new IOException("Game record block is corrupted");
+            guessCount += moves[i];
+        }
+        checkEnd(column);
+        if (guessCount > length) throw new IOException("Game record block is corrupted");
+
+        Varints.Decoder secretColumn = block.nextRange();
+        Varints.Decoder guessColumn = block.nextRange();
+        Varints.Decoder ordinalColumn = block.nextRange();
+        checkEnd(block);
+        secretCodes = new long[count];
+        guesses = new long[(int) guessCount];
+        ordinals = new int[(int) guessCount];
+        long spaceSize = 0;
+        int ordinalCount = 0;
+        for (int i = 0, guess = 0; i < count; i++) {
+            // Configurations come in runs, so they are checked once per run
+            if (i == 0 || codeLengths[i] != codeLengths[i - 1] || numColors[i] != numColors[i - 1]
+                    || strategyCodes[i] != strategyCodes[i - 1]) {
+                FeedbackStrategyImpl strategy = strategies[strategyCodes[i]];
+                if (numColors[i] <= 1) throw new IOException("Game record block is corrupted");
+                spaceSize = Code.packedSpaceSize(codeLengths[i], numColors[i]);
+                if (spaceSize < 0 || !strategy.supportsOrdinals(codeLengths[i]))
+                    throw new IOException("Game record block is corrupted");
+                ordinalCount = strategy.ordinalCount(codeLengths[i]);
+            }
+            secretCodes[i] = checkRange(secretColumn.next(), spaceSize);
+            for (int end = guess + moves[i]; guess < end; guess++) {
+                guesses[guess] = checkRange(guessColumn.next(), spaceSize);
+                ordinals[guess] = (int) checkRange(ordinalColumn.nextInt(), ordinalCount);
+            }
+        }
+        checkEnd(secretColumn);
+        checkEnd(guessColumn);
+        checkEnd(ordinalColumn);
+
+        blockSize = count;
+    }
+
+    /**
+     * Decodes the dictionary of feedback strategy names of a block.
+     */
+    private static FeedbackStrategyImpl[] strategies(Varints.Decoder column) throws IOException {
+        List<FeedbackStrategyImpl> strategies = new ArrayList<>();
+        while (column.hasRemaining()) {
+            String name = column.nextString();
+            try {
+                strategies.add(FeedbackStrategyImpl.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown feedback strategy %s".formatted(name), e);
+            }
+        }
+
+        return strategies.toArray(FeedbackStrategyImpl[]::new);
+    }
+
+    /**
+     * Decodes a run-length encoded column of {@code count} values.
+     */
+    private static int[] runs(Varints.Decoder column, int count) throws IOException {
+        int[] values = new int[count];
+        int filled = 0;
+        while (filled < count) {
+            int value = column.nextInt();
+            int run = column.nextInt();
+            if (run <= 0 || run > count - filled) throw new IOException("Game record block is corrupted");
+            Arrays.fill(values, filled, filled + run, value);
+            filled += run;
+        }
+        checkEnd(column);
+
+        return values;
+    }
+
+    private static long checkRange(long value, long bound) throws IOException {
+        if (value < 0 || value >= bound) throw new IOException("Game record block is corrupted");
+
+        return value;
+    }
+
+    private static void checkEnd(Varints.Decoder column) throws IOException {
+        if (column.hasRemaining()) throw new IOException("Game record block is corrupted");
+    }
+}
@@ -0,0 +1,272 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Writes the histories of finished games in a compact columnar format, for offline analysis with
+ * {@link GameRecordReader}.
+ * <p></p>
+ * Records are buffered and written in blocks of up to {@value #BLOCK_SIZE} games. Within a block, each field is stored
+ * as a column: all secret codes, then all guesses, then all feedback ordinals, and so on, every value as a varint
+ * (7 bits per byte). Codes are packed (see {@link Code#packed()}), so a guess of the standard game of 4 positions and 8
+ * colors takes 2 bytes and its feedback 1 byte; the configuration columns are run-length encoded, and take a few bytes
+ * per block when all games share a configuration. Feedback strategies are stored by name, in a dictionary per block,
+ * so that files stay readable when strategies are added or reordered. Each block is framed with its length and a
+ * CRC-32 checksum.
+ * <p></p>
+ * A file holds a header followed by blocks, and can be read while it is written: the reader sees every block flushed
+ * so far. Only games whose codes can be packed and whose feedback strategy is a
+ * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl} supporting ordinals can be written, see
+ * {@link GameRecord#of(Game)}. Instances are not thread-safe.
+ */
+public class GameRecordWriter implements Closeable {
+    static final int MAGIC = 0x4D4D4752; // "MMGR"
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 4096;
+    static final int MAX_BLOCK_BYTES = 64 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream column = new ByteArrayOutputStream();
+    private final GameRecord[] pending = new GameRecord[BLOCK_SIZE];
+    private int pendingCount;
+    private long recordCount;
+    private Exception failure; // why a block could not be written; the writer then only accepts close()
+    private boolean closed;
+
+    private GameRecordWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Creates a writer appending to a stream, starting with the header of the format.
+     *
+     * @param out the stream the records are written to; it is closed with the writer
+     * @return a new instance of GameRecordWriter
+     * @throws IOException              if the header cannot be written
+     * @throws IllegalArgumentException if the stream is null
+     */
+    public static GameRecordWriter of(OutputStream out) throws IOException {
+        if (Objects.isNull(out)) throw new IllegalArgumentException("Invalid output stream");
+
+        GameRecordWriter writer = new GameRecordWriter(new BufferedOutputStream(out, BUFFER_SIZE));
+        writer.out.writeInt(MAGIC);
+        writer.out.writeInt(VERSION);
+
+        return writer;
+    }
+
+    /**
+     * Creates a writer to a new file. An existing file is replaced.
+     *
+     * @param file the file the records are written to
+     * @return a new instance of GameRecordWriter
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static GameRecordWriter create(Path file) throws IOException {
+        if (Objects.isNull(file)) throw new IllegalArgumentException("Invalid file");
+
+        return of(Files.newOutputStream(file));
+    }
+
+    /**
+     * Writes the history of a finished game.
+     *
+     * @param game a game that is won or has used all its attempts
+     * @throws IOException              if a block cannot be written
+     * @throws IllegalArgumentException if the game is null or cannot be recorded
+     * @throws IllegalStateException    if the game is not finished, or the writer is closed
+     */
+    public void write(Game game) throws IOException {
+        write(GameRecord.of(game));
+    }
+
+    /**
+     * Writes a game record.
+     *
+     * @param record the record
+     * @throws IOException              if a block cannot be written, or an earlier block could not be
+     * @throws IllegalArgumentException if the record is null
+     * @throws IllegalStateException    if the writer is closed
+     */
+    public void write(GameRecord record) throws IOException {
+        if (Objects.isNull(record)) throw new IllegalArgumentException("Invalid game record");
+        if (closed) throw new IllegalStateException("Writer is closed");
+        checkNotFailed();
+
+        pending[pendingCount++] = record;
+        recordCount++;
+        if (pendingCount == BLOCK_SIZE) writeBlock();
+    }
+
+    /**
+     * Returns the number of records written so far, including those not flushed yet but not those of a block that
+     * could not be written.
+     *
+     * @return the number of records
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the pending records as a block, possibly shorter than {@value #BLOCK_SIZE} records, and flushes the
+     * stream. Flushing often makes the file larger.
+     *
+     * @throws IOException           if the block cannot be written, or an earlier block could not be
+     * @throws IllegalStateException if the writer is closed
+     */
+    public void flush() throws IOException {
+        if (closed) throw new IllegalStateException("Writer is closed");
+        checkNotFailed();
+
+        writeBlock();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the pending records and closes the stream. After a block could not be written, only closes the stream.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+
+        try (out) {
+            writeBlock();
+        } finally {
+            closed = true;
+        }
+    }
+
+    private void checkNotFailed() throws IOException {
+        if (Objects.nonNull(failure)) throw new IOException("Game record writer failed", failure);
+    }
+
+    /**
+     * Writes the pending records as a block. They are dropped even if it fails, and the writer fails from then on:
+     * part of the block may have reached the stream, so nothing written after it could be read.
+     */
+    private void writeBlock() throws IOException {
+        if (pendingCount == 0) return;
+
+        try {
+            encodeBlock();
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            recordCount -= pendingCount;
+            throw e;
+        } finally {
+            Arrays.fill(pending, 0, pendingCount, null);
+            pendingCount = 0;
+        }
+    }
+
+    private void encodeBlock() throws IOException {
+        block.reset();
+        Varints.write(block, pendingCount);
+        column.reset();
+        writeRuns(GameRecord::codeLength);
+        writeRuns(GameRecord::numColors);
+        writeRuns(GameRecord::maxAttempts);
+        Map<FeedbackStrategyImpl, Integer> strategies = new EnumMap<>(FeedbackStrategyImpl.class);
+        for (int i = 0; i < pendingCount; i++) {
+            FeedbackStrategyImpl strategy = pending[i].feedbackStrategy();
+            if (strategies.containsKey(strategy)) continue;
+            strategies.put(strategy, strategies.size());
+            byte[] name = strategy.name().getBytes(StandardCharsets.UTF_8);
+            Varints.write(column, name.length);
+            column.writeBytes(name);
+        }
+        writeColumn();
+        writeRuns(record -> strategies.get(record.feedbackStrategy()));
+
+        column.reset();
+        for (int i = 0; i < pendingCount; i++) {
+            Varints.write(column, pending[i].movesCompleted());
+        }
+        writeColumn();
+        for (int i = 0; i < pendingCount; i++) {
+            Varints.write(column, pending[i].packedSecretCode());
+        }
+        writeColumn();
+        for (int i = 0; i < pendingCount; i++) {
+            GameRecord record = pending[i];
+            for (int move = 0; move < record.movesCompleted(); move++) {
+                Varints.write(column, record.packedGuess(move));
+            }
+        }
+        writeColumn();
+        for (int i = 0; i < pendingCount; i++) {
+            GameRecord record = pending[i];
+            for (int move = 0; move < record.movesCompleted(); move++) {
+                Varints.write(column, record.feedbackOrdinal(move));
+            }
+        }
+        writeColumn();
+
+        if (block.size() > MAX_BLOCK_BYTES) throw new IOException("Block of %d bytes is too large".formatted(block.size()));
+        CRC32 crc = new CRC32();
+        byte[] payload = block.toByteArray();
+        crc.update(payload);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Writes a column of an int field as (value, run length) pairs.
+     */
+    private void writeRuns(ToIntFunction<GameRecord> field) {
+        column.reset();
+        int value = field.applyAsInt(pending[0]);
+        int run = 1;
+        for (int i = 1; i < pendingCount; i++) {
+            int next = field.applyAsInt(pending[i]);
+            if (next == value) {
+                run++;
+                continue;
+            }
+            Varints.write(column, value);
+            Varints.write(column, run);
+            value = next;
+            run = 1;
+        }
+        Varints.write(column, value);
+        Varints.write(column, run);
+        writeColumn();
+    }
+
+    /**
+     * Appends the current column to the block, prefixed with its length, so readers can skip it.
+     */
+    private void writeColumn() {
+        Varints.write(block, column.size());
+        block.writeBytes(column.toByteArray());
+        column.reset();
+    }
+}
@@ -0,0 +1,337 @@
+package org.jmel.mastermind.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe container of games, identified by id, for servers hosting many games at once.
+ * <p></p>
+ * Games are spread over shards by id, and each shard has its own lock, so threads working on different games rarely
+ * contend. A game is only used through {@link #withGame(String, Function)}, which holds a lock specific to that game:
+ * concurrent guesses to the same game are applied one at a time, while other games are unaffected.
+ * <p></p>
+ * Memory is bounded by two policies. A game that has not been used for a while is evicted: after the idle timeout, or
+ * after the usually shorter finished timeout once it is won or out of attempts. Expired games are evicted as shards
+ * are used and by {@link #evictExpired()}, which should be called periodically. And when a shard is full, registering a
+ * game evicts one of its finished games, or else its least recently used game. Each shard holds at most
+ * {@code maxGames / shardCount} games (rounded up), so the least recently used game of the whole registry is not
+ * necessarily the one evicted.
+ */
+public class GameRegistry {
+    private final Shard[] shards;
+    private final int shardCapacity;
+    private final long idleTimeoutNanos;
+    private final long finishedTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private GameRegistry(int maxGames, Duration idleTimeout, Duration finishedTimeout, int shardCount,
+                         LongSupplier nanoClock) {
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardCapacity = (maxGames + shardCount - 1) / shardCount;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.finishedTimeoutNanos = finishedTimeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Creates a new registry in which finished games expire like any other game, with four shards per available
+     * processor. See {@link #of(int, Duration, Duration, int)}.
+     *
+     * @param maxGames    the maximum number of games held
+     * @param idleTimeout how long a game can go unused before it is evicted
+     * @return a new instance of GameRegistry
+     * @throws IllegalArgumentException if the maximum number of games is less than 1, or the timeout is null or not
+     *                                  positive
+     */
+    public static GameRegistry of(int maxGames, Duration idleTimeout) {
+        return of(maxGames, idleTimeout, idleTimeout, defaultShardCount(maxGames));
+    }
+
+    /**
+     * Creates a new registry.
+     *
+     * @param maxGames        the maximum number of games held
+     * @param idleTimeout     how long a game can go unused before it is evicted
+     * @param finishedTimeout how long a finished game can go unused before it is evicted
+     * @param shardCount      the number of shards, each with its own lock
+     * @return a new instance of GameRegistry
+     * @throws IllegalArgumentException if the maximum number of games or the number of shards is less than 1, there
+     *                                  are more shards than games, or a timeout is null or not positive
+     */
+    public static GameRegistry of(int maxGames, Duration idleTimeout, Duration finishedTimeout, int shardCount) {
+        return of(maxGames, idleTimeout, finishedTimeout, shardCount, System::nanoTime);
+    }
+
+    static GameRegistry of(int maxGames, Duration idleTimeout, Duration finishedTimeout, int shardCount,
+                           LongSupplier nanoClock) {
+        if (maxGames < 1) throw new IllegalArgumentException("Invalid maximum number of games");
+        if (Objects.isNull(idleTimeout) || idleTimeout.isNegative() || idleTimeout.isZero())
+            throw new IllegalArgumentException("Invalid idle timeout");
+        if (Objects.isNull(finishedTimeout) || finishedTimeout.isNegative() || finishedTimeout.isZero())
+            throw new IllegalArgumentException("Invalid finished timeout");
+        if (shardCount < 1 || shardCount > maxGames) throw new IllegalArgumentException("Invalid number of shards");
+
+        return new GameRegistry(maxGames, idleTimeout, finishedTimeout, shardCount, nanoClock);
+    }
+
+    private static int defaultShardCount(int maxGames) {
+        return Math.max(1, Math.min(maxGames, 4 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Adds a game under a new random id.
+     *
+     * @param game the game to add
+     * @return the id of the game
+     * @throws IllegalArgumentException if the game is null
+     */
+    public String register(Game game) {
+        String id;
+        do {
+            id = UUID.randomUUID().toString();
+        } while (!tryRegister(id, game));
+
+        return id;
+    }
+
+    /**
+     * Adds a game under a given id.
+     *
+     * @param id   the id of the game
+     * @param game the game to add
+     * @throws IllegalArgumentException if a parameter is null, or a game is already registered under the id
+     */
+    public void register(String id, Game game) {
+        if (Objects.isNull(id)) throw new IllegalArgumentException("Invalid game id");
+        if (!tryRegister(id, game)) throw new IllegalArgumentException("Game id %s is already in use".formatted(id));
+    }
+
+    private boolean tryRegister(String id, Game game) {
+        if (Objects.isNull(game)) throw new IllegalArgumentException("Invalid game");
+
+        Shard shard = shardOf(id);
+        synchronized (shard) {
+            long now = nanoClock.getAsLong(); // read under the lock, so uses are in clock order within a shard
+            evictExpired(shard, now);
+            if (shard.entries.containsKey(id)) return false;
+            if (shard.entries.size() >= shardCapacity) evictOne(shard);
+            shard.entries.put(id, new Entry(game, now, isOver(game)));
+
+            return true;
+        }
+    }
+
+    /**
+     * Runs an action on a game while holding the game's lock. No other action runs on the same game meanwhile, and the
+     * game counts as used.
+     * <p></p>
+     * The action must not keep a reference to the game, nor use the registry.
+     *
+     * @param id     the id of the game
+     * @param action the action to run, e.g. {@code game -> game.processGuess(guess)}
+     * @param <T>    the type of the action's result
+     * @return an Optional containing the result of the action, or an empty Optional if there is no game with this id.
+     * The Optional is also empty if the action returned null
+     * @throws IllegalArgumentException if the action is null
+     */
+    public <T> Optional<T> withGame(String id, Function<Game, T> action) {
+        if (Objects.isNull(action)) throw new IllegalArgumentException("Invalid action");
+        if (Objects.isNull(id)) return Optional.empty();
+
+        Shard shard = shardOf(id);
+        Entry entry;
+        synchronized (shard) {
+            long now = nanoClock.getAsLong();
+            entry = shard.entries.get(id);
+            if (entry == null) return Optional.empty();
+            if (isExpired(entry, now)) {
+                shard.entries.remove(id);
+                return Optional.empty();
+            }
+            entry.lastAccess = now;
+            shard.entries.putLast(id, entry);
+        }
+
+        entry.lock.lock();
+        try {
+            return Optional.ofNullable(action.apply(entry.game));
+        } finally {
+            entry.finished = isOver(entry.game);
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a game.
+     *
+     * @param id the id of the game
+     * @return true if a game was removed
+     */
+    public boolean remove(String id) {
+        if (Objects.isNull(id)) return false;
+        Shard shard = shardOf(id);
+        synchronized (shard) {
+            return shard.entries.remove(id) != null;
+        }
+    }
+
+    /**
+     * Returns true if a game is registered under an id and has not expired. Checking does not count as using the game.
+     *
+     * @param id the id of a game
+     * @return true if the registry holds a game with this id
+     */
+    public boolean contains(String id) {
+        if (Objects.isNull(id)) return false;
+        Shard shard = shardOf(id);
+        synchronized (shard) {
+            Entry entry = shard.entries.get(id);
+
+            return entry != null && !isExpired(entry, nanoClock.getAsLong());
+        }
+    }
+
+    /**
+     * Returns the number of games held, including expired games that have not been evicted yet.
+     *
+     * @return the number of games
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Runs an action on every game that has not expired, holding each game's lock in turn. Games registered or removed
+     * meanwhile may or may not be visited, and visiting does not count as using a game.
+     *
+     * @param action the action to run, receiving the id and the game
+     * @throws IllegalArgumentException if the action is null
+     */
+    public void forEach(BiConsumer<String, Game> action) {
+        if (Objects.isNull(action)) throw new IllegalArgumentException("Invalid action");
+
+        for (Shard shard : shards) {
+            List<Map.Entry<String, Entry>> entries;
+            synchronized (shard) {
+                long now = nanoClock.getAsLong();
+                entries = new ArrayList<>(shard.entries.size());
+                for (Map.Entry<String, Entry> entry : shard.entries.entrySet()) {
+                    if (!isExpired(entry.getValue(), now)) entries.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            for (Map.Entry<String, Entry> entry : entries) {
+                Entry game = entry.getValue();
+                game.lock.lock();
+                try {
+                    action.accept(entry.getKey(), game.game);
+                } finally {
+                    game.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts every game that has expired, one shard at a time.
+     *
+     * @return the number of games evicted
+     */
+    public int evictExpired() {
+        int evicted = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                long now = nanoClock.getAsLong();
+                int before = shard.entries.size();
+                shard.entries.values().removeIf(entry -> isExpired(entry, now));
+                evicted += before - shard.entries.size();
+            }
+        }
+
+        return evicted;
+    }
+
+    private Shard shardOf(String id) {
+        int hash = id.hashCode();
+
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    /**
+     * Evicts the games that have been idle for longer than the idle timeout. Entries are in order of last use, so they
+     * are found at the head of the shard.
+     */
+    private void evictExpired(Shard shard, long now) {
+        Iterator<Entry> entries = shard.entries.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (now - entry.lastAccess <= idleTimeoutNanos) break;
+            entries.remove();
+        }
+    }
+
+    /**
+     * Evicts the least recently used finished game of a full shard, or its least recently used game.
+     */
+    private void evictOne(Shard shard) {
+        Iterator<Entry> entries = shard.entries.values().iterator();
+        while (entries.hasNext()) {
+            if (entries.next().finished) {
+                entries.remove();
+                return;
+            }
+        }
+        entries = shard.entries.values().iterator();
+        entries.next();
+        entries.remove();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        long idle = now - entry.lastAccess;
+
+        return idle > idleTimeoutNanos || (entry.finished && idle > finishedTimeoutNanos);
+    }
+
+    private static boolean isOver(Game game) {
+        return game.isGameWon() || game.movesCompleted() == game.maxAttempts();
+    }
+
+    private static final class Shard {
+        // In order of last use: a game is moved to the end when it is used, and lookups leave the order alone
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private static final class Entry {
+        private final Game game;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccess; // nanoClock reading of the last use, taken and written under the shard's lock
+        private volatile boolean finished;
+
+        private Entry(Game game, long lastAccess, boolean finished) {
+            this.game = game;
+            this.lastAccess = lastAccess;
+            this.finished = finished;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.jmel.mastermind.core;
+
+import java.util.Arrays;
+
+/**
+ * A candidate set whose bits are stored in a {@code long[]}. See {@link CandidateSet#of(int, int)}.
+ */
+final class HeapCandidateSet extends BitSetCandidateSet {
+    private final long[] words;
+
+    private HeapCandidateSet(CodeSpace space) {
+        super(space);
+        this.words = new long[wordCount(space)];
+
+        Arrays.fill(words, -1L);
+        words[words.length - 1] = fullWord(space, words.length - 1);
+    }
+
+    static HeapCandidateSet of(int codeLength, int numColors) {
+        return new HeapCandidateSet(checkedSpace(codeLength, numColors));
+    }
+
+    @Override
+    long word(int index) {
+        return words[index];
+    }
+
+    @Override
+    void clearBits(int index, long mask) {
+        words[index] &= ~mask;
+    }
+}
@@ -0,0 +1,63 @@
+package org.jmel.mastermind.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A candidate set whose bits are stored outside the Java heap, in direct buffers of up to 1 GiB each. See
+ * {@link CandidateSet#offHeap(int, int)}.
+ */
+final class OffHeapCandidateSet extends BitSetCandidateSet {
+    private static final int CHUNK_SHIFT = 27; // 2^27 words, or 1 GiB, per buffer
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private LongBuffer[] chunks; // null once closed
+
+    private OffHeapCandidateSet(CodeSpace space) {
+        super(space);
+        int wordCount = wordCount(space);
+        this.chunks = new LongBuffer[(wordCount + CHUNK_MASK) >>> CHUNK_SHIFT];
+
+        for (int c = 0; c < chunks.length; c++) {
+            int words = Math.min(CHUNK_MASK + 1, wordCount - (c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect(words * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+            for (int i = 0; i < words; i++) {
+                chunks[c].put(i, -1L);
+            }
+        }
+        chunks[chunks.length - 1].put((wordCount - 1) & CHUNK_MASK, fullWord(space, wordCount - 1));
+    }
+
+    static OffHeapCandidateSet of(int codeLength, int numColors) {
+        return new OffHeapCandidateSet(checkedSpace(codeLength, numColors));
+    }
+
+    @Override
+    long word(int index) {
+        return chunks()[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    void clearBits(int index, long mask) {
+        LongBuffer chunk = chunks()[index >>> CHUNK_SHIFT];
+        int offset = index & CHUNK_MASK;
+        chunk.put(offset, chunk.get(offset) & ~mask);
+    }
+
+    private LongBuffer[] chunks() {
+        LongBuffer[] chunks = this.chunks;
+        if (chunks == null) throw new IllegalStateException("Candidate set is closed");
+
+        return chunks;
+    }
+
+    /**
+     * Drops the buffers holding the bits, whose native memory is released when they are garbage collected. The set
+     * cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        chunks = null;
+    }
+}
@@ -0,0 +1,85 @@
+package org.jmel.mastermind.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Variable-length encoding of non-negative integers, 7 bits per byte, least significant group first. The high bit of a
+ * byte is set when more bytes follow, so values below 128 take a single byte.
+ */
+final class Varints {
+    private Varints() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    static void write(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * A cursor decoding varints from a range of a byte array.
+     */
+    static final class Decoder {
+        private final byte[] bytes;
+        private int position;
+        private final int end;
+
+        Decoder(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.position = from;
+            this.end = to;
+        }
+
+        long next() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                if (position >= end) throw new IOException("Truncated varint");
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+
+            throw new IOException("Malformed varint");
+        }
+
+        int nextInt() throws IOException {
+            long value = next();
+            if (value > Integer.MAX_VALUE) throw new IOException("Varint out of range");
+
+            return (int) value;
+        }
+
+        /**
+         * Decodes a length-prefixed UTF-8 string.
+         */
+        String nextString() throws IOException {
+            int length = nextInt();
+            if (length > end - position) throw new IOException("Truncated string");
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+
+            return value;
+        }
+
+        /**
+         * Returns a decoder over the next length-prefixed range, and moves past it.
+         */
+        Decoder nextRange() throws IOException {
+            int length = nextInt();
+            if (length > end - position) throw new IOException("Truncated range");
+            Decoder range = new Decoder(bytes, position, position + length);
+            position += length;
+
+            return range;
+        }
+
+        boolean hasRemaining() {
+            return position < end;
+        }
+    }
+}
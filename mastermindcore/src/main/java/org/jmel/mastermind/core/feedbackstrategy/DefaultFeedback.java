@@ -10,6 +10,14 @@ package org.jmel.mastermind.core.feedbackstrategy;
 
  */
 public record DefaultFeedback(int correctPos, int correctNum) implements Feedback {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinal() {
+        return Ordinals.ofMatches(correctPos, correctNum);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -9,4 +9,18 @@ public interface Feedback {
      * @return a string representing the feedback after making a valid guess
      */
     String toString();
+
+    /**
+     * Returns a dense integer encoding of this feedback.
+     * <p></p>
+     * Ordinals are small non-negative integers that identify a feedback value among all the values its strategy can
+     * produce, so outcomes can be grouped or counted with plain {@code int[]} counters. See
+     * {@link FeedbackStrategy#ordinalCount(int)} and {@link FeedbackStrategy#fromOrdinal(int, int)}.
+     *
+     * @return the ordinal of this feedback
+     * @throws UnsupportedOperationException if this feedback has no ordinal encoding
+     */
+    default int ordinal() {
+        throw new UnsupportedOperationException("%s has no ordinal encoding".formatted(getClass().getSimpleName()));
+    }
 }
@@ -2,8 +2,14 @@ package org.jmel.mastermind.core.feedbackstrategy;
 
 import org.jmel.mastermind.core.Code;
 
+import java.util.Objects;
+
 /**
  * Represents an algorithm for computing feedback for a guess of a secret code.
+ * <p></p>
+ * Strategies may also support ordinals, a dense integer encoding of every feedback they can produce for a given code
+ * length. Ordinals let clients such as solvers count outcomes in {@code int[]} arrays instead of hashing Feedback
+ * objects. See {@link Feedback#ordinal()}.
  */
 public interface FeedbackStrategy {
     /**
@@ -14,4 +20,138 @@ public interface FeedbackStrategy {
      * @return a feedback based on the secret code and the guess
      */
     Feedback get(Code secretCode, Code guess);
+
+    /**
+     * Returns the ordinal of the feedback for the secret code and the guess.
+     * <p></p>
+     * The default implementation returns {@code get(secretCode, guess).ordinal()}. Implementations may compute it
+     * without creating a Feedback object.
+     *
+     * @param secretCode the secret code
+     * @param guess      the guess
+     * @return the ordinal of the feedback based on the secret code and the guess
+     * @throws UnsupportedOperationException if the strategy does not support ordinals
+     */
+    default int ordinal(Code secretCode, Code guess) {
+        return get(secretCode, guess).ordinal();
+    }
+
+    /**
+     * Returns true if the strategy supports ordinals for codes of the given length.
+     *
+     * @param codeLength the length of the codes
+     * @return true if {@link #ordinalCount(int)} and {@link #fromOrdinal(int, int)} can be used
+     */
+    default boolean supportsOrdinals(int codeLength) {
+        return false;
+    }
+
+    /**
+     * Returns the number of ordinals for codes of the given length. Every feedback for such codes has an ordinal in the
+     * range 0 to ordinalCount(codeLength) - 1, although some ordinals in that range might never be produced.
+     *
+     * @param codeLength the length of the codes
+     * @return the number of ordinals
+     * @throws UnsupportedOperationException if the strategy does not support ordinals for this code length
+     */
+    default int ordinalCount(int codeLength) {
+        throw new UnsupportedOperationException("Feedback strategy does not support ordinals");
+    }
+
+    /**
+     * Returns the feedback with the given ordinal for codes of the given length. This is the inverse of
+     * {@link Feedback#ordinal()}.
+     *
+     * @param ordinal    an ordinal in the range 0 to ordinalCount(codeLength) - 1
+     * @param codeLength the length of the codes
+     * @return the feedback with the given ordinal
+     * @throws UnsupportedOperationException if the strategy does not support ordinals for this code length
+     * @throws IllegalArgumentException      if the ordinal is out of range
+     */
+    default Feedback fromOrdinal(int ordinal, int codeLength) {
+        throw new UnsupportedOperationException("Feedback strategy does not support ordinals");
+    }
+
+    /**
+     * Writes the ordinal of the feedback for one guess against each secret code in a range.
+     * <p></p>
+     * The default implementation calls {@link #ordinal(Code, Code)} once per secret code. Implementations may prepare
+     * the guess once and reuse it for every secret code.
+     *
+     * @param guess       the guess
+     * @param secretCodes the secret codes
+     * @param from        the index of the first secret code to score, inclusive
+     * @param to          the index of the last secret code to score, exclusive
+     * @param ordinals    the array receiving the ordinal for {@code secretCodes[i]} at index {@code i}
+     * @throws UnsupportedOperationException if the strategy does not support ordinals
+     * @throws IndexOutOfBoundsException     if the range is out of bounds for either array
+     */
+    default void ordinals(Code guess, Code[] secretCodes, int from, int to, int[] ordinals) {
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        for (int i = from; i < to; i++) {
+            ordinals[i] = ordinal(secretCodes[i], guess);
+        }
+    }
+
+    /**
+     * Counts how many secret codes in a range yield each feedback ordinal for one guess.
+     *
+     * @param guess       the guess
+     * @param secretCodes the secret codes
+     * @param from        the index of the first secret code to score, inclusive
+     * @param to          the index of the last secret code to score, exclusive
+     * @param counts      the array whose element at each ordinal is incremented once per secret code yielding it; must
+     *                    have at least {@link #ordinalCount(int)} elements
+     * @throws UnsupportedOperationException if the strategy does not support ordinals
+     * @throws IndexOutOfBoundsException     if the range is out of bounds
+     */
+    default void histogram(Code guess, Code[] secretCodes, int from, int to, int[] counts) {
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        for (int i = from; i < to; i++) {
+            counts[ordinal(secretCodes[i], guess)]++;
+        }
+    }
+
+    /**
+     * Writes the ordinal of the feedback for one guess against each packed secret code in a range. The secret codes
+     * must have the same length and number of colors as the guess. See {@link Code#packed()}.
+     *
+     * @param guess             the guess
+     * @param packedSecretCodes the packed secret codes
+     * @param from              the index of the first secret code to score, inclusive
+     * @param to                the index of the last secret code to score, exclusive
+     * @param ordinals          the array receiving the ordinal for {@code packedSecretCodes[i]} at index {@code i}
+     * @throws UnsupportedOperationException if the strategy does not support ordinals
+     * @throws IllegalArgumentException      if a packed secret code is out of range for the guess's configuration
+     * @throws IndexOutOfBoundsException     if the range is out of bounds for either array
+     */
+    default void ordinals(Code guess, long[] packedSecretCodes, int from, int to, int[] ordinals) {
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        for (int i = from; i < to; i++) {
+            ordinals[i] = ordinal(Code.fromPacked(packedSecretCodes[i], guess.length(), guess.numColors()), guess);
+        }
+    }
+
+    /**
+     * Counts how many packed secret codes in a range yield each feedback ordinal for one guess. The secret codes must
+     * have the same length and number of colors as the guess. See {@link Code#packed()}.
+     *
+     * @param guess             the guess
+     * @param packedSecretCodes the packed secret codes
+     * @param from              the index of the first secret code to score, inclusive
+     * @param to                the index of the last secret code to score, exclusive
+     * @param counts            the array whose element at each ordinal is incremented once per secret code yielding
+     *                          it; must have at least {@link #ordinalCount(int)} elements
+     * @throws UnsupportedOperationException if the strategy does not support ordinals
+     * @throws IllegalArgumentException      if a packed secret code is out of range for the guess's configuration
+     * @throws IndexOutOfBoundsException     if the range is out of bounds
+     */
+    default void histogram(Code guess, long[] packedSecretCodes, int from, int to, int[] counts) {
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        for (int i = from; i < to; i++) {
+            counts[ordinal(Code.fromPacked(packedSecretCodes[i], guess.length(), guess.numColors()), guess)]++;
+        }
+    }
 }
@@ -1,11 +1,12 @@
 package org.jmel.mastermind.core.feedbackstrategy;
 
 import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.feedbackstrategy.MatchCounter.PreparedGuess;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * Several algorithms implementing the {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy} interface.
@@ -26,10 +27,17 @@ public enum FeedbackStrategyImpl implements FeedbackStrategy {
     DEFAULT {
         @Override
         public DefaultFeedback get(Code secretCode, Code guess) {
-            int correctPos = calculatePerfectMatches(secretCode, guess);
-            int correctNum = calculateColorMatches(secretCode, guess);
+            return (DefaultFeedback) canonical(ordinal(secretCode, guess), secretCode.length());
+        }
 
-            return new DefaultFeedback(correctPos, correctNum);
+        @Override
+        public DefaultFeedback fromOrdinal(int ordinal, int codeLength) {
+            return (DefaultFeedback) super.fromOrdinal(ordinal, codeLength);
+        }
+
+        @Override
+        DefaultFeedback create(int ordinal, int codeLength) {
+            return new DefaultFeedback(Ordinals.wellPlacedOf(ordinal), Ordinals.colorMatchesOf(ordinal));
         }
     },
     /**
@@ -39,10 +47,19 @@ public enum FeedbackStrategyImpl implements FeedbackStrategy {
     ORIGINAL_MASTERMIND {
         @Override
         public OriginalMastermindFeedback get(Code secretCode, Code guess) {
-            int wellPlaced = calculatePerfectMatches(secretCode, guess);
-            int misplaced = calculateColorMatches(secretCode, guess) - wellPlaced;
+            return (OriginalMastermindFeedback) canonical(ordinal(secretCode, guess), secretCode.length());
+        }
+
+        @Override
+        public OriginalMastermindFeedback fromOrdinal(int ordinal, int codeLength) {
+            return (OriginalMastermindFeedback) super.fromOrdinal(ordinal, codeLength);
+        }
+
+        @Override
+        OriginalMastermindFeedback create(int ordinal, int codeLength) {
+            int wellPlaced = Ordinals.wellPlacedOf(ordinal);
 
-            return new OriginalMastermindFeedback(wellPlaced, misplaced);
+            return new OriginalMastermindFeedback(wellPlaced, Ordinals.colorMatchesOf(ordinal) - wellPlaced);
         }
     },
     /**
@@ -54,8 +71,8 @@ public enum FeedbackStrategyImpl implements FeedbackStrategy {
         public HigherLowerFeedback get(Code secretCode, Code guess) {
             List<Integer> scores = new ArrayList<>();
 
-            for (int i = 0; i < secretCode.value().size(); i++) {
-                int diff = secretCode.value().get(i) - guess.value().get(i);
+            for (int i = 0; i < secretCode.length(); i++) {
+                int diff = secretCode.colorAt(i) - guess.colorAt(i);
                 if (diff > 0) {
                     scores.add(-1);
                 } else if (diff < 0) {
@@ -67,6 +84,63 @@ public enum FeedbackStrategyImpl implements FeedbackStrategy {
 
             return new HigherLowerFeedback(scores);
         }
+
+        @Override
+        public int ordinal(Code secretCode, Code guess) {
+            Ordinals.higherLowerCount(secretCode.length());
+
+            int ordinal = 0;
+            for (int i = 0; i < secretCode.length(); i++) {
+                ordinal = ordinal * 3 + Integer.signum(guess.colorAt(i) - secretCode.colorAt(i)) + 1;
+            }
+
+            return ordinal;
+        }
+
+        @Override
+        public boolean supportsOrdinals(int codeLength) {
+            return codeLength <= Ordinals.MAX_HIGHER_LOWER_LENGTH;
+        }
+
+        @Override
+        PreparedGuess prepare(Code guess) {
+            Ordinals.higherLowerCount(guess.length());
+
+            return super.prepare(guess);
+        }
+
+        @Override
+        int ordinal(PreparedGuess guess, long packedSecretCode) {
+            return guess.higherLower(packedSecretCode);
+        }
+
+        @Override
+        public int ordinalCount(int codeLength) {
+            return Ordinals.higherLowerCount(codeLength);
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p></p>
+         * Higher/lower feedback has too many possible values to share instances, so a new one is returned each time.
+         */
+        @Override
+        public HigherLowerFeedback fromOrdinal(int ordinal, int codeLength) {
+            Ordinals.checkRange(ordinal, ordinalCount(codeLength));
+
+            return create(ordinal, codeLength);
+        }
+
+        @Override
+        HigherLowerFeedback create(int ordinal, int codeLength) {
+            Integer[] scores = new Integer[codeLength];
+            for (int i = codeLength - 1; i >= 0; i--) {
+                scores[i] = ordinal % 3 - 1;
+                ordinal /= 3;
+            }
+
+            return new HigherLowerFeedback(List.of(scores));
+        }
     },
     /**
      * A feedback strategy that provides only the number of perfect matches. See
@@ -75,44 +149,206 @@ public enum FeedbackStrategyImpl implements FeedbackStrategy {
     PERFECT {
         @Override
         public PerfectFeedback get(Code secretCode, Code guess) {
-            int perfectMatches = calculatePerfectMatches(secretCode, guess);
+            return (PerfectFeedback) canonical(ordinal(secretCode, guess), secretCode.length());
+        }
 
-            return new PerfectFeedback(perfectMatches);
+        @Override
+        public int ordinal(Code secretCode, Code guess) {
+            return MatchCounter.wellPlaced(secretCode, guess);
+        }
+
+        @Override
+        int ordinal(PreparedGuess guess, long packedSecretCode) {
+            return guess.wellPlaced(packedSecretCode);
+        }
+
+        @Override
+        public int ordinalCount(int codeLength) {
+            return codeLength + 1;
+        }
+
+        @Override
+        public PerfectFeedback fromOrdinal(int ordinal, int codeLength) {
+            return (PerfectFeedback) super.fromOrdinal(ordinal, codeLength);
+        }
+
+        @Override
+        PerfectFeedback create(int ordinal, int codeLength) {
+            return new PerfectFeedback(ordinal);
         }
     };
 
-    private static int calculatePerfectMatches(Code c1, Code c2) {
-        int perfectMatches = 0;
-        for (int i = 0; i < c1.value().size(); i++) {
-            if (c1.value().get(i).equals(c2.value().get(i))) {
-                perfectMatches++;
-            }
+    private static final int MAX_INTERNED_LENGTH = 64; // keeps the DEFAULT cache at a few thousand instances at most
+    private volatile Feedback[] interned = new Feedback[0];
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * DEFAULT and ORIGINAL_MASTERMIND share the same ordinals: both encode the pair (well placed, color matches). See
+     * {@link Feedback#ordinal()}.
+     */
+    @Override
+    public int ordinal(Code secretCode, Code guess) {
+        long matches = MatchCounter.count(secretCode, guess);
+
+        return Ordinals.ofMatches(MatchCounter.wellPlacedOf(matches), MatchCounter.colorMatchesOf(matches));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The guess is decoded once, and packed secret codes are scored straight from their {@code long} values.
+     */
+    @Override
+    public void ordinals(Code guess, Code[] secretCodes, int from, int to, int[] ordinals) {
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        PreparedGuess prepared = prepare(guess);
+        if (prepared == null) {
+            FeedbackStrategy.super.ordinals(guess, secretCodes, from, to, ordinals);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            Code secretCode = secretCodes[i];
+            ordinals[i] = prepared.accepts(secretCode) ? ordinal(prepared, secretCode.packed()) : ordinal(secretCode, guess);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The guess is decoded once, and packed secret codes are scored straight from their {@code long} values.
+     */
+    @Override
+    public void histogram(Code guess, Code[] secretCodes, int from, int to, int[] counts) {
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        PreparedGuess prepared = prepare(guess);
+        if (prepared == null) {
+            FeedbackStrategy.super.histogram(guess, secretCodes, from, to, counts);
+            return;
         }
 
-        return perfectMatches;
+        for (int i = from; i < to; i++) {
+            Code secretCode = secretCodes[i];
+            counts[prepared.accepts(secretCode) ? ordinal(prepared, secretCode.packed()) : ordinal(secretCode, guess)]++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The guess is decoded once, and secret codes are scored without creating Code objects.
+     */
+    @Override
+    public void ordinals(Code guess, long[] packedSecretCodes, int from, int to, int[] ordinals) {
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        PreparedGuess prepared = prepare(guess);
+        if (prepared == null) {
+            FeedbackStrategy.super.ordinals(guess, packedSecretCodes, from, to, ordinals);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            ordinals[i] = ordinal(prepared, prepared.checkPacked(packedSecretCodes[i]));
+        }
     }
 
-    private static int calculateColorMatches(Code c1, Code c2) {
-        Map<Integer, Integer> c1Freq = createFrequencyMap(c1);
-        Map<Integer, Integer> c2Freq = createFrequencyMap(c2);
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The guess is decoded once, and secret codes are scored without creating Code objects.
+     */
+    @Override
+    public void histogram(Code guess, long[] packedSecretCodes, int from, int to, int[] counts) {
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        PreparedGuess prepared = prepare(guess);
+        if (prepared == null) {
+            FeedbackStrategy.super.histogram(guess, packedSecretCodes, from, to, counts);
+            return;
+        }
 
-        int allMatches = 0;
-        for (int digit : c2Freq.keySet()) {
-            int timesInC1 = c2Freq.get(digit);
-            int timesInC2 = c1Freq.getOrDefault(digit, 0);
-            allMatches += Math.min(timesInC1, timesInC2);
+        for (int i = from; i < to; i++) {
+            counts[ordinal(prepared, prepared.checkPacked(packedSecretCodes[i]))]++;
         }
+    }
 
-        return allMatches;
+    /**
+     * Returns the guess prepared for batch scoring, or null if it must be scored pair by pair.
+     */
+    PreparedGuess prepare(Code guess) {
+        return MatchCounter.prepare(guess);
     }
 
-    private static Map<Integer, Integer> createFrequencyMap(Code c) {
-        Map<Integer, Integer> freq = new HashMap<>();
-        for (int i = 0; i < c.value().size(); i++) {
-            int c1Digit = c.value().get(i);
-            freq.put(c1Digit, freq.getOrDefault(c1Digit, 0) + 1);
+    /**
+     * Returns the ordinal for a prepared guess and a packed secret code of the same configuration.
+     */
+    int ordinal(PreparedGuess guess, long packedSecretCode) {
+        long matches = guess.count(packedSecretCode);
+
+        return Ordinals.ofMatches(MatchCounter.wellPlacedOf(matches), MatchCounter.colorMatchesOf(matches));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsOrdinals(int codeLength) {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinalCount(int codeLength) {
+        return Ordinals.matchesCount(codeLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * For codes of up to 64 elements, DEFAULT, ORIGINAL_MASTERMIND and PERFECT return shared, immutable instances, so
+     * scoring a guess does not allocate a new Feedback.
+     */
+    @Override
+    public Feedback fromOrdinal(int ordinal, int codeLength) {
+        Ordinals.checkRange(ordinal, ordinalCount(codeLength));
+
+        return canonical(ordinal, codeLength);
+    }
+
+    /**
+     * Creates a new feedback object for an ordinal that is known to be in range.
+     */
+    abstract Feedback create(int ordinal, int codeLength);
+
+    /**
+     * Returns the shared instance for an ordinal that is known to be in range.
+     * <p></p>
+     * Ordinals of these strategies do not depend on the code length, so one cache per strategy, grown to the longest
+     * code seen so far, serves every code length.
+     */
+    Feedback canonical(int ordinal, int codeLength) {
+        Feedback[] cache = interned;
+        if (ordinal < cache.length) return cache[ordinal];
+        if (codeLength > MAX_INTERNED_LENGTH) return create(ordinal, codeLength);
+
+        return grow(codeLength)[ordinal];
+    }
+
+    private synchronized Feedback[] grow(int codeLength) {
+        Feedback[] cache = interned;
+        int count = ordinalCount(codeLength);
+        if (cache.length >= count) return cache;
+
+        Feedback[] grown = Arrays.copyOf(cache, count);
+        for (int ordinal = cache.length; ordinal < count; ordinal++) {
+            grown[ordinal] = create(ordinal, codeLength);
         }
+        interned = grown;
 
-        return freq;
+        return grown;
     }
 }
@@ -0,0 +1,422 @@
+package org.jmel.mastermind.core.feedbackstrategy;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.CodeSpace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A precomputed table of the feedback given by a {@link FeedbackStrategy} for every (secret code, guess) pair of a
+ * given code length and number of colors.
+ * <p></p>
+ * Once built, scoring a pair is a single array load. The table stores a small outcome index per pair (one byte when a
+ * strategy has at most 256 distinct outcomes, two bytes otherwise), so the standard game of 4 positions and 8 colors
+ * takes 4096 x 4096 bytes = 16 MiB. For strategies that support ordinals (see {@link FeedbackStrategy#ordinal(Code, Code)})
+ * the outcome index of a pair is its ordinal; other strategies get indexes in the order their outcomes first appear.
+ * <p></p>
+ * A table is itself a FeedbackStrategy and can be passed to {@code Game.Builder.feedbackStrategy}. Tables added with
+ * {@link #register(FeedbackTable)} are also picked up by {@code Game.Builder.build()} for games with a matching
+ * strategy and configuration, so clients do not have to change how they build games to benefit from them. Codes
+ * outside the table's configuration are scored by the underlying strategy.
+ */
+public final class FeedbackTable implements FeedbackStrategy {
+    /**
+     * The memory limit used by {@link #build(FeedbackStrategy, int, int)}: 64 MiB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    private static final int MAX_CODES = 46_340; // MAX_CODES^2 is the largest square that fits in an array
+    private static final int MAX_OUTCOMES = 1 << 16; // what fits in a two-byte cell
+    private static final Map<Key, FeedbackTable> registry = new ConcurrentHashMap<>();
+
+    private final FeedbackStrategy strategy;
+    private final boolean ordinalIndexes; // true when outcome indexes are the strategy's ordinals
+    private final int codeLength;
+    private final int numColors;
+    private final int numCodes;
+    private final Feedback[] outcomes;
+    private final byte[] byteCells; // used when there are at most 256 outcomes
+    private final short[] shortCells; // used otherwise
+
+    private FeedbackTable(FeedbackStrategy strategy, boolean ordinalIndexes, int codeLength, int numColors, int numCodes, Feedback[] outcomes,
+                          byte[] byteCells, short[] shortCells) {
+        this.strategy = strategy;
+        this.ordinalIndexes = ordinalIndexes;
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.numCodes = numCodes;
+        this.outcomes = outcomes;
+        this.byteCells = byteCells;
+        this.shortCells = shortCells;
+    }
+
+    /**
+     * Builds a table for the given strategy and configuration using at most {@link #DEFAULT_MAX_BYTES} bytes.
+     *
+     * @param strategy   the strategy to precompute
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @return a new FeedbackTable
+     * @throws IllegalArgumentException if the table would not fit in the default memory limit
+     */
+    public static FeedbackTable build(FeedbackStrategy strategy, int codeLength, int numColors) {
+        return build(strategy, codeLength, numColors, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Builds a table for the given strategy and configuration.
+     *
+     * @param strategy   the strategy to precompute
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @param maxBytes   the maximum number of bytes the table may use
+     * @return a new FeedbackTable
+     * @throws IllegalArgumentException if the strategy is null, or the table would not fit in {@code maxBytes}, or the
+     *                                  strategy yields more than 65536 distinct outcomes
+     */
+    public static FeedbackTable build(FeedbackStrategy strategy, int codeLength, int numColors, long maxBytes) {
+        if (Objects.isNull(strategy)) throw new IllegalArgumentException("Invalid feedback strategy");
+        if (strategy instanceof FeedbackTable table) strategy = table.strategy;
+        int numCodes = numCodes(codeLength, numColors);
+        long cells = (long) numCodes * numCodes;
+        if (numCodes < 0 || cells > maxBytes)
+            throw new IllegalArgumentException("A feedback table for %d positions and %d colors does not fit in %d bytes".formatted(codeLength, numColors, maxBytes));
+
+        Code[] codes = CodeSpace.of(codeLength, numColors).stream().toArray(Code[]::new);
+
+        // Strategies with ordinals store them directly, others get indexes in order of first appearance
+        boolean useOrdinals = strategy.supportsOrdinals(codeLength) && strategy.ordinalCount(codeLength) <= MAX_OUTCOMES;
+        Map<Feedback, Integer> indexes = new HashMap<>();
+        List<Feedback> outcomes = new ArrayList<>();
+        if (useOrdinals) outcomes.addAll(Collections.nCopies(strategy.ordinalCount(codeLength), null));
+
+        byte[] byteCells = new byte[(int) cells];
+        short[] shortCells = null;
+        for (int s = 0; s < numCodes; s++) {
+            for (int g = 0; g < numCodes; g++) {
+                int index = useOrdinals
+                        ? ordinalOutcome(strategy, codes[s], codes[g], outcomes)
+                        : internedOutcome(strategy.get(codes[s], codes[g]), indexes, outcomes);
+
+                int cell = s * numCodes + g;
+                if (shortCells == null && index > 0xFF) {
+                    if (cells * Short.BYTES > maxBytes)
+                        throw new IllegalArgumentException("A feedback table for %d positions and %d colors does not fit in %d bytes".formatted(codeLength, numColors, maxBytes));
+                    shortCells = widen(byteCells, cell);
+                    byteCells = null;
+                }
+                if (shortCells == null) {
+                    byteCells[cell] = (byte) index;
+                } else {
+                    shortCells[cell] = (short) index;
+                }
+            }
+        }
+
+        return new FeedbackTable(strategy, useOrdinals, codeLength, numColors, numCodes, outcomes.toArray(Feedback[]::new), byteCells, shortCells);
+    }
+
+    private static int ordinalOutcome(FeedbackStrategy strategy, Code secretCode, Code guess, List<Feedback> outcomes) {
+        int ordinal = strategy.ordinal(secretCode, guess);
+        if (outcomes.get(ordinal) == null) outcomes.set(ordinal, strategy.get(secretCode, guess));
+
+        return ordinal;
+    }
+
+    private static int internedOutcome(Feedback feedback, Map<Feedback, Integer> indexes, List<Feedback> outcomes) {
+        Integer index = indexes.get(feedback);
+        if (index == null) {
+            index = outcomes.size();
+            if (index >= MAX_OUTCOMES)
+                throw new IllegalArgumentException("Feedback strategy has too many distinct outcomes for a table");
+            indexes.put(feedback, index);
+            outcomes.add(feedback);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns numColors^codeLength, or -1 if a table for that many codes cannot be built.
+     */
+    private static int numCodes(int codeLength, int numColors) {
+        if (codeLength < 1 || numColors <= 1 || !Code.isPackable(codeLength, numColors)) return -1;
+        long numCodes = CodeSpace.of(codeLength, numColors).size();
+
+        return numCodes > MAX_CODES ? -1 : (int) numCodes;
+    }
+
+    private static short[] widen(byte[] byteCells, int filled) {
+        short[] shortCells = new short[byteCells.length];
+        for (int i = 0; i < filled; i++) {
+            shortCells[i] = (short) (byteCells[i] & 0xFF);
+        }
+
+        return shortCells;
+    }
+
+    /**
+     * Makes a table available to games built with a matching strategy, code length and number of colors. A table
+     * previously registered for the same configuration is replaced.
+     *
+     * @param table the table to register
+     * @throws IllegalArgumentException if the table is null
+     */
+    public static void register(FeedbackTable table) {
+        if (Objects.isNull(table)) throw new IllegalArgumentException("Invalid feedback table");
+        registry.put(new Key(table.strategy, table.codeLength, table.numColors), table);
+    }
+
+    /**
+     * Removes the table registered for a configuration, if any.
+     *
+     * @param strategy   the strategy the table was built for
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     */
+    public static void unregister(FeedbackStrategy strategy, int codeLength, int numColors) {
+        registry.remove(new Key(strategy, codeLength, numColors));
+    }
+
+    /**
+     * Returns the table registered for a configuration, if any.
+     *
+     * @param strategy   the strategy the table was built for
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @return an Optional containing the registered table, or an empty Optional
+     */
+    public static Optional<FeedbackTable> lookup(FeedbackStrategy strategy, int codeLength, int numColors) {
+        if (strategy instanceof FeedbackTable table) return Optional.of(table);
+
+        return Optional.ofNullable(registry.get(new Key(strategy, codeLength, numColors)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * Codes matching the table's configuration are looked up, others are scored by the underlying strategy.
+     */
+    @Override
+    public Feedback get(Code secretCode, Code guess) {
+        if (!covers(secretCode) || !covers(guess)) return strategy.get(secretCode, guess);
+
+        return outcomes[outcomeIndex((int) secretCode.packed(), (int) guess.packed())];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinal(Code secretCode, Code guess) {
+        if (!ordinalIndexes || !covers(secretCode) || !covers(guess)) return strategy.ordinal(secretCode, guess);
+
+        return outcomeIndex((int) secretCode.packed(), (int) guess.packed());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * When the guess is covered by the table, secret codes covered by the table are looked up.
+     */
+    @Override
+    public void ordinals(Code guess, Code[] secretCodes, int from, int to, int[] ordinals) {
+        if (!ordinalIndexes || !covers(guess)) {
+            strategy.ordinals(guess, secretCodes, from, to, ordinals);
+            return;
+        }
+
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        int packedGuess = (int) guess.packed();
+        for (int i = from; i < to; i++) {
+            Code secretCode = secretCodes[i];
+            ordinals[i] = covers(secretCode) ? outcomeIndex((int) secretCode.packed(), packedGuess) : strategy.ordinal(secretCode, guess);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * When the guess is covered by the table, secret codes covered by the table are looked up.
+     */
+    @Override
+    public void histogram(Code guess, Code[] secretCodes, int from, int to, int[] counts) {
+        if (!ordinalIndexes || !covers(guess)) {
+            strategy.histogram(guess, secretCodes, from, to, counts);
+            return;
+        }
+
+        Objects.checkFromToIndex(from, to, secretCodes.length);
+        int packedGuess = (int) guess.packed();
+        for (int i = from; i < to; i++) {
+            Code secretCode = secretCodes[i];
+            counts[covers(secretCode) ? outcomeIndex((int) secretCode.packed(), packedGuess) : strategy.ordinal(secretCode, guess)]++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * When the guess is covered by the table, secret codes are looked up.
+     */
+    @Override
+    public void ordinals(Code guess, long[] packedSecretCodes, int from, int to, int[] ordinals) {
+        if (!ordinalIndexes || !covers(guess)) {
+            strategy.ordinals(guess, packedSecretCodes, from, to, ordinals);
+            return;
+        }
+
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        Objects.checkFromToIndex(from, to, ordinals.length);
+        int packedGuess = (int) guess.packed();
+        for (int i = from; i < to; i++) {
+            ordinals[i] = outcomeIndex(checkedPacked(packedSecretCodes[i]), packedGuess);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * When the guess is covered by the table, secret codes are looked up.
+     */
+    @Override
+    public void histogram(Code guess, long[] packedSecretCodes, int from, int to, int[] counts) {
+        if (!ordinalIndexes || !covers(guess)) {
+            strategy.histogram(guess, packedSecretCodes, from, to, counts);
+            return;
+        }
+
+        Objects.checkFromToIndex(from, to, packedSecretCodes.length);
+        int packedGuess = (int) guess.packed();
+        for (int i = from; i < to; i++) {
+            counts[outcomeIndex(checkedPacked(packedSecretCodes[i]), packedGuess)]++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsOrdinals(int codeLength) {
+        return strategy.supportsOrdinals(codeLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinalCount(int codeLength) {
+        return strategy.ordinalCount(codeLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Feedback fromOrdinal(int ordinal, int codeLength) {
+        if (ordinalIndexes && codeLength == this.codeLength && ordinal >= 0 && ordinal < outcomes.length && outcomes[ordinal] != null)
+            return outcomes[ordinal];
+
+        return strategy.fromOrdinal(ordinal, codeLength);
+    }
+
+    /**
+     * Returns the index of the outcome for a pair of packed codes. See {@link #outcome(int)}. If the strategy supports
+     * ordinals, the index is the ordinal of the feedback.
+     *
+     * @param packedSecretCode the packed secret code, in the range 0 to numCodes() - 1
+     * @param packedGuess      the packed guess, in the range 0 to numCodes() - 1
+     * @return an index in the range 0 to outcomeCount() - 1
+     */
+    public int outcomeIndex(int packedSecretCode, int packedGuess) {
+        int cell = packedSecretCode * numCodes + packedGuess;
+
+        return byteCells != null ? byteCells[cell] & 0xFF : shortCells[cell] & 0xFFFF;
+    }
+
+    /**
+     * Returns the feedback for an outcome index.
+     *
+     * @param index an index returned by {@link #outcomeIndex(int, int)}
+     * @return the corresponding feedback, or null if no pair in the table has that outcome
+     */
+    public Feedback outcome(int index) {
+        return outcomes[index];
+    }
+
+    /**
+     * Returns the number of outcome indexes used by the table.
+     *
+     * @return an upper bound (exclusive) for the values returned by {@link #outcomeIndex(int, int)}
+     */
+    public int outcomeCount() {
+        return outcomes.length;
+    }
+
+    /**
+     * Returns true if the table's outcome indexes are the ordinals of the underlying strategy. See
+     * {@link FeedbackStrategy#ordinal(Code, Code)}.
+     *
+     * @return true if {@link #outcomeIndex(int, int)} returns ordinals
+     */
+    public boolean usesOrdinals() {
+        return ordinalIndexes;
+    }
+
+    /**
+     * Returns the number of codes in the table's configuration.
+     *
+     * @return numColors^codeLength
+     */
+    public int numCodes() {
+        return numCodes;
+    }
+
+    /**
+     * Returns the strategy the table was built for.
+     *
+     * @return the underlying strategy
+     */
+    public FeedbackStrategy strategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the code length the table was built for.
+     *
+     * @return the length of the codes
+     */
+    public int codeLength() {
+        return codeLength;
+    }
+
+    /**
+     * Returns the number of colors the table was built for.
+     *
+     * @return the number of colors that can be used in the codes
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    private int checkedPacked(long packedCode) {
+        if (packedCode < 0 || packedCode >= numCodes)
+            throw new IllegalArgumentException("Invalid packed code! Must be in the range 0 to %d (inclusive)".formatted(numCodes - 1));
+
+        return (int) packedCode;
+    }
+
+    private boolean covers(Code code) {
+        return code.isPacked() && code.length() == codeLength && code.numColors() == numColors;
+    }
+
+    private record Key(FeedbackStrategy strategy, int codeLength, int numColors) {
+    }
+}
@@ -24,6 +24,26 @@ public record HigherLowerFeedback(List<Integer> values) implements Feedback {
         this.values = List.copyOf(values);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The ordinal reads each position as a base-3 digit (0 for -1, 1 for 0, 2 for 1), the first position being the most
+     * significant.
+     *
+     * @throws UnsupportedOperationException if there are more values than fit in an int ordinal
+     */
+    @Override
+    public int ordinal() {
+        Ordinals.higherLowerCount(values.size());
+
+        int ordinal = 0;
+        for (int value : values) {
+            ordinal = ordinal * 3 + Integer.signum(value) + 1;
+        }
+
+        return ordinal;
+    }
+
     /**
      * {@inheritDoc}
      */
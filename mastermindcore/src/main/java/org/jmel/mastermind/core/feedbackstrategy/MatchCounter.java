@@ -0,0 +1,318 @@
+package org.jmel.mastermind.core.feedbackstrategy;
+
+import org.jmel.mastermind.core.Code;
+
+import java.util.Arrays;
+
+/**
+ * Counts well-placed and color matches between two codes without allocating.
+ * <p></p>
+ * Packed codes sharing the same number of colors are compared digit by digit straight from their {@code long} values.
+ * Any other pair is first decoded into per-thread scratch arrays. Color matches are counted with a single per-color
+ * array holding (occurrences in c1 - occurrences in c2): a color seen in one code is a match whenever the other code
+ * has an unmatched occurrence of it pending. Games with very many colors sort the decoded codes instead, so the
+ * scratch memory stays proportional to the code length.
+ * <p></p>
+ * Long unpacked codes are compared with {@link VectorMatchCounter} when the {@code jdk.incubator.vector} module is
+ * available, and with the scalar loops otherwise.
+ */
+final class MatchCounter {
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    private static final ThreadLocal<PreparedGuess> PREPARED = ThreadLocal.withInitial(PreparedGuess::new);
+    private static final int MAX_BALANCE_COLORS = 1 << 12; // beyond this, colors are matched by sorting instead
+    // Checked without touching VectorMatchCounter, which cannot be loaded unless the JVM was started with
+    // --add-modules jdk.incubator.vector
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private MatchCounter() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    /**
+     * Returns the number of positions where both codes have the same color.
+     */
+    static int wellPlaced(Code c1, Code c2) {
+        int length = checkedLength(c1, c2);
+        if (sharePackedBase(c1, c2)) {
+            int numColors = c1.numColors();
+            long x = c1.packed();
+            long y = c2.packed();
+            int wellPlaced = 0;
+            for (int i = 0; i < length; i++) {
+                if (x % numColors == y % numColors) wellPlaced++;
+                x /= numColors;
+                y /= numColors;
+            }
+
+            return wellPlaced;
+        }
+
+        Scratch scratch = SCRATCH.get().decode(c1, c2);
+        int[] a = scratch.first;
+        int[] b = scratch.second;
+        if (VECTORIZED && length >= VectorMatchCounter.MIN_LENGTH) return VectorMatchCounter.wellPlaced(a, b, length);
+
+        int wellPlaced = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[i] == b[i]) wellPlaced++;
+        }
+
+        return wellPlaced;
+    }
+
+    /**
+     * Returns the well-placed count in the high 32 bits and the color match count (regardless of position) in the low
+     * 32 bits. See {@link #wellPlacedOf(long)} and {@link #colorMatchesOf(long)}.
+     */
+    static long count(Code c1, Code c2) {
+        int length = checkedLength(c1, c2);
+        Scratch scratch = SCRATCH.get();
+        int numColors = Math.max(c1.numColors(), c2.numColors());
+        if (numColors > MAX_BALANCE_COLORS) return countBySorting(scratch.decode(c1, c2), length);
+
+        if (sharePackedBase(c1, c2)) {
+            int[] balance = scratch.balance(numColors);
+            long x = c1.packed();
+            long y = c2.packed();
+            int wellPlaced = 0;
+            int colorMatches = 0;
+            for (int i = 0; i < length; i++) {
+                int dx = (int) (x % numColors);
+                int dy = (int) (y % numColors);
+                x /= numColors;
+                y /= numColors;
+                if (dx == dy) wellPlaced++;
+                if (balance[dx]++ < 0) colorMatches++;
+                if (balance[dy]-- > 0) colorMatches++;
+            }
+
+            // Only touched colors need clearing, which keeps this O(length) even for many colors
+            x = c1.packed();
+            y = c2.packed();
+            for (int i = 0; i < length; i++) {
+                balance[(int) (x % numColors)] = 0;
+                balance[(int) (y % numColors)] = 0;
+                x /= numColors;
+                y /= numColors;
+            }
+
+            return pack(wellPlaced, colorMatches);
+        }
+
+        scratch.decode(c1, c2);
+        if (VECTORIZED && length >= VectorMatchCounter.MIN_LENGTH && numColors <= VectorMatchCounter.MAX_COLORS)
+            return VectorMatchCounter.count(scratch.first, scratch.second, length, numColors);
+
+        return count(scratch.first, scratch.second, length, scratch.balance(numColors));
+    }
+
+    private static long countBySorting(Scratch scratch, int length) {
+        int[] a = scratch.first;
+        int[] b = scratch.second;
+        int wellPlaced = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[i] == b[i]) wellPlaced++;
+        }
+
+        Arrays.sort(a, 0, length);
+        Arrays.sort(b, 0, length);
+        int colorMatches = 0;
+        for (int i = 0, j = 0; i < length && j < length; ) {
+            if (a[i] == b[j]) {
+                colorMatches++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return pack(wellPlaced, colorMatches);
+    }
+
+    /**
+     * Array version of {@link #count(Code, Code)}. {@code balance} must be all zeros and is left all zeros.
+     */
+    static long count(int[] a, int[] b, int length, int[] balance) {
+        int wellPlaced = 0;
+        int colorMatches = 0;
+        for (int i = 0; i < length; i++) {
+            int da = a[i];
+            int db = b[i];
+            if (da == db) wellPlaced++;
+            if (balance[da]++ < 0) colorMatches++;
+            if (balance[db]-- > 0) colorMatches++;
+        }
+
+        for (int i = 0; i < length; i++) {
+            balance[a[i]] = 0;
+            balance[b[i]] = 0;
+        }
+
+        return pack(wellPlaced, colorMatches);
+    }
+
+    /**
+     * Returns the guess decoded into this thread's buffers, ready to be scored against many packed secret codes of the
+     * same configuration, or null if the guess is not packed or has too many colors. The result is only valid until
+     * the next call on the same thread.
+     */
+    static PreparedGuess prepare(Code guess) {
+        if (!guess.isPacked() || guess.numColors() > MAX_BALANCE_COLORS) return null;
+
+        return PREPARED.get().load(guess);
+    }
+
+    static int wellPlacedOf(long matches) {
+        return (int) (matches >>> 32);
+    }
+
+    static int colorMatchesOf(long matches) {
+        return (int) matches;
+    }
+
+    static long pack(int wellPlaced, int colorMatches) {
+        return ((long) wellPlaced << 32) | colorMatches;
+    }
+
+    private static boolean sharePackedBase(Code c1, Code c2) {
+        return c1.isPacked() && c2.isPacked() && c1.numColors() == c2.numColors();
+    }
+
+    private static int checkedLength(Code c1, Code c2) {
+        if (c1.length() != c2.length()) throw new IllegalArgumentException("Codes must have the same length");
+
+        return c1.length();
+    }
+
+    /**
+     * Per-thread buffers, grown on demand and reused across calls.
+     */
+    private static final class Scratch {
+        private int[] first = new int[0];
+        private int[] second = new int[0];
+        private int[] balance = new int[0];
+
+        private Scratch decode(Code c1, Code c2) {
+            if (first.length < c1.length()) {
+                first = new int[c1.length()];
+                second = new int[c1.length()];
+            }
+            c1.copyColorsTo(first);
+            c2.copyColorsTo(second);
+
+            return this;
+        }
+
+        private int[] balance(int numColors) {
+            if (balance.length < numColors) balance = new int[numColors];
+
+            return balance;
+        }
+    }
+
+    /**
+     * A guess decoded once, along with its color counts, for scoring against many packed secret codes.
+     */
+    static final class PreparedGuess {
+        private int length;
+        private int numColors;
+        private long spaceSize;
+        private int[] colors = new int[0];
+        private int[] colorCounts = new int[0];
+        private int[] unmatched = new int[0]; // colorCounts minus the matches found so far for the current secret
+
+        private PreparedGuess load(Code guess) {
+            length = guess.length();
+            numColors = guess.numColors();
+            spaceSize = 1;
+            for (int i = 0; i < length; i++) {
+                spaceSize *= numColors; // cannot overflow, the guess is packed
+            }
+            if (colors.length < length) colors = new int[length];
+            if (colorCounts.length < numColors) {
+                colorCounts = new int[numColors];
+                unmatched = new int[numColors];
+            }
+
+            guess.copyColorsTo(colors);
+            Arrays.fill(colorCounts, 0, numColors, 0);
+            for (int i = 0; i < length; i++) {
+                colorCounts[colors[i]]++;
+            }
+            System.arraycopy(colorCounts, 0, unmatched, 0, numColors);
+
+            return this;
+        }
+
+        /**
+         * Returns true if a code can be scored from its packed value, i.e. it has the guess's length and number of
+         * colors.
+         */
+        boolean accepts(Code secretCode) {
+            return secretCode.isPacked() && secretCode.length() == length && secretCode.numColors() == numColors;
+        }
+
+        long checkPacked(long packedSecretCode) {
+            if (packedSecretCode < 0 || packedSecretCode >= spaceSize)
+                throw new IllegalArgumentException("Invalid packed code! Must be in the range 0 to %d (inclusive)".formatted(spaceSize - 1));
+
+            return packedSecretCode;
+        }
+
+        /**
+         * Same encoding as {@link MatchCounter#count(Code, Code)}.
+         */
+        long count(long packedSecretCode) {
+            long x = packedSecretCode;
+            int wellPlaced = 0;
+            int colorMatches = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                int color = (int) (x % numColors);
+                x /= numColors;
+                if (color == colors[i]) wellPlaced++;
+                if (unmatched[color]-- > 0) colorMatches++;
+            }
+
+            x = packedSecretCode;
+            for (int i = 0; i < length; i++) {
+                int color = (int) (x % numColors);
+                x /= numColors;
+                unmatched[color] = colorCounts[color];
+            }
+
+            return pack(wellPlaced, colorMatches);
+        }
+
+        int wellPlaced(long packedSecretCode) {
+            long x = packedSecretCode;
+            int wellPlaced = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                if (x % numColors == colors[i]) wellPlaced++;
+                x /= numColors;
+            }
+
+            return wellPlaced;
+        }
+
+        /**
+         * Returns the higher/lower ordinal: one base-3 digit per position, the first position being the most
+         * significant.
+         */
+        int higherLower(long packedSecretCode) {
+            long x = packedSecretCode;
+            int ordinal = 0;
+            int weight = 1;
+            for (int i = length - 1; i >= 0; i--) {
+                int color = (int) (x % numColors);
+                x /= numColors;
+                ordinal += (Integer.signum(colors[i] - color) + 1) * weight;
+                weight *= 3;
+            }
+
+            return ordinal;
+        }
+    }
+}
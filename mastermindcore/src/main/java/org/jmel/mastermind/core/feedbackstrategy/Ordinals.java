@@ -0,0 +1,56 @@
+package org.jmel.mastermind.core.feedbackstrategy;
+
+/**
+ * Dense integer encodings shared by the feedback implementations.
+ * <p></p>
+ * Match-based feedback is encoded from the pair (wellPlaced, colorMatches), where colorMatches counts matches regardless
+ * of position, as {@code colorMatches * (colorMatches + 1) / 2 + wellPlaced}. Ordering by colorMatches first makes the
+ * encoding independent of the code length: codes of length L use exactly the ordinals 0 to (L + 1)(L + 2)/2 - 1.
+ */
+final class Ordinals {
+    static final int MAX_HIGHER_LOWER_LENGTH = 19; // 3^19 is the largest power of 3 that fits in an int
+
+    private Ordinals() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    static int ofMatches(int wellPlaced, int colorMatches) {
+        return colorMatches * (colorMatches + 1) / 2 + wellPlaced;
+    }
+
+    static int colorMatchesOf(int ordinal) {
+        int colorMatches = (int) ((Math.sqrt(8.0 * ordinal + 1) - 1) / 2);
+        // Guards against floating point rounding near perfect squares
+        while (colorMatches * (colorMatches + 1) / 2 > ordinal) colorMatches--;
+        while ((colorMatches + 1) * (colorMatches + 2) / 2 <= ordinal) colorMatches++;
+
+        return colorMatches;
+    }
+
+    static int wellPlacedOf(int ordinal) {
+        int colorMatches = colorMatchesOf(ordinal);
+
+        return ordinal - colorMatches * (colorMatches + 1) / 2;
+    }
+
+    static int matchesCount(int codeLength) {
+        return (codeLength + 1) * (codeLength + 2) / 2;
+    }
+
+    static int higherLowerCount(int codeLength) {
+        if (codeLength > MAX_HIGHER_LOWER_LENGTH)
+            throw new UnsupportedOperationException("Higher/lower feedback has no ordinals for codes longer than %d".formatted(MAX_HIGHER_LOWER_LENGTH));
+
+        int count = 1;
+        for (int i = 0; i < codeLength; i++) {
+            count *= 3;
+        }
+
+        return count;
+    }
+
+    static void checkRange(int ordinal, int count) {
+        if (ordinal < 0 || ordinal >= count)
+            throw new IllegalArgumentException("Invalid feedback ordinal! Must be in the range 0 to %d (inclusive)".formatted(count - 1));
+    }
+}
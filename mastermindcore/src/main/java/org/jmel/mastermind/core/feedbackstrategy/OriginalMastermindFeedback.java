@@ -10,6 +10,14 @@ package org.jmel.mastermind.core.feedbackstrategy;
  * @param misplaced  the number of misplaced numbers in the guess
  */
 public record OriginalMastermindFeedback(int wellPlaced, int misplaced) implements Feedback {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinal() {
+        return Ordinals.ofMatches(wellPlaced, wellPlaced + misplaced);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -9,6 +9,14 @@ package org.jmel.mastermind.core.feedbackstrategy;
  * @param wellPlaced the number of correctly placed numbers in the guess
  */
 public record PerfectFeedback(int wellPlaced) implements Feedback {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinal() {
+        return wellPlaced;
+    }
+
     /**
      * {@inheritDoc}
      */
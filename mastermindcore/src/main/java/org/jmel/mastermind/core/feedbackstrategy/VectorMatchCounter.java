@@ -0,0 +1,65 @@
+package org.jmel.mastermind.core.feedbackstrategy;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+import org.jmel.mastermind.core.Code;
+
+/**
+ * Vectorized versions of the {@link MatchCounter} loops for decoded codes, using the incubating Vector API.
+ * <p></p>
+ * Positions are compared one vector of lanes at a time. Color matches are the sum over colors of the smaller number of
+ * occurrences in either code, with occurrences counted by comparing each vector against the broadcast color, so the
+ * cost grows with the number of colors. This class must only be loaded when the {@code jdk.incubator.vector} module
+ * is present, since its initialization fails otherwise. See {@link MatchCounter}.
+ */
+final class VectorMatchCounter {
+    /**
+     * Shorter codes are compared faster by the scalar loops.
+     */
+    static final int MIN_LENGTH = 16;
+    /**
+     * Color matches are counted with one pass per color, which stops paying off past this many colors.
+     */
+    static final int MAX_COLORS = 32;
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorMatchCounter() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    /**
+     * Vectorized version of {@link MatchCounter#wellPlaced(Code, Code)} for decoded codes.
+     */
+    static int wellPlaced(int[] a, int[] b, int length) {
+        int wellPlaced = 0;
+        for (int i = 0; i < length; i += SPECIES.length()) {
+            VectorMask<Integer> inRange = SPECIES.indexInRange(i, length);
+            IntVector va = IntVector.fromArray(SPECIES, a, i, inRange);
+            IntVector vb = IntVector.fromArray(SPECIES, b, i, inRange);
+            wellPlaced += va.eq(vb).and(inRange).trueCount();
+        }
+
+        return wellPlaced;
+    }
+
+    /**
+     * Vectorized version of {@link MatchCounter#count(Code, Code)} for decoded codes. {@code numColors} must be at most
+     * {@link #MAX_COLORS}.
+     */
+    static long count(int[] a, int[] b, int length, int numColors) {
+        int colorMatches = 0;
+        for (int color = 0; color < numColors; color++) {
+            int inA = 0;
+            int inB = 0;
+            for (int i = 0; i < length; i += SPECIES.length()) {
+                VectorMask<Integer> inRange = SPECIES.indexInRange(i, length);
+                inA += IntVector.fromArray(SPECIES, a, i, inRange).eq(color).and(inRange).trueCount();
+                inB += IntVector.fromArray(SPECIES, b, i, inRange).eq(color).and(inRange).trueCount();
+            }
+            colorMatches += Math.min(inA, inB);
+        }
+
+        return MatchCounter.pack(wellPlaced(a, b, length), colorMatches);
+    }
+}
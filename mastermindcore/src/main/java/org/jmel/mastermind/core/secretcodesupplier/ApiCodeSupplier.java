@@ -6,23 +6,49 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
  * A code supplier implementation that uses the random.org API to generate a random code of a given length where each code element is
  * one of the allowed colors. It uses the free tier API which allows up to 1,000,000 bits per day per IP address.
+ * <p></p>
+ * {@link #getMany(int)} fetches the integers of many codes in a single request, which is much cheaper than one request
+ * per code. See {@link BufferedCodeSupplier} to keep such codes ready in memory.
+ * <p></p>
+ * All instances share one HttpClient, and the remaining quota of each server is tracked locally: it is fetched from
+ * the server on first use, every 10 minutes, and whenever the local estimate is too low for a request, and is
+ * otherwise decremented by the bits each request consumes. Most codes therefore cost a single request, and suppliers
+ * running concurrently share a single quota query.
  */
 public class ApiCodeSupplier implements CodeSupplier {
-    private static final String QUOTA_URI = "https://www.random.org/quota/?format=plain";
-    private static final String INTS_URI = "https://www.random.org/integers/?num=%d&min=%d&max=%d&col=1&base=10&format=plain&rnd=new";
+    /**
+     * The random.org endpoint used by {@link #of(int, int)}.
+     */
+    public static final URI RANDOM_ORG = URI.create("https://www.random.org/");
+    private static final String QUOTA_PATH = "quota/?format=plain";
+    private static final String INTS_PATH = "integers/?num=%d&min=%d&max=%d&col=1&base=10&format=plain&rnd=new";
+    private static final int MAX_INTEGERS_PER_REQUEST = 10_000; // random.org limit for num
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private static final Map<URI, QuotaTracker> quotas = new ConcurrentHashMap<>(); // quota is per client IP and server
     private final int codeLength;
     private final int numColors;
+    private final URI baseUri;
 
-    private ApiCodeSupplier(int codeLength, int numColors) {
+    private ApiCodeSupplier(int codeLength, int numColors, URI baseUri) {
         this.codeLength = codeLength;
         this.numColors = numColors;
+        this.baseUri = baseUri;
     }
 
     /**
@@ -33,7 +59,26 @@ public class ApiCodeSupplier implements CodeSupplier {
      * @return a new instance of ApiCodeSupplier
      */
     public static ApiCodeSupplier of(int codeLength, int numColors) {
-        return new ApiCodeSupplier(codeLength, numColors);
+        return of(codeLength, numColors, RANDOM_ORG);
+    }
+
+    /**
+     * Creates a new instance of ApiCodeSupplier that sends its requests to a server implementing the random.org
+     * {@code quota} and {@code integers} endpoints, such as a mirror or a local stub.
+     *
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @param baseUri    the URI the endpoint paths are resolved against, e.g. {@link #RANDOM_ORG}
+     * @return a new instance of ApiCodeSupplier
+     * @throws IllegalArgumentException if the code length is less than 1, the number of colors is less than 2, or the
+     *                                  base URI is null
+     */
+    public static ApiCodeSupplier of(int codeLength, int numColors, URI baseUri) {
+        if (codeLength < 1) throw new IllegalArgumentException("Invalid code length");
+        if (numColors <= 1) throw new IllegalArgumentException("Invalid number of colors");
+        if (Objects.isNull(baseUri)) throw new IllegalArgumentException("Invalid API URI");
+
+        return new ApiCodeSupplier(codeLength, numColors, baseUri);
     }
 
     /**
@@ -43,65 +88,178 @@ public class ApiCodeSupplier implements CodeSupplier {
      */
     @Override
     public List<Integer> get() throws IOException {
+        return getMany(1).get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * Codes are fetched in as few requests as the API allows (up to 10,000 integers each).
+     *
+     * @throws IOException if an API request fails or the quota is exceeded
+     */
+    @Override
+    public List<List<Integer>> getMany(int count) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Invalid number of codes");
+
+        int codesPerRequest = Math.max(1, MAX_INTEGERS_PER_REQUEST / this.codeLength);
+        QuotaTracker quota = quotas.computeIfAbsent(baseUri, uri -> new QuotaTracker());
+        List<List<Integer>> codes = new ArrayList<>(count);
         try {
-            HttpClient httpClient = buildHttpClient();
-            if (checkQuota(httpClient)) {
+            while (codes.size() < count) {
+                int batch = Math.min(codesPerRequest, count - codes.size());
+                if (!quota.reserve((long) bitsPerCode() * batch, this::fetchQuota))
+                    throw new IOException("Random.org quota exceeded");
 
-                return getCodeFromApi(httpClient);
-            } else {
-                throw new IOException("Random.org quota exceeded");
+                codes.addAll(getCodesFromApi(batch));
             }
         } catch (RuntimeException e) {
             // Catches API exceptions (not including quota exceeded exception above) and rethrows them as IOExceptions
             throw new IOException("Failed to get secret code from API", e);
         }
+
+        return codes;
     }
 
-    private HttpClient buildHttpClient() {
-        return HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(2))
-                .build();
+    /**
+     * Returns the number of random bits random.org charges for one code: each integer costs the bits needed to
+     * represent the largest color.
+     */
+    private int bitsPerCode() {
+        return this.codeLength * (Integer.SIZE - Integer.numberOfLeadingZeros(this.numColors - 1));
     }
 
-    private boolean checkQuota(HttpClient client) {
+    private long fetchQuota() {
         try {
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(QUOTA_URI))
+                    .uri(baseUri.resolve(QUOTA_PATH))
                     .timeout(Duration.ofSeconds(2))
                     .build();
 
-            String quota = client.send(request, HttpResponse.BodyHandlers.ofString())
+            String quota = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString())
                     .body()
                     .trim();
 
-            int bitsNeeded = this.codeLength * (int) (Math.log(this.numColors - 1) / Math.log(2) + 1);
-
-            return Integer.parseInt(quota) >= bitsNeeded * 10;
+            return Long.parseLong(quota);
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private List<Integer> getCodeFromApi(HttpClient client) {
+    private List<List<Integer>> getCodesFromApi(int numCodes) {
         try {
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(generateIntegerRequestPath()))
-                    .timeout(Duration.ofSeconds(1))
+                    .uri(baseUri.resolve(generateIntegerRequestPath(numCodes)))
+                    .timeout(Duration.ofSeconds(1 + numCodes * codeLength / 1_000))
                     .build();
 
-            String result = client.send(request, HttpResponse.BodyHandlers.ofString())
+            String result = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString())
                     .body()
                     .trim();
 
-            return Arrays.stream(result.split("\n"))
+            List<Integer> integers = Arrays.stream(result.split("\n"))
+                    .map(String::trim)
                     .map(Integer::parseInt)
-                    .collect(Collectors.toList());
+                    .toList();
+            if (integers.size() != numCodes * codeLength)
+                throw new IllegalStateException("Expected %d integers from the API but got %d".formatted(numCodes * codeLength, integers.size()));
+
+            List<List<Integer>> codes = new ArrayList<>(numCodes);
+            for (int i = 0; i < numCodes; i++) {
+                codes.add(integers.subList(i * codeLength, (i + 1) * codeLength));
+            }
+
+            return codes;
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private String generateIntegerRequestPath() {
-        return String.format(INTS_URI, this.codeLength, 0, this.numColors - 1);
+    private String generateIntegerRequestPath(int numCodes) {
+        return String.format(INTS_PATH, numCodes * this.codeLength, 0, this.numColors - 1);
+    }
+
+    /**
+     * A local estimate of the bits left in a server's quota.
+     */
+    private static final class QuotaTracker {
+        private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+        private static final int SAFETY_FACTOR = 10; // a request needs 10 times its cost in quota, leaving a margin
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition refreshDone = lock.newCondition(); // a refresh succeeded or failed
+        private long estimatedBits;
+        private long refreshedAt;
+        private boolean fetched;
+        private boolean refreshing;
+        private long reservedDuringRefresh; // bits deducted from the old estimate while the server is queried
+        private long refreshCount;
+
+        /**
+         * Deducts the cost of a request from the estimate, refreshing it from the server first if it is stale or too
+         * low. Returns false if the quota is too low even after refreshing.
+         * <p></p>
+         * Only one thread queries the server at a time, without holding the lock. Meanwhile, the others use the old
+         * estimate if it covers their request, and otherwise wait for the new one. Bits reserved during the query are
+         * deducted from its answer, as the server may not have counted them yet.
+         */
+        private boolean reserve(long bits, LongSupplier fetchQuota) {
+            long required = bits * SAFETY_FACTOR;
+            lock.lock();
+            try {
+                while (true) {
+                    boolean covered = fetched && estimatedBits >= required;
+                    boolean stale = !fetched || System.nanoTime() - refreshedAt > REFRESH_INTERVAL_NANOS;
+                    if (covered && (!stale || refreshing)) return deduct(bits);
+                    if (!refreshing) break;
+
+                    long seen = refreshCount;
+                    refreshDone.await();
+                    if (refreshCount != seen) return estimatedBits >= required && deduct(bits);
+                    // The refresh failed: try again, possibly querying the server ourselves
+                }
+                refreshing = true;
+                reservedDuringRefresh = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                lock.unlock();
+            }
+
+            long quota;
+            try {
+                quota = fetchQuota.getAsLong();
+            } catch (RuntimeException | Error e) {
+                lock.lock();
+                try {
+                    refreshing = false;
+                    refreshDone.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                estimatedBits = quota - reservedDuringRefresh;
+                refreshedAt = System.nanoTime();
+                fetched = true;
+                refreshing = false;
+                refreshCount++;
+                refreshDone.signalAll();
+
+                return estimatedBits >= required && deduct(bits);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean deduct(long bits) {
+            estimatedBits -= bits;
+            if (refreshing) reservedDuringRefresh += bits;
+
+            return true;
+        }
     }
 }
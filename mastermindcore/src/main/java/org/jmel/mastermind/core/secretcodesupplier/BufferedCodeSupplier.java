@@ -0,0 +1,137 @@
+package org.jmel.mastermind.core.secretcodesupplier;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A code supplier that serves codes from memory, fetching them ahead of time from another supplier.
+ * <p></p>
+ * Codes are kept in a bounded ring buffer. Whenever it falls to half its capacity or less, a background thread tops it
+ * up with a single {@link CodeSupplier#getMany(int)} call, so wrapping an {@link ApiCodeSupplier} turns one or two
+ * HTTP round-trips per game into one request per {@code capacity / 2} games. {@link #get()} only waits for the source
+ * when the buffer is empty, and reports the source's failure if the refill it waited for failed.
+ * <p></p>
+ * The buffer starts filling when the supplier is created. Instances are thread-safe. {@link #close()} stops the
+ * background thread; codes still buffered can be taken afterwards, but no new ones are fetched.
+ */
+public class BufferedCodeSupplier implements CodeSupplier, Closeable {
+    private final CodeSupplier source;
+    private final int capacity;
+    private final BlockingQueue<List<Integer>> buffer;
+    private final ExecutorService refiller;
+    private CompletableFuture<Void> refill = CompletableFuture.completedFuture(null); // guarded by this
+
+    private BufferedCodeSupplier(CodeSupplier source, int capacity) {
+        this.source = source;
+        this.capacity = capacity;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.refiller = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "code-supplier-refill");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new instance of BufferedCodeSupplier and starts filling its buffer.
+     *
+     * @param source   the supplier codes are fetched from
+     * @param capacity the maximum number of codes kept ready
+     * @return a new instance of BufferedCodeSupplier
+     * @throws IllegalArgumentException if the source is null or the capacity is less than 1
+     */
+    public static BufferedCodeSupplier of(CodeSupplier source, int capacity) {
+        if (Objects.isNull(source)) throw new IllegalArgumentException("Invalid code supplier");
+        if (capacity < 1) throw new IllegalArgumentException("Invalid buffer capacity");
+
+        BufferedCodeSupplier supplier = new BufferedCodeSupplier(source, capacity);
+        supplier.refill();
+
+        return supplier;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IOException if the buffer is empty and refilling it from the source fails
+     */
+    @Override
+    public List<Integer> get() throws IOException {
+        List<Integer> code = buffer.poll();
+        while (code == null) {
+            awaitRefill();
+            code = buffer.poll();
+        }
+        if (buffer.size() <= capacity / 2) refill();
+
+        return code;
+    }
+
+    /**
+     * Returns the number of codes ready to be served without waiting.
+     *
+     * @return the number of buffered codes
+     */
+    public int available() {
+        return buffer.size();
+    }
+
+    /**
+     * Stops fetching codes in the background.
+     */
+    @Override
+    public synchronized void close() {
+        refiller.shutdownNow();
+        refill.cancel(false); // a refill still queued would never run, so callers waiting on it must be released
+    }
+
+    private synchronized CompletableFuture<Void> refill() {
+        if (refill.isDone() && !refiller.isShutdown()) refill = CompletableFuture.runAsync(this::fill, refiller);
+
+        return refill;
+    }
+
+    private void fill() {
+        int missing = buffer.remainingCapacity();
+        if (missing == 0) return;
+
+        List<List<Integer>> codes;
+        try {
+            codes = source.getMany(missing);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (codes.isEmpty()) throw new UncheckedIOException(new IOException("Code supplier returned no codes"));
+
+        for (List<Integer> code : codes) {
+            if (!buffer.offer(List.copyOf(code))) break;
+        }
+    }
+
+    private void awaitRefill() throws IOException {
+        if (refiller.isShutdown()) throw new IOException("Code supplier is closed and has no buffered codes left");
+
+        try {
+            refill().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            throw new IOException("Failed to refill code buffer", cause);
+        } catch (CancellationException e) {
+            throw new IOException("Code supplier is closed and has no buffered codes left", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for codes", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.jmel.mastermind.core.secretcodesupplier;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,4 +15,26 @@ public interface CodeSupplier {
      * @throws IOException if the code cannot be retrieved in certain implementations
      */
     List<Integer> get() throws IOException;
+
+    /**
+     * Returns several codes at once.
+     * <p></p>
+     * The default implementation calls {@link #get()} once per code. Implementations backed by a remote service can
+     * override it to fetch all the codes in a single request.
+     *
+     * @param count the number of codes to return
+     * @return a list of {@code count} codes
+     * @throws IOException              if the codes cannot be retrieved in certain implementations
+     * @throws IllegalArgumentException if {@code count} is negative
+     */
+    default List<List<Integer>> getMany(int count) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Invalid number of codes");
+
+        List<List<Integer>> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(get());
+        }
+
+        return codes;
+    }
 }
@@ -0,0 +1,223 @@
+package org.jmel.mastermind.core.secretcodesupplier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A code supplier that tries several suppliers in order and returns the first code one of them supplies in time.
+ * <p></p>
+ * Each attempt runs on a virtual thread and is abandoned (and interrupted) once the attempt timeout elapses, so a slow
+ * source costs at most that long. A source that fails or times out is skipped for a cool-down period, after which it
+ * is tried again; this keeps the latency of {@link #get()} bounded while a remote service is down. The last supplier
+ * is the fallback of last resort and is never skipped. A batch from {@link #getMany(int)} is given one more attempt
+ * timeout for every {@value #CODES_PER_ATTEMPT_TIMEOUT} codes, so a large batch from a healthy source does not time
+ * out and trip the cool-down. Typical use:
+ * <pre>{@code
+ * FallbackCodeSupplier.of(ApiCodeSupplier.of(4, 8), LocalRandomCodeSupplier.of(4, 8))
+ * }</pre>
+ * Counters of how each source fared are available from {@link #stats()}. Instances are thread-safe.
+ */
+public class FallbackCodeSupplier implements CodeSupplier {
+    /**
+     * The attempt timeout used by {@link #of(CodeSupplier...)}: 500 milliseconds.
+     */
+    public static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofMillis(500);
+    /**
+     * The cool-down used by {@link #of(CodeSupplier...)}: 30 seconds.
+     */
+    public static final Duration DEFAULT_COOL_DOWN = Duration.ofSeconds(30);
+    static final int CODES_PER_ATTEMPT_TIMEOUT = 100;
+    private final List<Source> sources;
+    private final long attemptTimeoutNanos;
+    private final long coolDownNanos;
+    private final LongSupplier nanoClock;
+
+    private FallbackCodeSupplier(List<CodeSupplier> suppliers, Duration attemptTimeout, Duration coolDown,
+                                 LongSupplier nanoClock) {
+        this.sources = suppliers.stream().map(Source::new).toList();
+        this.attemptTimeoutNanos = attemptTimeout.toNanos();
+        this.coolDownNanos = coolDown.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Creates a new instance of FallbackCodeSupplier with the default attempt timeout and cool-down.
+     *
+     * @param suppliers the suppliers to try, in order
+     * @return a new instance of FallbackCodeSupplier
+     * @throws IllegalArgumentException if no supplier is given or a supplier is null
+     */
+    public static FallbackCodeSupplier of(CodeSupplier... suppliers) {
+        if (Objects.isNull(suppliers)) throw new IllegalArgumentException("Invalid code suppliers");
+
+        return of(Arrays.asList(suppliers), DEFAULT_ATTEMPT_TIMEOUT, DEFAULT_COOL_DOWN);
+    }
+
+    /**
+     * Creates a new instance of FallbackCodeSupplier.
+     *
+     * @param suppliers      the suppliers to try, in order
+     * @param attemptTimeout the time each supplier is given to supply a code
+     * @param coolDown       how long a supplier that failed or timed out is skipped for
+     * @return a new instance of FallbackCodeSupplier
+     * @throws IllegalArgumentException if no supplier is given, a supplier is null, or a duration is null or not
+     *                                  positive
+     */
+    public static FallbackCodeSupplier of(List<CodeSupplier> suppliers, Duration attemptTimeout, Duration coolDown) {
+        return of(suppliers, attemptTimeout, coolDown, System::nanoTime);
+    }
+
+    static FallbackCodeSupplier of(List<CodeSupplier> suppliers, Duration attemptTimeout, Duration coolDown,
+                                   LongSupplier nanoClock) {
+        if (Objects.isNull(suppliers) || suppliers.isEmpty() || suppliers.stream().anyMatch(Objects::isNull))
+            throw new IllegalArgumentException("Invalid code suppliers");
+        if (Objects.isNull(attemptTimeout) || attemptTimeout.isNegative() || attemptTimeout.isZero())
+            throw new IllegalArgumentException("Invalid attempt timeout");
+        if (Objects.isNull(coolDown) || coolDown.isNegative() || coolDown.isZero())
+            throw new IllegalArgumentException("Invalid cool-down");
+
+        return new FallbackCodeSupplier(suppliers, attemptTimeout, coolDown, nanoClock);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IOException if every supplier tried failed or timed out
+     */
+    @Override
+    public List<Integer> get() throws IOException {
+        return supply(CodeSupplier::get, attemptTimeoutNanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * All the codes come from the same supplier, which is given one more attempt timeout for every
+     * {@value #CODES_PER_ATTEMPT_TIMEOUT} codes.
+     *
+     * @throws IOException if every supplier tried failed or timed out
+     */
+    @Override
+    public List<List<Integer>> getMany(int count) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Invalid number of codes");
+
+        return supply(supplier -> supplier.getMany(count), timeoutNanos(count));
+    }
+
+    /**
+     * Returns the time a supplier is given to supply {@code count} codes.
+     */
+    long timeoutNanos(int count) {
+        long attempts = 1 + count / CODES_PER_ATTEMPT_TIMEOUT;
+        if (attemptTimeoutNanos > Long.MAX_VALUE / attempts) return Long.MAX_VALUE;
+
+        return attemptTimeoutNanos * attempts;
+    }
+
+    /**
+     * Returns how each supplier fared so far, in the order the suppliers are tried.
+     *
+     * @return an immutable list with one SourceStats per supplier
+     */
+    public List<SourceStats> stats() {
+        long now = nanoClock.getAsLong();
+
+        return sources.stream()
+                .map(source -> new SourceStats(source.supplier, source.served.get(), source.failed.get(),
+                        source.timedOut.get(), source.skipped.get(), source.isCoolingDown(now)))
+                .toList();
+    }
+
+    private <T> T supply(Request<T> request, long timeoutNanos) throws IOException {
+        IOException failure = new IOException("All code suppliers failed");
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            boolean last = i == sources.size() - 1;
+            if (!last && source.isCoolingDown(nanoClock.getAsLong())) {
+                source.skipped.incrementAndGet();
+                continue;
+            }
+
+            try {
+                T result = attempt(() -> request.send(source.supplier), timeoutNanos);
+                source.served.incrementAndGet();
+                source.coolDownUntil = 0;
+
+                return result;
+            } catch (TimeoutException e) {
+                source.timedOut.incrementAndGet();
+                source.coolDownUntil = nanoClock.getAsLong() + coolDownNanos;
+                failure.addSuppressed(new IOException("%s timed out".formatted(source.supplier), e));
+            } catch (ExecutionException e) {
+                source.failed.incrementAndGet();
+                source.coolDownUntil = nanoClock.getAsLong() + coolDownNanos;
+                failure.addSuppressed(e.getCause());
+            }
+        }
+
+        throw failure;
+    }
+
+    private <T> T attempt(Callable<T> call, long timeoutNanos) throws TimeoutException, ExecutionException, IOException {
+        FutureTask<T> task = new FutureTask<>(call);
+        Thread.ofVirtual().name("code-supplier-attempt").start(task);
+        try {
+            return task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a code", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request<T> {
+        T send(CodeSupplier supplier) throws IOException;
+    }
+
+    private static final class Source {
+        private final CodeSupplier supplier;
+        private final AtomicLong served = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile long coolDownUntil; // nanoClock deadline, or 0 when the source is healthy
+
+        private Source(CodeSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        private boolean isCoolingDown(long now) {
+            long until = coolDownUntil;
+
+            return until != 0 && now - until < 0;
+        }
+    }
+
+    /**
+     * Counters for one supplier of a FallbackCodeSupplier.
+     *
+     * @param supplier    the supplier
+     * @param served      the number of calls the supplier answered
+     * @param failed      the number of calls the supplier failed
+     * @param timedOut    the number of calls abandoned because the supplier was too slow
+     * @param skipped     the number of calls that did not try the supplier because it was cooling down
+     * @param coolingDown true if the supplier is currently being skipped
+     */
+    public record SourceStats(CodeSupplier supplier, long served, long failed, long timedOut, long skipped,
+                              boolean coolingDown) {
+    }
+}
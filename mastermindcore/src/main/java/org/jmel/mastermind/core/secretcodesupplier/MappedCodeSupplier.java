@@ -0,0 +1,316 @@
+package org.jmel.mastermind.core.secretcodesupplier;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.CodeSpace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A code supplier that hands out codes from a pre-generated pool file, without any network call.
+ * <p></p>
+ * A pool is written once with {@link #write(Path, int, int, long, CodeSupplier)}, for example from an
+ * {@link ApiCodeSupplier} during off-peak hours, and opened with {@link #of(Path)}. The file holds a 64-byte header
+ * followed by every code in packed form (see {@link Code#packed()}), each taking the fewest bytes that fit the largest
+ * code: 2 bytes per code for the standard game of 4 positions and 8 colors.
+ * <p></p>
+ * Codes are handed out in file order through an atomic cursor, so concurrent builders never get the same code. The
+ * header records how far the pool has been consumed, and is advanced and flushed to disk before any code past it is
+ * handed out. To keep that cheap, it is advanced a block of 4096 codes at a time, and set to the exact position by
+ * {@link #close()}: a process that stops without closing the supplier loses at most one block of unused codes, but a
+ * code is never handed out twice, even across restarts. The file is locked while open, so only one supplier (in any
+ * process) can consume a pool at a time.
+ */
+public class MappedCodeSupplier implements CodeSupplier, Closeable {
+    private static final int MAGIC = 0x4D4D4350; // "MMCP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int CODE_LENGTH_OFFSET = 8;
+    private static final int NUM_COLORS_OFFSET = 12;
+    private static final int COUNT_OFFSET = 16;
+    private static final int CURSOR_OFFSET = 24;
+    private static final int WIDTH_OFFSET = 32;
+    private static final long RESERVATION_BLOCK = 4096;
+    private static final int WRITE_BATCH = 10_000;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer codes;
+    private final int codeLength;
+    private final int numColors;
+    private final int width;
+    private final long count;
+    private final AtomicLong cursor;
+    private volatile long reservedUntil; // codes before this index are recorded as consumed in the header
+    private volatile boolean closed;
+
+    private MappedCodeSupplier(FileChannel channel, FileLock lock, MappedByteBuffer header, MappedByteBuffer codes,
+                               int codeLength, int numColors, int width, long count, long cursor) {
+        this.channel = channel;
+        this.lock = lock;
+        this.header = header;
+        this.codes = codes;
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.width = width;
+        this.count = count;
+        this.cursor = new AtomicLong(cursor);
+        this.reservedUntil = cursor;
+    }
+
+    /**
+     * Opens a pool file written by {@link #write(Path, int, int, long, CodeSupplier)}, resuming after the last code
+     * handed out from it.
+     *
+     * @param file the pool file
+     * @return a new instance of MappedCodeSupplier
+     * @throws IOException              if the file cannot be read, is not a code pool, or is already open
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static MappedCodeSupplier of(Path file) throws IOException {
+        if (Objects.isNull(file)) throw new IllegalArgumentException("Invalid code pool file");
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = tryLock(channel);
+            if (lock == null) throw new IOException("Code pool %s is already in use".formatted(file));
+            if (channel.size() < HEADER_SIZE) throw new IOException("%s is not a code pool".formatted(file));
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IOException("%s is not a code pool".formatted(file));
+
+            int codeLength = header.getInt(CODE_LENGTH_OFFSET);
+            int numColors = header.getInt(NUM_COLORS_OFFSET);
+            long count = header.getLong(COUNT_OFFSET);
+            long cursor = header.getLong(CURSOR_OFFSET);
+            int width = header.getInt(WIDTH_OFFSET);
+            if (!Code.isPackable(codeLength, numColors) || width != width(codeLength, numColors) || count < 0
+                    || cursor < 0 || cursor > count || count > (channel.size() - HEADER_SIZE) / width)
+                throw new IOException("Code pool %s is corrupted".formatted(file));
+            long bodySize = count * width;
+            if (bodySize > Integer.MAX_VALUE)
+                throw new IOException("Code pool %s is larger than 2 GiB".formatted(file));
+
+            MappedByteBuffer codes = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bodySize);
+
+            return new MappedCodeSupplier(channel, lock, header, codes, codeLength, numColors, width, count, cursor);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null; // locked by this JVM
+        }
+    }
+
+    /**
+     * Writes a new pool file of codes taken from a supplier. An existing file is replaced.
+     *
+     * @param file       the pool file to create
+     * @param codeLength the length of the codes
+     * @param numColors  the number of colors that can be used in the codes
+     * @param count      the number of codes to write
+     * @param source     the supplier the codes are taken from, with {@link CodeSupplier#getMany(int)}
+     * @throws IOException              if the file cannot be written or the source fails
+     * @throws IllegalArgumentException if a parameter is invalid, codes of the configuration cannot be packed, or the
+     *                                  source supplies an invalid code
+     */
+    public static void write(Path file, int codeLength, int numColors, long count, CodeSupplier source) throws IOException {
+        if (Objects.isNull(file)) throw new IllegalArgumentException("Invalid code pool file");
+        if (Objects.isNull(source)) throw new IllegalArgumentException("Invalid code supplier");
+        if (count < 0) throw new IllegalArgumentException("Invalid number of codes");
+        if (!Code.isPackable(codeLength, numColors))
+            throw new IllegalArgumentException("Codes of length %d with %d colors cannot be packed".formatted(codeLength, numColors));
+
+        int width = width(codeLength, numColors);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(codeLength)
+                    .putInt(numColors)
+                    .putLong(count)
+                    .putLong(0)
+                    .putInt(width);
+            channel.write(header.clear(), 0);
+
+            ByteBuffer batch = ByteBuffer.allocate(WRITE_BATCH * width);
+            long position = HEADER_SIZE;
+            for (long written = 0; written < count; ) {
+                int batchSize = (int) Math.min(WRITE_BATCH, count - written);
+                List<List<Integer>> values = source.getMany(batchSize);
+                if (values.size() != batchSize)
+                    throw new IOException("Code supplier returned %d codes instead of %d".formatted(values.size(), batchSize));
+
+                batch.clear();
+                for (List<Integer> value : values) {
+                    putPacked(batch, Code.from(value, codeLength, numColors).packed(), width);
+                }
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    position += channel.write(batch, position);
+                }
+                written += batchSize;
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Returns the number of bytes needed for the largest packed code of a configuration.
+     */
+    private static int width(int codeLength, int numColors) {
+        long largest = CodeSpace.of(codeLength, numColors).size() - 1;
+
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(largest) + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    private static void putPacked(ByteBuffer buffer, long packed, int width) {
+        for (int shift = (width - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            buffer.put((byte) (packed >>> shift));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IOException           if the pool is exhausted or the consumed position cannot be recorded
+     * @throws IllegalStateException if the supplier is closed
+     */
+    @Override
+    public List<Integer> get() throws IOException {
+        return codeAt(take(1));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p></p>
+     * The codes are consecutive in the pool.
+     *
+     * @throws IOException           if fewer than {@code count} codes are left or the consumed position cannot be
+     *                               recorded
+     * @throws IllegalStateException if the supplier is closed
+     */
+    @Override
+    public List<List<Integer>> getMany(int count) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Invalid number of codes");
+
+        long first = take(count);
+        List<List<Integer>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(codeAt(first + i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of codes that have not been handed out yet.
+     *
+     * @return the number of codes left in the pool
+     */
+    public long remaining() {
+        return count - cursor.get();
+    }
+
+    /**
+     * Returns the length of the codes in the pool.
+     *
+     * @return the length of the codes
+     */
+    public int codeLength() {
+        return codeLength;
+    }
+
+    /**
+     * Returns the number of colors of the codes in the pool.
+     *
+     * @return the number of colors that can be used in the codes
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    /**
+     * Records the exact number of codes handed out and releases the file.
+     *
+     * @throws IOException if the consumed position cannot be recorded
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        try {
+            header.putLong(CURSOR_OFFSET, cursor.get());
+            header.force();
+        } finally {
+            try {
+                lock.release();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Claims the next {@code n} codes and returns the index of the first one, once the header covers them.
+     */
+    private long take(int n) throws IOException {
+        if (closed) throw new IllegalStateException("Code pool is closed");
+
+        long first;
+        do {
+            first = cursor.get();
+            if (first + n > count)
+                throw new IOException("Code pool exhausted: %d codes requested, %d left".formatted(n, count - first));
+        } while (!cursor.compareAndSet(first, first + n));
+        // close() sets closed before reading the cursor, so either it records this claim or the claim fails here. The
+        // codes of a failed claim may be recorded as consumed, which only skips them.
+        if (closed) throw new IllegalStateException("Code pool is closed");
+
+        long end = first + n;
+        if (end > reservedUntil) reserve(end);
+
+        return first;
+    }
+
+    private synchronized void reserve(long end) throws IOException {
+        if (closed) throw new IllegalStateException("Code pool is closed");
+        if (end <= reservedUntil) return;
+
+        long reserved = Math.min(count, Math.max(end, reservedUntil + RESERVATION_BLOCK));
+        header.putLong(CURSOR_OFFSET, reserved);
+        header.force();
+        reservedUntil = reserved;
+    }
+
+    private List<Integer> codeAt(long index) {
+        int offset = (int) (index * width);
+        long packed = 0;
+        for (int i = 0; i < width; i++) {
+            packed = (packed << Byte.SIZE) | (codes.get(offset + i) & 0xFF);
+        }
+
+        return Code.fromPacked(packed, codeLength, numColors).value();
+    }
+}
@@ -0,0 +1,130 @@
+package org.jmel.mastermind.core.secretcodesupplier;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.CodeSpace;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A code supplier that draws codes from a seeded {@link SplittableRandom}, for simulations that need many codes and
+ * reproducible runs.
+ * <p></p>
+ * The same seed always yields the same sequence of codes. {@link #split()} returns a supplier with an independent
+ * stream, which is how work should be spread across threads: instances are not thread-safe. When codes of the
+ * configuration fit in a {@code long} (see {@link Code#isPackable(int, int)}), each code is drawn as a single uniform
+ * {@code long}, and {@link #fill(long[], int, int)} writes many packed codes at once without allocating.
+ */
+public class SeededRandomCodeSupplier implements CodeSupplier {
+    private final int codeLength;
+    private final int numColors;
+    private final long spaceSize; // numColors^codeLength, or -1 if codes cannot be packed
+    private final SplittableRandom random;
+
+    private SeededRandomCodeSupplier(int codeLength, int numColors, SplittableRandom random) {
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.spaceSize = Code.isPackable(codeLength, numColors) ? CodeSpace.of(codeLength, numColors).size() : -1;
+        this.random = random;
+    }
+
+    /**
+     * Creates a new instance of SeededRandomCodeSupplier with the given seed.
+     *
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @param seed       the seed of the random stream
+     * @return a new instance of SeededRandomCodeSupplier
+     * @throws IllegalArgumentException if the code length is less than 1 or the number of colors is less than 2
+     */
+    public static SeededRandomCodeSupplier of(int codeLength, int numColors, long seed) {
+        return of(codeLength, numColors, new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a new instance of SeededRandomCodeSupplier with an unpredictable seed.
+     *
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @return a new instance of SeededRandomCodeSupplier
+     * @throws IllegalArgumentException if the code length is less than 1 or the number of colors is less than 2
+     */
+    public static SeededRandomCodeSupplier of(int codeLength, int numColors) {
+        return of(codeLength, numColors, new SplittableRandom());
+    }
+
+    private static SeededRandomCodeSupplier of(int codeLength, int numColors, SplittableRandom random) {
+        if (codeLength < 1) throw new IllegalArgumentException("Invalid code length");
+        if (numColors <= 1) throw new IllegalArgumentException("Invalid number of colors");
+
+        return new SeededRandomCodeSupplier(codeLength, numColors, random);
+    }
+
+    /**
+     * Returns a new supplier for the same configuration whose stream is independent of this one. Splitting advances
+     * this supplier's stream, so a sequence of splits from the same seed is reproducible too.
+     *
+     * @return a new instance of SeededRandomCodeSupplier
+     */
+    public SeededRandomCodeSupplier split() {
+        return new SeededRandomCodeSupplier(codeLength, numColors, random.split());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> get() {
+        Integer[] colors = new Integer[codeLength];
+        if (spaceSize > 0) {
+            long packed = random.nextLong(spaceSize);
+            for (int i = codeLength - 1; i >= 0; i--) {
+                colors[i] = (int) (packed % numColors);
+                packed /= numColors;
+            }
+        } else {
+            for (int i = 0; i < codeLength; i++) {
+                colors[i] = random.nextInt(numColors);
+            }
+        }
+
+        return List.of(colors);
+    }
+
+    /**
+     * Returns the next code as a Code object, skipping the intermediate list. The code is the one {@link #get()} would
+     * have returned.
+     *
+     * @return the next code
+     */
+    public Code nextCode() {
+        if (spaceSize > 0) return Code.fromPacked(random.nextLong(spaceSize), codeLength, numColors);
+
+        int[] colors = new int[codeLength];
+        for (int i = 0; i < codeLength; i++) {
+            colors[i] = random.nextInt(numColors);
+        }
+
+        return Code.from(colors, codeLength, numColors);
+    }
+
+    /**
+     * Writes the next {@code to - from} codes, in packed form (see {@link Code#packed()}), into a range of an array.
+     * The codes are the ones {@link #get()} would have returned.
+     *
+     * @param destination the array receiving the codes
+     * @param from        the index of the first code to write, inclusive
+     * @param to          the index of the last code to write, exclusive
+     * @throws IllegalStateException     if codes of this configuration cannot be packed
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void fill(long[] destination, int from, int to) {
+        if (spaceSize < 0) throw new IllegalStateException("Codes of this configuration cannot be packed");
+        Objects.checkFromToIndex(from, to, destination.length);
+
+        for (int i = from; i < to; i++) {
+            destination[i] = random.nextLong(spaceSize);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandidateSetTests {
+    /**
+     * Returns the codes consistent with a history by scoring every code of the configuration.
+     */
+    private static List<Code> consistentCodes(int codeLength, int numColors, FeedbackStrategy strategy,
+                                              List<Code> guesses, List<Feedback> feedbacks) {
+        List<Code> codes = new ArrayList<>();
+        long spaceSize = Code.packedSpaceSize(codeLength, numColors);
+        for (long packed = 0; packed < spaceSize; packed++) {
+            Code code = Code.fromPacked(packed, codeLength, numColors);
+            boolean consistent = true;
+            for (int i = 0; i < guesses.size() && consistent; i++) {
+                consistent = strategy.get(code, guesses.get(i)).equals(feedbacks.get(i));
+            }
+            if (consistent) codes.add(code);
+        }
+
+        return codes;
+    }
+
+    @Nested
+    class CandidateSetNarrowingTests {
+        @Test
+        void startsWithEveryCode() {
+            CandidateSet candidates = CandidateSet.of(3, 5);
+
+            assertEquals(125, candidates.size());
+            assertEquals(125, candidates.stream().count());
+            assertEquals(Code.fromPacked(0, 3, 5), candidates.iterator().next());
+            assertTrue(candidates.contains(Code.fromPacked(124, 3, 5)));
+            assertFalse(candidates.contains(Code.fromPacked(0, 3, 6)));
+        }
+
+        @DisplayName("Narrowing keeps exactly the codes consistent with the history, for every strategy.")
+        @Test
+        void narrowingMatchesBruteForce() {
+            Random random = new Random(18);
+            List<FeedbackStrategy> strategies = new ArrayList<>(List.of(FeedbackStrategyImpl.values()));
+            strategies.add((secretCode, guess) -> FeedbackStrategyImpl.DEFAULT.get(secretCode, guess)); // no ordinals
+            for (FeedbackStrategy strategy : strategies) {
+                for (CandidateSet.Storage storage : CandidateSet.Storage.values()) {
+                    assertNarrowsLikeBruteForce(strategy, CandidateSet.of(4, 7, storage), random);
+                }
+            }
+        }
+
+        private void assertNarrowsLikeBruteForce(FeedbackStrategy strategy, CandidateSet candidates, Random random) {
+            try (candidates) {
+                Code secret = Code.fromPacked(random.nextInt(2401), 4, 7);
+                List<Code> guesses = new ArrayList<>();
+                List<Feedback> feedbacks = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    Code guess = Code.fromPacked(random.nextInt(2401), 4, 7);
+                    Feedback feedback = strategy.get(secret, guess);
+                    guesses.add(guess);
+                    feedbacks.add(feedback);
+
+                    long size = candidates.retain(guess, feedback, strategy);
+
+                    List<Code> expected = consistentCodes(4, 7, strategy, guesses, feedbacks);
+                    assertEquals(expected.size(), size);
+                    assertEquals(expected, candidates.stream().toList());
+                    assertTrue(candidates.contains(secret));
+                }
+            }
+        }
+
+        @DisplayName("Off-heap sets spanning several words behave like on-heap sets.")
+        @Test
+        void offHeapMatchesHeap() {
+            Code guess = Code.from(List.of(0, 1, 2, 3, 4, 5), 6, 7);
+            Feedback feedback = FeedbackStrategyImpl.DEFAULT.get(Code.from(List.of(6, 5, 4, 3, 2, 1), 6, 7), guess);
+            try (CandidateSet offHeap = CandidateSet.offHeap(6, 7)) {
+                CandidateSet heap = CandidateSet.of(6, 7);
+
+                assertEquals(heap.size(), offHeap.size());
+                assertEquals(heap.retain(guess, feedback, FeedbackStrategyImpl.DEFAULT),
+                        offHeap.retain(guess, feedback, FeedbackStrategyImpl.DEFAULT));
+                assertEquals(heap.stream().toList(), offHeap.stream().toList());
+            }
+        }
+
+        @Test
+        void closedOffHeapSetCannotBeUsed() {
+            CandidateSet candidates = CandidateSet.offHeap(4, 6);
+            candidates.close();
+
+            assertThrows(IllegalStateException.class, () -> candidates.contains(Code.from(List.of(1, 2, 3, 4), 4, 6)));
+            assertThrows(IllegalStateException.class, () -> candidates.iterator().hasNext());
+        }
+
+        @Test
+        void forEachPackedVisitsCandidatesInOrder() {
+            CandidateSet candidates = CandidateSet.of(2, 9);
+            Code guess = Code.from(List.of(3, 3), 2, 9);
+            candidates.retain(guess, FeedbackStrategyImpl.PERFECT.get(guess, guess), FeedbackStrategyImpl.PERFECT);
+
+            List<Long> packed = new ArrayList<>();
+            candidates.forEachPacked(packed::add);
+
+            assertEquals(List.of(guess.packed()), packed);
+        }
+
+        @Test
+        void invalidParams() {
+            CandidateSet candidates = CandidateSet.of(4, 6);
+            Code guess = Code.from(List.of(1, 2, 3, 4), 4, 6);
+            Feedback feedback = FeedbackStrategyImpl.DEFAULT.get(guess, guess);
+
+            assertThrows(IllegalArgumentException.class, () -> CandidateSet.of(40, 10));
+            assertThrows(IllegalArgumentException.class, () -> CandidateSet.of(12, 10));
+            assertThrows(IllegalArgumentException.class, () -> CandidateSet.offHeap(12, 10));
+            assertThrows(IllegalArgumentException.class, () -> CandidateSet.of(4, 6, null));
+            assertThrows(IllegalArgumentException.class, () -> candidates.retain(null, feedback, FeedbackStrategyImpl.DEFAULT));
+            assertThrows(IllegalArgumentException.class, () -> candidates.retain(Code.from(List.of(1, 2, 3, 4), 4, 8), feedback, FeedbackStrategyImpl.DEFAULT));
+            assertThrows(IllegalArgumentException.class, () -> candidates.retain(guess, null, FeedbackStrategyImpl.DEFAULT));
+            assertThrows(IllegalArgumentException.class, () -> candidates.retain(guess, feedback, null));
+        }
+    }
+
+    @Nested
+    class GameCandidateTrackingTests {
+        private Game newGame(boolean trackCandidates) throws IOException {
+            return new Game.Builder()
+                    .codeLength(4)
+                    .numColors(6)
+                    .feedbackStrategy(FeedbackStrategyImpl.ORIGINAL_MASTERMIND)
+                    .codeSupplier(UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4)))
+                    .trackCandidates(trackCandidates)
+                    .build();
+        }
+
+        @Test
+        void candidatesNarrowWithEachGuess() throws IOException {
+            Game game = newGame(true);
+            assertTrue(game.isTrackingCandidates());
+            assertEquals(1296, game.remainingCandidateCount());
+
+            game.processGuess(List.of(0, 0, 1, 1));
+            game.processGuess(List.of(2, 3, 4, 5));
+
+            List<Code> expected = consistentCodes(4, 6, FeedbackStrategyImpl.ORIGINAL_MASTERMIND,
+                    game.guessHistory(), game.feedbackHistory());
+            assertEquals(expected.size(), game.remainingCandidateCount());
+            assertEquals(expected, game.candidates().toList());
+            assertTrue(expected.contains(Code.from(List.of(1, 2, 3, 4), 4, 6)));
+        }
+
+        @Test
+        void onlyTheSecretRemainsOnceWon() throws IOException {
+            Game game = newGame(true);
+            game.processGuess(List.of(1, 2, 3, 4));
+
+            assertEquals(1, game.remainingCandidateCount());
+            assertEquals(List.of(Code.from(List.of(1, 2, 3, 4), 4, 6)), game.candidates().toList());
+        }
+
+        @Test
+        void offHeapTrackingMatchesHeapTracking() throws IOException {
+            Game.Builder builder = new Game.Builder()
+                    .codeSupplier(UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4)))
+                    .trackCandidates(CandidateSet.Storage.OFF_HEAP);
+            Game offHeap = builder.build();
+            Game heap = builder.trackCandidates(true).build();
+            for (Game game : List.of(offHeap, heap)) {
+                game.processGuess(List.of(0, 1, 2, 3));
+                game.processGuess(List.of(4, 4, 5, 5));
+            }
+
+            assertEquals(heap.remainingCandidateCount(), offHeap.remainingCandidateCount());
+            assertEquals(heap.candidates().toList(), offHeap.candidates().toList());
+            assertThrows(IllegalArgumentException.class, () -> builder.trackCandidates(null));
+        }
+
+        @Test
+        void trackingIsOffByDefault() throws IOException {
+            Game game = newGame(false);
+
+            assertFalse(game.isTrackingCandidates());
+            assertThrows(IllegalStateException.class, game::remainingCandidateCount);
+            assertThrows(IllegalStateException.class, game::candidates);
+        }
+
+        @Test
+        void asyncBuildKeepsTracking() throws Exception {
+            Game game = new Game.Builder()
+                    .codeSupplier(UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4)))
+                    .trackCandidates(true)
+                    .buildAsync()
+                    .get();
+
+            assertTrue(game.isTrackingCandidates());
+            assertEquals(4096, game.remainingCandidateCount());
+        }
+
+        @Test
+        void untrackableConfigurationFailsToBuild() {
+            Game.Builder builder = new Game.Builder()
+                    .codeLength(12)
+                    .numColors(10)
+                    .codeSupplier(UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 0, 1, 2)))
+                    .trackCandidates(true);
+
+            assertThrows(IllegalArgumentException.class, builder::build);
+        }
+    }
+}
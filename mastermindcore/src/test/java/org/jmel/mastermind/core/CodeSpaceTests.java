@@ -0,0 +1,126 @@
+package org.jmel.mastermind.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeSpaceTests {
+    @Nested
+    class RankTests {
+        @Test
+        void ranksAreDenseAndOrdered() {
+            CodeSpace space = CodeSpace.of(3, 4);
+            List<Code> codes = space.stream().toList();
+
+            assertEquals(64, space.size());
+            assertEquals(64, codes.size());
+            for (int i = 0; i < codes.size(); i++) {
+                assertEquals(i, space.rank(codes.get(i)));
+                assertEquals(codes.get(i), space.unrank(i));
+            }
+            assertEquals(List.of(0, 0, 0), codes.get(0).value());
+            assertEquals(List.of(0, 1, 2), codes.get(6).value());
+            assertEquals(List.of(3, 3, 3), codes.get(63).value());
+        }
+
+        @DisplayName("Spaces too large to materialize can still be ranked and unranked.")
+        @Test
+        void largeSpace() {
+            CodeSpace space = CodeSpace.of(10, 10);
+            Code code = Code.from(List.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 0), 10, 10);
+
+            assertEquals(10_000_000_000L, space.size());
+            assertEquals(9_876_543_210L, space.rank(code));
+            assertEquals(code, space.unrank(9_876_543_210L));
+            assertEquals(List.of(9, 9, 9, 9, 9, 9, 9, 9, 9, 9), space.stream(space.size() - 1, space.size()).findFirst().orElseThrow().value());
+        }
+
+        @Test
+        void containsOnlyCodesOfTheConfiguration() {
+            CodeSpace space = CodeSpace.of(4, 6);
+
+            assertTrue(space.contains(Code.from(List.of(5, 5, 5, 5), 4, 6)));
+            assertFalse(space.contains(Code.from(List.of(5, 5, 5, 5), 4, 8)));
+            assertFalse(space.contains(Code.from(List.of(5, 5, 5), 3, 6)));
+            assertFalse(space.contains(null));
+            assertEquals(CodeSpace.of(4, 6), space);
+            assertNotEquals(CodeSpace.of(4, 7), space);
+        }
+
+        @Test
+        void invalidParams() {
+            CodeSpace space = CodeSpace.of(4, 6);
+
+            assertThrows(IllegalArgumentException.class, () -> CodeSpace.of(0, 6));
+            assertThrows(IllegalArgumentException.class, () -> CodeSpace.of(4, 1));
+            assertThrows(IllegalArgumentException.class, () -> CodeSpace.of(40, 10));
+            assertThrows(IllegalArgumentException.class, () -> space.rank(Code.from(List.of(1, 2, 3), 3, 6)));
+            assertThrows(IllegalArgumentException.class, () -> space.unrank(-1));
+            assertThrows(IllegalArgumentException.class, () -> space.unrank(1296));
+            assertThrows(IndexOutOfBoundsException.class, () -> space.stream(10, 1297));
+        }
+    }
+
+    @Nested
+    class SpliteratorTests {
+        @Test
+        void splitsEvenly() {
+            Spliterator<Code> suffix = CodeSpace.of(10, 10).spliterator();
+            Spliterator<Code> prefix = suffix.trySplit();
+
+            assertEquals(5_000_000_000L, prefix.estimateSize());
+            assertEquals(5_000_000_000L, suffix.estimateSize());
+            assertTrue(suffix.hasCharacteristics(Spliterator.SUBSIZED));
+        }
+
+        @Test
+        void splitsCoverTheSpaceOnce() {
+            List<Spliterator<Code>> parts = new ArrayList<>(List.of(CodeSpace.of(5, 3).spliterator()));
+            for (int round = 0; round < 4; round++) {
+                List<Spliterator<Code>> next = new ArrayList<>();
+                for (Spliterator<Code> part : parts) {
+                    Spliterator<Code> prefix = part.trySplit();
+                    if (prefix != null) next.add(prefix);
+                    next.add(part);
+                }
+                parts = next;
+            }
+
+            List<Code> codes = new ArrayList<>();
+            for (Spliterator<Code> part : parts) {
+                part.forEachRemaining(codes::add);
+            }
+
+            assertEquals(CodeSpace.of(5, 3).stream().toList(), codes);
+        }
+
+        @Test
+        void parallelStreamVisitsEveryCode() {
+            CodeSpace space = CodeSpace.of(6, 6);
+
+            assertEquals(space.size(), space.parallelStream().distinct().count());
+            assertEquals(space.size(), new HashSet<>(space.parallelStream().toList()).size());
+            assertEquals(space.stream().toList(), space.parallelStream().toList());
+        }
+
+        @Test
+        void iteratorIsLazy() {
+            int count = 0;
+            for (Code code : CodeSpace.of(12, 12)) {
+                if (++count == 3) {
+                    assertEquals(List.of(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2), code.value());
+                    break;
+                }
+            }
+
+            assertEquals(3, count);
+        }
+    }
+}
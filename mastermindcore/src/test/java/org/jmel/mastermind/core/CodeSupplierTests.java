@@ -0,0 +1,554 @@
+package org.jmel.mastermind.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jmel.mastermind.core.secretcodesupplier.ApiCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.BufferedCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.MappedCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.SeededRandomCodeSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeSupplierTests {
+    private StubRandomOrg stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubRandomOrg();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    private static void assertValidCode(List<Integer> code, int codeLength, int numColors) {
+        assertEquals(codeLength, code.size());
+        assertTrue(code.stream().allMatch(color -> color >= 0 && color < numColors));
+    }
+
+    @Nested
+    public class ApiCodeSupplierTests {
+        @Test
+        void getReturnsCodeFromApi() throws IOException {
+            List<Integer> code = ApiCodeSupplier.of(4, 8, stub.uri()).get();
+
+            assertValidCode(code, 4, 8);
+            assertEquals(1, stub.integerRequests.get());
+        }
+
+        @Test
+        void getManyFetchesAllCodesInOneRequest() throws IOException {
+            List<List<Integer>> codes = ApiCodeSupplier.of(4, 8, stub.uri()).getMany(100);
+
+            assertEquals(100, codes.size());
+            codes.forEach(code -> assertValidCode(code, 4, 8));
+            assertEquals(1, stub.integerRequests.get());
+        }
+
+        @Test
+        void getManySplitsRequestsAtApiLimit() throws IOException {
+            List<List<Integer>> codes = ApiCodeSupplier.of(10, 6, stub.uri()).getMany(1_500);
+
+            assertEquals(1_500, codes.size());
+            assertEquals(2, stub.integerRequests.get());
+        }
+
+        @Test
+        void quotaIsTrackedLocally() throws IOException {
+            ApiCodeSupplier supplier = ApiCodeSupplier.of(4, 8, stub.uri());
+            for (int i = 0; i < 10; i++) {
+                supplier.get();
+            }
+
+            assertAll(
+                    () -> assertEquals(10, stub.integerRequests.get()),
+                    () -> assertEquals(1, stub.quotaRequests.get())
+            );
+        }
+
+        @Test
+        void lowQuotaEstimateIsRefreshed() throws IOException {
+            stub.quota = 150; // a 4 x 8 code costs 12 bits and needs 120 bits of quota
+            ApiCodeSupplier supplier = ApiCodeSupplier.of(4, 8, stub.uri());
+            for (int i = 0; i < 3; i++) {
+                supplier.get();
+            }
+
+            assertThrows(IOException.class, supplier::get);
+            assertAll(
+                    () -> assertEquals(3, stub.integerRequests.get()),
+                    () -> assertEquals(2, stub.quotaRequests.get())
+            );
+        }
+
+        @Test
+        void concurrentSuppliersShareOneQuotaRequest() throws Exception {
+            stub.quotaDelay = Duration.ofMillis(200);
+            ApiCodeSupplier supplier = ApiCodeSupplier.of(4, 8, stub.uri());
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<List<Integer>>> codes = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    codes.add(executor.submit(supplier::get));
+                }
+                for (Future<List<Integer>> code : codes) {
+                    assertValidCode(code.get(), 4, 8);
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(1, stub.quotaRequests.get());
+        }
+
+        @Test
+        void exceededQuotaFails() {
+            stub.quota = 0;
+
+            assertThrows(IOException.class, () -> ApiCodeSupplier.of(4, 8, stub.uri()).get());
+            assertEquals(0, stub.integerRequests.get());
+        }
+
+        @Test
+        void truncatedResponseFails() {
+            stub.integersDropped = 1;
+
+            assertThrows(IOException.class, () -> ApiCodeSupplier.of(4, 8, stub.uri()).getMany(3));
+        }
+
+        @Test
+        void invalidParametersFail() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> ApiCodeSupplier.of(0, 8, stub.uri())),
+                    () -> assertThrows(IllegalArgumentException.class, () -> ApiCodeSupplier.of(4, 1, stub.uri())),
+                    () -> assertThrows(IllegalArgumentException.class, () -> ApiCodeSupplier.of(4, 8, null)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> ApiCodeSupplier.of(4, 8, stub.uri()).getMany(-1))
+            );
+        }
+    }
+
+    @Nested
+    public class BufferedCodeSupplierTests {
+        @Test
+        void servesCodesWithFewRequests() throws IOException {
+            try (BufferedCodeSupplier supplier = BufferedCodeSupplier.of(ApiCodeSupplier.of(4, 8, stub.uri()), 20)) {
+                for (int i = 0; i < 100; i++) {
+                    assertValidCode(supplier.get(), 4, 8);
+                }
+            }
+
+            assertTrue(stub.integerRequests.get() <= 100 / 10 + 1, "one request per half buffer at most");
+        }
+
+        @Test
+        void fillsInBackground() throws InterruptedException {
+            try (BufferedCodeSupplier supplier = BufferedCodeSupplier.of(ApiCodeSupplier.of(4, 8, stub.uri()), 50)) {
+                for (int i = 0; i < 200 && supplier.available() < 50; i++) {
+                    Thread.sleep(10);
+                }
+
+                assertEquals(50, supplier.available());
+            }
+        }
+
+        @Test
+        void buildsGames() throws IOException {
+            try (BufferedCodeSupplier supplier = BufferedCodeSupplier.of(ApiCodeSupplier.of(4, 8, stub.uri()), 8)) {
+                Game game = new Game.Builder().codeSupplier(supplier).build();
+
+                assertEquals(0, game.movesCompleted());
+            }
+        }
+
+        @Test
+        void sourceFailureIsReported() {
+            CodeSupplier failing = () -> {
+                throw new IOException("unavailable");
+            };
+
+            try (BufferedCodeSupplier supplier = BufferedCodeSupplier.of(failing, 4)) {
+                IOException e = assertThrows(IOException.class, supplier::get);
+
+                assertEquals("unavailable", e.getCause().getMessage());
+            }
+        }
+
+        @Test
+        void recoversAfterSourceFailure() throws IOException {
+            AtomicInteger calls = new AtomicInteger();
+            CodeSupplier flaky = () -> {
+                if (calls.getAndIncrement() == 0) throw new IOException("unavailable");
+
+                return List.of(1, 2, 3, 4);
+            };
+
+            try (BufferedCodeSupplier supplier = BufferedCodeSupplier.of(flaky, 4)) {
+                List<Integer> code = null;
+                for (int i = 0; i < 3 && code == null; i++) {
+                    try {
+                        code = supplier.get();
+                    } catch (IOException e) {
+                        // the first refill fails, the next one is started by the following get()
+                    }
+                }
+
+                assertEquals(List.of(1, 2, 3, 4), code);
+            }
+        }
+
+        @Test
+        void closedSupplierFailsWhenEmpty() throws IOException {
+            BufferedCodeSupplier supplier = BufferedCodeSupplier.of(() -> List.of(0, 0, 0, 0), 1);
+            supplier.get();
+            supplier.close();
+
+            // The refill started by get() may or may not have completed before close()
+            if (supplier.available() == 1) supplier.get();
+            assertThrows(IOException.class, supplier::get);
+        }
+
+        @Test
+        void invalidParametersFail() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> BufferedCodeSupplier.of(null, 4)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> BufferedCodeSupplier.of(() -> List.of(0), 0))
+            );
+        }
+    }
+
+    @Nested
+    public class SeededRandomCodeSupplierTests {
+        @Test
+        void sameSeedGivesSameCodes() {
+            SeededRandomCodeSupplier first = SeededRandomCodeSupplier.of(4, 8, 42);
+            SeededRandomCodeSupplier second = SeededRandomCodeSupplier.of(4, 8, 42);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(first.get(), second.get());
+            }
+        }
+
+        @Test
+        void splitsAreIndependentAndReproducible() {
+            SeededRandomCodeSupplier parent = SeededRandomCodeSupplier.of(6, 10, 7);
+            SeededRandomCodeSupplier child = parent.split();
+            SeededRandomCodeSupplier sameChild = SeededRandomCodeSupplier.of(6, 10, 7).split();
+
+            List<List<Integer>> parentCodes = IntStream.range(0, 20).mapToObj(i -> parent.get()).toList();
+            List<List<Integer>> childCodes = IntStream.range(0, 20).mapToObj(i -> child.get()).toList();
+
+            assertNotEquals(parentCodes, childCodes);
+            assertEquals(childCodes, IntStream.range(0, 20).mapToObj(i -> sameChild.get()).toList());
+        }
+
+        @Test
+        void allRepresentationsAgree() {
+            long[] packed = new long[50];
+            SeededRandomCodeSupplier.of(5, 7, 3).fill(packed, 0, packed.length);
+            SeededRandomCodeSupplier lists = SeededRandomCodeSupplier.of(5, 7, 3);
+            SeededRandomCodeSupplier codes = SeededRandomCodeSupplier.of(5, 7, 3);
+
+            for (long p : packed) {
+                Code expected = Code.fromPacked(p, 5, 7);
+                assertEquals(expected.value(), lists.get());
+                assertEquals(expected, codes.nextCode());
+            }
+        }
+
+        @Test
+        void unpackableCodesAreSupplied() {
+            SeededRandomCodeSupplier supplier = SeededRandomCodeSupplier.of(40, 6, 1);
+
+            assertValidCode(supplier.get(), 40, 6);
+            assertFalse(supplier.nextCode().isPacked());
+            assertThrows(IllegalStateException.class, () -> supplier.fill(new long[1], 0, 1));
+        }
+
+        @Test
+        void everyCodeCanBeDrawn() {
+            SeededRandomCodeSupplier supplier = SeededRandomCodeSupplier.of(2, 4, 9);
+            long[] packed = new long[1_000];
+            supplier.fill(packed, 0, packed.length);
+
+            assertEquals(16, Arrays.stream(packed).distinct().count());
+            assertTrue(Arrays.stream(packed).allMatch(p -> p >= 0 && p < 16));
+        }
+
+        @Test
+        void invalidParametersFail() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> SeededRandomCodeSupplier.of(0, 8, 1)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> SeededRandomCodeSupplier.of(4, 1)),
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> SeededRandomCodeSupplier.of(4, 8).fill(new long[2], 1, 3))
+            );
+        }
+    }
+
+    @Nested
+    public class MappedCodeSupplierTests {
+        @TempDir
+        Path directory;
+
+        /**
+         * Supplies every code of the configuration in lexicographic order, so pool codes are all distinct.
+         */
+        private static CodeSupplier enumerating(int codeLength, int numColors) {
+            AtomicLong next = new AtomicLong();
+
+            return () -> Code.fromPacked(next.getAndIncrement(), codeLength, numColors).value();
+        }
+
+        @Test
+        void servesCodesInPoolOrder() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 5, 7, 1_000, SeededRandomCodeSupplier.of(5, 7, 5));
+            SeededRandomCodeSupplier expected = SeededRandomCodeSupplier.of(5, 7, 5);
+
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file)) {
+                assertEquals(5, supplier.codeLength());
+                assertEquals(7, supplier.numColors());
+                for (int i = 0; i < 500; i++) {
+                    assertEquals(expected.get(), supplier.get());
+                }
+                assertEquals(IntStream.range(0, 500).mapToObj(i -> expected.get()).toList(), supplier.getMany(500));
+                assertEquals(0, supplier.remaining());
+            }
+        }
+
+        @Test
+        void storesCodesCompactly() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 8, 1_000, enumerating(4, 8));
+
+            assertEquals(64 + 1_000 * 2, Files.size(file));
+        }
+
+        @Test
+        void resumesAfterReopening() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 6, 100, enumerating(4, 6));
+
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file)) {
+                supplier.getMany(10);
+            }
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file)) {
+                assertEquals(90, supplier.remaining());
+                assertEquals(Code.fromPacked(10, 4, 6).value(), supplier.get());
+            }
+        }
+
+        @Test
+        void consumedPositionIsRecordedBeforeCodesAreHandedOut() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 6, 100, enumerating(4, 6));
+
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file);
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                supplier.get();
+                ByteBuffer cursor = ByteBuffer.allocate(Long.BYTES);
+                channel.read(cursor, 24);
+
+                assertTrue(cursor.flip().getLong() >= 1);
+            }
+        }
+
+        @Test
+        void concurrentBuildersGetDistinctCodes() throws Exception {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 10, 10_000, enumerating(4, 10));
+
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file)) {
+                Set<List<Integer>> seen = ConcurrentHashMap.newKeySet();
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    threads.add(Thread.ofPlatform().start(() -> {
+                        for (int i = 0; i < 1_250; i++) {
+                            try {
+                                assertTrue(seen.add(supplier.get()));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    }));
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+
+                assertEquals(10_000, seen.size());
+                assertThrows(IOException.class, supplier::get);
+            }
+        }
+
+        @DisplayName("A code handed out while the supplier is closing is recorded as consumed.")
+        @Test
+        void codesTakenDuringCloseAreNotReused() throws Exception {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 10, 10_000, enumerating(4, 10));
+
+            for (int round = 0; round < 20; round++) {
+                Set<List<Integer>> handedOut = ConcurrentHashMap.newKeySet();
+                MappedCodeSupplier supplier = MappedCodeSupplier.of(file);
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    threads.add(Thread.ofPlatform().start(() -> {
+                        try {
+                            while (true) {
+                                handedOut.add(supplier.get());
+                            }
+                        } catch (IllegalStateException | IOException e) {
+                            // closed or exhausted
+                        }
+                    }));
+                }
+                Thread.sleep(1);
+                supplier.close();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+
+                try (MappedCodeSupplier reopened = MappedCodeSupplier.of(file)) {
+                    if (reopened.remaining() == 0) break;
+                    List<Integer> next = reopened.get();
+                    assertFalse(handedOut.contains(next), "%s was handed out again".formatted(next));
+                }
+            }
+        }
+
+        @Test
+        void exhaustedPoolKeepsRemainingCodes() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 6, 3, enumerating(4, 6));
+
+            try (MappedCodeSupplier supplier = MappedCodeSupplier.of(file)) {
+                assertThrows(IOException.class, () -> supplier.getMany(4));
+                assertEquals(3, supplier.getMany(3).size());
+            }
+        }
+
+        @Test
+        void openPoolIsLocked() throws IOException {
+            Path file = directory.resolve("pool.bin");
+            MappedCodeSupplier.write(file, 4, 6, 3, enumerating(4, 6));
+
+            try (MappedCodeSupplier ignored = MappedCodeSupplier.of(file)) {
+                assertThrows(IOException.class, () -> MappedCodeSupplier.of(file));
+            }
+        }
+
+        @Test
+        void invalidFilesFail() throws IOException {
+            Path file = directory.resolve("not-a-pool.bin");
+            Files.write(file, new byte[100]);
+
+            assertAll(
+                    () -> assertThrows(IOException.class, () -> MappedCodeSupplier.of(file)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> MappedCodeSupplier.write(file, 40, 6, 1, enumerating(4, 6))),
+                    () -> assertThrows(IllegalArgumentException.class, () -> MappedCodeSupplier.write(file, 4, 6, 1, () -> List.of(9, 9, 9, 9)))
+            );
+        }
+    }
+
+    /**
+     * A local server answering the random.org quota and integers endpoints.
+     */
+    private static final class StubRandomOrg implements AutoCloseable {
+        private final HttpServer server;
+        private final Random random = new Random(3);
+        private final AtomicInteger integerRequests = new AtomicInteger();
+        private final AtomicInteger quotaRequests = new AtomicInteger();
+        private volatile long quota = 1_000_000;
+        private volatile int integersDropped = 0;
+        private volatile Duration quotaDelay = Duration.ZERO;
+
+        private StubRandomOrg() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/quota/", exchange -> {
+                quotaRequests.incrementAndGet();
+                try {
+                    Thread.sleep(quotaDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, quota + "\n");
+            });
+            server.createContext("/integers/", exchange -> {
+                integerRequests.incrementAndGet();
+                respond(exchange, integers(exchange.getRequestURI().getQuery()));
+            });
+            server.start();
+        }
+
+        private URI uri() {
+            return URI.create("http://localhost:%d/".formatted(server.getAddress().getPort()));
+        }
+
+        private String integers(String query) {
+            List<String> parameters = new ArrayList<>(List.of(query.split("&")));
+            int num = Integer.parseInt(parameter(parameters, "num"));
+            int min = Integer.parseInt(parameter(parameters, "min"));
+            int max = Integer.parseInt(parameter(parameters, "max"));
+            quota -= (long) num * (Integer.SIZE - Integer.numberOfLeadingZeros(max - min));
+            synchronized (random) {
+                return IntStream.range(0, num - integersDropped)
+                        .mapToObj(i -> String.valueOf(random.nextInt(min, max + 1)))
+                        .collect(Collectors.joining("\n", "", "\n"));
+            }
+        }
+
+        private static String parameter(List<String> parameters, String name) {
+            return parameters.stream()
+                    .filter(p -> p.startsWith(name + "="))
+                    .map(p -> p.substring(name.length() + 1))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        private static void respond(HttpExchange exchange, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+}
@@ -12,9 +12,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class CodeTests {
     @Nested
@@ -90,6 +90,77 @@ public class CodeTests {
         }
     }
 
+    @Nested
+    public class PackedRepresentationTests {
+        @Test
+        void standardCodeIsPacked() {
+            Code code = Code.from(List.of(1, 2, 3, 4), 4, 8);
+
+            assertAll(
+                    () -> assertTrue(code.isPacked()),
+                    () -> assertEquals(((1 * 8 + 2) * 8 + 3) * 8 + 4, code.packed()),
+                    () -> assertEquals(List.of(1, 2, 3, 4), code.value())
+            );
+        }
+
+        @Test
+        void packedCodeRoundTrips() {
+            Code code = Code.from(List.of(7, 0, 5, 2), 4, 8);
+            Code unpacked = Code.fromPacked(code.packed(), 4, 8);
+
+            assertAll(
+                    () -> assertEquals(code, unpacked),
+                    () -> assertEquals(code.hashCode(), unpacked.hashCode()),
+                    () -> assertEquals(List.of(7, 0, 5, 2), unpacked.value())
+            );
+        }
+
+        @Test
+        void tooLargeCodeFallsBackToArray() {
+            List<Integer> value = Collections.nCopies(64, 9);
+            Code code = Code.from(value, 64, 10);
+
+            assertAll(
+                    () -> assertFalse(code.isPacked()),
+                    () -> assertThrows(IllegalStateException.class, code::packed),
+                    () -> assertEquals(9, code.colorAt(63)),
+                    () -> assertEquals(value, code.value())
+            );
+        }
+
+        @Test
+        void primitiveAccessorsMatchValue() {
+            Code code = Code.from(new int[]{3, 1, 4, 1, 5}, 5, 6);
+            int[] colors = new int[5];
+            code.copyColorsTo(colors);
+
+            for (int i = 0; i < code.length(); i++) {
+                assertEquals(code.value().get(i), code.colorAt(i));
+                assertEquals(code.value().get(i), colors[i]);
+            }
+        }
+
+        @Test
+        void hashCodeMatchesListHash() {
+            List<Integer> value = List.of(0, 6, 2, 7);
+
+            assertEquals(Objects.hash(value), Code.from(value, 4, 8).hashCode());
+        }
+
+        @Test
+        void codesWithSameColorsAreEqualRegardlessOfNumColors() {
+            assertEquals(Code.from(List.of(1, 2, 3, 4), 4, 8), Code.from(List.of(1, 2, 3, 4), 4, 9));
+        }
+
+        @Test
+        void packedValueOutOfRangeFails() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> Code.fromPacked(-1, 4, 8)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> Code.fromPacked(4096, 4, 8))
+            );
+        }
+    }
+
     @Nested
     public class CodeSupplierTests {
         @DisplayName("User defined code supplier successfully generates a Code object.")
@@ -0,0 +1,86 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedbackTableTests {
+    @Test
+    void tableMatchesStrategyForAllPairs() {
+        for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+            FeedbackTable table = FeedbackTable.build(strategy, 3, 4);
+
+            for (int s = 0; s < table.numCodes(); s++) {
+                for (int g = 0; g < table.numCodes(); g++) {
+                    Code secret = Code.fromPacked(s, 3, 4);
+                    Code guess = Code.fromPacked(g, 3, 4);
+                    assertEquals(strategy.get(secret, guess), table.get(secret, guess));
+                }
+            }
+        }
+    }
+
+    @Test
+    void tableWithManyOutcomesUsesWideCells() {
+        FeedbackTable table = FeedbackTable.build(FeedbackStrategyImpl.HIGHER_LOWER, 6, 3);
+        Code secret = Code.from(List.of(0, 1, 2, 0, 1, 2), 6, 3);
+        Code guess = Code.from(List.of(2, 1, 0, 2, 1, 0), 6, 3);
+
+        assertAll(
+                () -> assertTrue(table.outcomeCount() > 256),
+                () -> assertEquals(FeedbackStrategyImpl.HIGHER_LOWER.get(secret, guess), table.get(secret, guess))
+        );
+    }
+
+    @Test
+    void codesOutsideTheTableUseTheStrategy() {
+        FeedbackTable table = FeedbackTable.build(FeedbackStrategyImpl.DEFAULT, 2, 4);
+        Code secret = Code.from(List.of(1, 2, 3, 4), 4, 8);
+        Code guess = Code.from(List.of(4, 3, 2, 1), 4, 8);
+
+        assertEquals(FeedbackStrategyImpl.DEFAULT.get(secret, guess), table.get(secret, guess));
+    }
+
+    @Test
+    void tableOverMemoryLimitFails() {
+        assertThrows(IllegalArgumentException.class, () -> FeedbackTable.build(FeedbackStrategyImpl.DEFAULT, 4, 8, 1024));
+    }
+
+    @Test
+    void registeredTableIsUsedByGame() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        FeedbackStrategy countingStrategy = (secretCode, guess) -> {
+            calls.incrementAndGet();
+            return FeedbackStrategyImpl.DEFAULT.get(secretCode, guess);
+        };
+        FeedbackTable table = FeedbackTable.build(countingStrategy, 3, 4);
+        calls.set(0);
+
+        FeedbackTable.register(table);
+        try {
+            Game game = new Game.Builder()
+                    .codeLength(3)
+                    .numColors(4)
+                    .feedbackStrategy(countingStrategy)
+                    .codeSupplier(UserDefinedCodeSupplier.of(List.of(1, 2, 3)))
+                    .build();
+            Feedback feedback = game.processGuess(List.of(3, 2, 1));
+
+            assertAll(
+                    () -> assertEquals(FeedbackStrategyImpl.DEFAULT.get(Code.from(List.of(1, 2, 3), 3, 4), Code.from(List.of(3, 2, 1), 3, 4)), feedback),
+                    () -> assertEquals(0, calls.get())
+            );
+        } finally {
+            FeedbackTable.unregister(countingStrategy, 3, 4);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package org.jmel.mastermind.core;
 
 import org.jmel.mastermind.core.feedbackstrategy.*;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class FeedbackTests {
     @Nested
@@ -165,4 +173,328 @@ public class FeedbackTests {
             );
         }
     }
+
+    @Nested
+    public class MatchCountingTests {
+        private final Random random = new Random(42);
+
+        @Test
+        void packedScoringMatchesReference() {
+            assertMatchesReference(4, 8, 5_000);
+        }
+
+        @Test
+        void arrayScoringMatchesReference() {
+            assertMatchesReference(40, 6, 2_000);
+        }
+
+        @Test
+        void longCodeScoringMatchesReference() {
+            assertAll(
+                    () -> assertMatchesReference(16, 16, 1_000),
+                    () -> assertMatchesReference(19, 32, 1_000),
+                    () -> assertMatchesReference(64, 2, 1_000),
+                    () -> assertMatchesReference(64, 33, 1_000)
+            );
+        }
+
+        @DisplayName("The build runs these tests with and without the vector module, so both scoring paths are covered.")
+        @Test
+        void vectorModuleMatchesTestExecution() {
+            String expected = System.getProperty("mastermind.test.vector");
+            assumeTrue(expected != null, "Not run by the build");
+
+            assertEquals(Boolean.parseBoolean(expected), ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        }
+
+        @Test
+        void manyColorsScoringMatchesReference() {
+            assertMatchesReference(3, 100_000, 2_000);
+        }
+
+        @Test
+        void mismatchedCodeLengthsFail() {
+            Code shortCode = Code.from(List.of(1, 2, 3), 3, 8);
+            Code longCode = Code.from(List.of(1, 2, 3, 4), 4, 8);
+
+            assertThrows(IllegalArgumentException.class, () -> DEFAULT.get(shortCode, longCode));
+        }
+
+        private void assertMatchesReference(int codeLength, int numColors, int samples) {
+            for (int i = 0; i < samples; i++) {
+                Code secret = randomCode(codeLength, numColors);
+                Code guess = randomCode(codeLength, numColors);
+                int wellPlaced = referenceWellPlaced(secret, guess);
+                int colorMatches = referenceColorMatches(secret, guess);
+
+                assertEquals(new DefaultFeedback(wellPlaced, colorMatches), DEFAULT.get(secret, guess));
+                assertEquals(new OriginalMastermindFeedback(wellPlaced, colorMatches - wellPlaced), ORIGINAL_MASTERMIND.get(secret, guess));
+                assertEquals(new PerfectFeedback(wellPlaced), PERFECT.get(secret, guess));
+            }
+        }
+
+        private Code randomCode(int codeLength, int numColors) {
+            List<Integer> value = new ArrayList<>();
+            for (int i = 0; i < codeLength; i++) {
+                value.add(random.nextInt(numColors));
+            }
+
+            return Code.from(value, codeLength, numColors);
+        }
+
+        private static int referenceWellPlaced(Code c1, Code c2) {
+            int wellPlaced = 0;
+            for (int i = 0; i < c1.value().size(); i++) {
+                if (c1.value().get(i).equals(c2.value().get(i))) wellPlaced++;
+            }
+
+            return wellPlaced;
+        }
+
+        private static int referenceColorMatches(Code c1, Code c2) {
+            Map<Integer, Integer> c1Freq = new HashMap<>();
+            Map<Integer, Integer> c2Freq = new HashMap<>();
+            c1.value().forEach(digit -> c1Freq.merge(digit, 1, Integer::sum));
+            c2.value().forEach(digit -> c2Freq.merge(digit, 1, Integer::sum));
+
+            int allMatches = 0;
+            for (int digit : c2Freq.keySet()) {
+                allMatches += Math.min(c2Freq.get(digit), c1Freq.getOrDefault(digit, 0));
+            }
+
+            return allMatches;
+        }
+    }
+
+    @Nested
+    public class OrdinalTests {
+        @Test
+        void ordinalsRoundTripForAllPairs() {
+            for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                for (long s = 0; s < 256; s++) {
+                    for (long g = 0; g < 256; g++) {
+                        Code secret = Code.fromPacked(s, 4, 4);
+                        Code guess = Code.fromPacked(g, 4, 4);
+                        Feedback feedback = strategy.get(secret, guess);
+                        int ordinal = strategy.ordinal(secret, guess);
+
+                        assertEquals(feedback.ordinal(), ordinal);
+                        assertTrue(ordinal >= 0 && ordinal < strategy.ordinalCount(4));
+                        assertEquals(feedback, strategy.fromOrdinal(ordinal, 4));
+                    }
+                }
+            }
+        }
+
+        @Test
+        void ordinalsAreDistinctPerFeedback() {
+            for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                Set<Feedback> feedbacks = new HashSet<>();
+                for (int ordinal = 0; ordinal < strategy.ordinalCount(5); ordinal++) {
+                    Feedback feedback = strategy.fromOrdinal(ordinal, 5);
+
+                    assertEquals(ordinal, feedback.ordinal());
+                    assertTrue(feedbacks.add(feedback));
+                }
+            }
+        }
+
+        @Test
+        void matchOrdinalsDoNotDependOnCodeLength() {
+            assertAll(
+                    () -> assertEquals(new DefaultFeedback(2, 3), DEFAULT.fromOrdinal(new DefaultFeedback(2, 3).ordinal(), 4)),
+                    () -> assertEquals(new DefaultFeedback(2, 3), DEFAULT.fromOrdinal(new DefaultFeedback(2, 3).ordinal(), 12)),
+                    () -> assertEquals(new DefaultFeedback(2, 3).ordinal(), new OriginalMastermindFeedback(2, 1).ordinal())
+            );
+        }
+
+        @Test
+        void outOfRangeOrdinalFails() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> DEFAULT.fromOrdinal(15, 4)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> PERFECT.fromOrdinal(-1, 4))
+            );
+        }
+
+        @Test
+        void customFeedbackHasNoOrdinal() {
+            Feedback custom = new Feedback() {
+            };
+
+            assertThrows(UnsupportedOperationException.class, custom::ordinal);
+        }
+    }
+
+    @Nested
+    public class InterningTests {
+        private final static Code secretCode = Code.from(List.of(0, 1, 3, 5), 4, 8);
+        private final static Code guess = Code.from(List.of(0, 1, 5, 6), 4, 8);
+        private final static Code otherGuess = Code.from(List.of(5, 1, 3, 0), 4, 8);
+
+        @Test
+        void equalFeedbackIsSharedAcrossCalls() {
+            assertAll(
+                    () -> assertSame(DEFAULT.get(secretCode, guess), DEFAULT.get(secretCode, guess)),
+                    () -> assertSame(ORIGINAL_MASTERMIND.get(secretCode, guess), ORIGINAL_MASTERMIND.get(secretCode, guess)),
+                    () -> assertSame(PERFECT.get(secretCode, guess), PERFECT.get(secretCode, otherGuess))
+            );
+        }
+
+        @Test
+        void sharedFeedbackMatchesFromOrdinal() {
+            Feedback feedback = DEFAULT.get(secretCode, guess);
+
+            assertSame(feedback, DEFAULT.fromOrdinal(feedback.ordinal(), 4));
+        }
+
+        @Test
+        void sharedFeedbackIsSharedAcrossCodeLengths() {
+            Code longSecret = Code.from(List.of(0, 1, 3, 5, 7, 7), 6, 8);
+            Code longGuess = Code.from(List.of(0, 1, 5, 6, 2, 2), 6, 8);
+
+            assertSame(DEFAULT.get(secretCode, guess), DEFAULT.get(longSecret, longGuess));
+        }
+    }
+
+    @Nested
+    public class BatchScoringTests {
+        private final static int LENGTH = 4;
+        private final static int COLORS = 5;
+        private final static int NUM_CODES = 625;
+
+        private static long[] packedCodes() {
+            long[] packed = new long[NUM_CODES];
+            for (int i = 0; i < NUM_CODES; i++) {
+                packed[i] = i;
+            }
+
+            return packed;
+        }
+
+        private static Code[] codes() {
+            Code[] codes = new Code[NUM_CODES];
+            for (int i = 0; i < NUM_CODES; i++) {
+                codes[i] = Code.fromPacked(i, LENGTH, COLORS);
+            }
+
+            return codes;
+        }
+
+        private static void assertMatchesPairwise(FeedbackStrategy strategy, Code guess, Code[] secretCodes) {
+            int[] expected = new int[secretCodes.length];
+            int[] expectedCounts = new int[strategy.ordinalCount(guess.length())];
+            for (int i = 0; i < secretCodes.length; i++) {
+                expected[i] = strategy.ordinal(secretCodes[i], guess);
+                expectedCounts[expected[i]]++;
+            }
+
+            int[] ordinals = new int[secretCodes.length];
+            int[] counts = new int[expectedCounts.length];
+            strategy.ordinals(guess, secretCodes, 0, secretCodes.length, ordinals);
+            strategy.histogram(guess, secretCodes, 0, secretCodes.length, counts);
+
+            assertArrayEquals(expected, ordinals);
+            assertArrayEquals(expectedCounts, counts);
+        }
+
+        @Test
+        void packedBatchMatchesPairwiseScoring() {
+            long[] packed = packedCodes();
+            Code[] codes = codes();
+            for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                for (int g = 0; g < NUM_CODES; g += 7) {
+                    Code guess = codes[g];
+                    int[] ordinals = new int[NUM_CODES];
+                    int[] counts = new int[strategy.ordinalCount(LENGTH)];
+                    strategy.ordinals(guess, packed, 0, NUM_CODES, ordinals);
+                    strategy.histogram(guess, packed, 0, NUM_CODES, counts);
+
+                    int[] expectedCounts = new int[counts.length];
+                    for (int s = 0; s < NUM_CODES; s++) {
+                        assertEquals(strategy.ordinal(codes[s], guess), ordinals[s]);
+                        expectedCounts[ordinals[s]]++;
+                    }
+                    assertArrayEquals(expectedCounts, counts);
+                }
+            }
+        }
+
+        @Test
+        void codeBatchMatchesPairwiseScoring() {
+            Code[] codes = codes();
+            for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                assertMatchesPairwise(strategy, codes[123], codes);
+            }
+        }
+
+        @Test
+        void codeBatchHandlesMixedRepresentations() {
+            Random random = new Random(7);
+            Code[] secretCodes = new Code[50];
+            for (int i = 0; i < secretCodes.length; i++) {
+                int[] colors = random.ints(LENGTH, 0, COLORS).toArray();
+                // Alternate codes validated against the game's colors and against a wider palette
+                secretCodes[i] = Code.from(colors, LENGTH, i % 2 == 0 ? COLORS : COLORS + 3);
+            }
+
+            for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                assertMatchesPairwise(strategy, Code.from(List.of(0, 4, 4, 2), LENGTH, COLORS), secretCodes);
+            }
+        }
+
+        @Test
+        void unpackedCodesAreScoredPairwise() {
+            Random random = new Random(11);
+            int length = 30;
+            Code[] secretCodes = new Code[20];
+            for (int i = 0; i < secretCodes.length; i++) {
+                secretCodes[i] = Code.from(random.ints(length, 0, 10).toArray(), length, 10);
+            }
+            Code guess = Code.from(random.ints(length, 0, 10).toArray(), length, 10);
+
+            assertFalse(guess.isPacked());
+            assertMatchesPairwise(DEFAULT, guess, secretCodes);
+            assertMatchesPairwise(PERFECT, guess, secretCodes);
+        }
+
+        @Test
+        void tableBatchMatchesStrategy() {
+            FeedbackTable table = FeedbackTable.build(DEFAULT, LENGTH, COLORS);
+            Code[] codes = codes();
+            long[] packed = packedCodes();
+            Code guess = codes[321];
+            int[] fromTable = new int[NUM_CODES];
+            int[] fromStrategy = new int[NUM_CODES];
+            table.ordinals(guess, packed, 0, NUM_CODES, fromTable);
+            DEFAULT.ordinals(guess, packed, 0, NUM_CODES, fromStrategy);
+
+            assertArrayEquals(fromStrategy, fromTable);
+            assertMatchesPairwise(table, guess, codes);
+        }
+
+        @Test
+        void onlyTheRangeIsScored() {
+            int[] ordinals = new int[NUM_CODES];
+            Arrays.fill(ordinals, -1);
+            DEFAULT.ordinals(codes()[0], packedCodes(), 10, 20, ordinals);
+
+            assertAll(
+                    () -> assertEquals(-1, ordinals[9]),
+                    () -> assertNotEquals(-1, ordinals[10]),
+                    () -> assertNotEquals(-1, ordinals[19]),
+                    () -> assertEquals(-1, ordinals[20])
+            );
+        }
+
+        @Test
+        void invalidBatchInputFails() {
+            Code guess = codes()[0];
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> DEFAULT.ordinals(guess, new long[]{NUM_CODES}, 0, 1, new int[1])),
+                    () -> assertThrows(IllegalArgumentException.class, () -> PERFECT.histogram(guess, new long[]{-1}, 0, 1, new int[LENGTH + 1])),
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> DEFAULT.ordinals(guess, packedCodes(), 0, NUM_CODES, new int[1])),
+                    () -> assertThrows(IndexOutOfBoundsException.class, () -> HIGHER_LOWER.histogram(guess, codes(), 5, 2, new int[81]))
+            );
+        }
+    }
 }
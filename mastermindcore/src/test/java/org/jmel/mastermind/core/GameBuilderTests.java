@@ -9,8 +9,13 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class GameBuilderTests {
     private static final CodeSupplier userDefinedSupplier = UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4));
@@ -128,4 +133,106 @@ public class GameBuilderTests {
                     .build());
         }
     }
+
+    @Nested
+    public class BulkAndAsyncBuildTests {
+        /**
+         * Supplies 0 0 0 0, 0 0 0 1, 0 0 0 2... and counts calls.
+         */
+        private static final class CountingSupplier implements CodeSupplier {
+            private final AtomicInteger gets = new AtomicInteger();
+            private final AtomicInteger getManys = new AtomicInteger();
+            private final AtomicInteger next = new AtomicInteger();
+
+            @Override
+            public List<Integer> get() {
+                gets.incrementAndGet();
+                int n = next.getAndIncrement();
+
+                return List.of(n / 512 % 8, n / 64 % 8, n / 8 % 8, n % 8);
+            }
+
+            @Override
+            public List<List<Integer>> getMany(int count) throws IOException {
+                getManys.incrementAndGet();
+
+                return CodeSupplier.super.getMany(count);
+            }
+        }
+
+        @Test
+        void buildManyRequestsAllCodesAtOnce() throws IOException {
+            CountingSupplier supplier = new CountingSupplier();
+            List<Game> games = new Game.Builder().codeSupplier(supplier).buildMany(5);
+
+            assertEquals(5, games.size());
+            assertEquals(1, supplier.getManys.get());
+            for (int i = 0; i < games.size(); i++) {
+                games.get(i).processGuess(List.of(0, 0, 0, i));
+
+                assertTrue(games.get(i).isGameWon());
+            }
+        }
+
+        @Test
+        void buildManyRejectsInvalidInput() {
+            Game.Builder builder = new Game.Builder().codeSupplier(new CountingSupplier());
+            CodeSupplier tooFewCodes = new CodeSupplier() {
+                @Override
+                public List<Integer> get() {
+                    return List.of(1, 2, 3, 4);
+                }
+
+                @Override
+                public List<List<Integer>> getMany(int count) {
+                    return List.of(get());
+                }
+            };
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> builder.buildMany(-1)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> builder.numColors(2).buildMany(3)),
+                    () -> assertThrows(IOException.class, () -> new Game.Builder().codeSupplier(tooFewCodes).buildMany(2))
+            );
+        }
+
+        @Test
+        void buildAsyncCompletesWithGame() throws Exception {
+            Game game = new Game.Builder().codeSupplier(userDefinedSupplier).buildAsync().get(5, TimeUnit.SECONDS);
+
+            game.processGuess(List.of(1, 2, 3, 4));
+            assertTrue(game.isGameWon());
+        }
+
+        @Test
+        void buildAsyncCapturesConfiguration() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            CodeSupplier blocking = () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+
+                return List.of(1, 2, 3, 4);
+            };
+            Game.Builder builder = new Game.Builder().codeSupplier(blocking).maxAttempts(3);
+            CompletableFuture<Game> future = builder.buildAsync();
+            builder.maxAttempts(7);
+            release.countDown();
+
+            assertEquals(3, future.get(5, TimeUnit.SECONDS).maxAttempts());
+        }
+
+        @Test
+        void buildAsyncReportsSupplierFailure() {
+            CodeSupplier failing = () -> {
+                throw new IOException("unavailable");
+            };
+            CompletableFuture<Game> future = new Game.Builder().codeSupplier(failing).buildAsync(Runnable::run);
+
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IOException.class, e.getCause());
+        }
+    }
 }
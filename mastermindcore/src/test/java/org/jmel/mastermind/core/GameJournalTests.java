@@ -0,0 +1,256 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTests {
+    private static final List<Integer> SECRET = List.of(1, 2, 3, 4);
+
+    @TempDir
+    Path directory;
+
+    private static Game newGame(FeedbackStrategy strategy) throws IOException {
+        return new Game.Builder()
+                .feedbackStrategy(strategy)
+                .codeSupplier(UserDefinedCodeSupplier.of(SECRET))
+                .build();
+    }
+
+    /**
+     * Journals a guess, then processes it.
+     */
+    private static void guess(GameJournal journal, String id, Game game, List<Integer> guess) throws IOException {
+        Code code = Code.from(guess, game.codeLength(), game.numColors());
+        journal.recordGuess(id, game, code);
+        game.processGuessCode(code);
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(expected.codeLength(), actual.codeLength());
+        assertEquals(expected.numColors(), actual.numColors());
+        assertEquals(expected.maxAttempts(), actual.maxAttempts());
+        assertEquals(expected.secretCode(), actual.secretCode());
+        assertEquals(expected.guessHistory(), actual.guessHistory());
+        assertEquals(expected.feedbackHistory(), actual.feedbackHistory());
+        assertEquals(expected.isGameWon(), actual.isGameWon());
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Nested
+    class RecoveryTests {
+        @Test
+        void recoversGamesOfEveryStrategy() throws IOException {
+            Map<String, Game> games = new LinkedHashMap<>();
+            try (GameJournal journal = GameJournal.open(directory)) {
+                for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+                    Game game = newGame(strategy);
+                    String id = strategy.name();
+                    journal.recordCreated(id, game);
+                    for (List<Integer> guess : List.of(List.of(0, 0, 0, 0), List.of(4, 3, 2, 1), SECRET)) {
+                        guess(journal, id, game, guess);
+                    }
+                    games.put(id, game);
+                }
+            }
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                Map<String, Game> recovered = journal.recover();
+
+                assertEquals(games.keySet(), recovered.keySet());
+                games.forEach((id, game) -> assertSameGame(game, recovered.get(id)));
+            }
+        }
+
+        @Test
+        void removedGamesAreNotRecovered() throws IOException {
+            try (GameJournal journal = GameJournal.open(directory)) {
+                journal.recordCreated("kept", newGame(FeedbackStrategyImpl.DEFAULT));
+                journal.recordCreated("removed", newGame(FeedbackStrategyImpl.DEFAULT));
+                journal.recordRemoved("removed");
+            }
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                assertEquals(List.of("kept"), List.copyOf(journal.recover().keySet()));
+            }
+        }
+
+        @Test
+        void tornRecordIsIgnored() throws IOException {
+            Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+            try (GameJournal journal = GameJournal.open(directory)) {
+                journal.recordCreated("game", game);
+                guess(journal, "game", game, List.of(0, 1, 2, 3));
+                guess(journal, "game", game, List.of(3, 2, 1, 0));
+            }
+            Path segment = files(directory).get(0);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                Game recovered = journal.recover().get("game");
+
+                assertEquals(1, recovered.movesCompleted());
+                assertEquals(game.guessHistory().subList(0, 1), recovered.guessHistory());
+            }
+        }
+
+        @DisplayName("A segment torn while its header was written holds no record, and does not stop recovery.")
+        @Test
+        void tornSegmentHeaderIsIgnored() throws IOException {
+            Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+            try (GameJournal journal = GameJournal.open(directory)) {
+                journal.recordCreated("game", game);
+                guess(journal, "game", game, List.of(0, 1, 2, 3));
+            }
+            Files.write(directory.resolve("journal-2.log"), new byte[0]);
+            Files.write(directory.resolve("journal-3.log"), new byte[]{0x4D, 0x4D, 0x4A});
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                assertSameGame(game, journal.recover().get("game"));
+            }
+        }
+
+        @Test
+        void emptyDirectoryRecoversNothing() throws IOException {
+            try (GameJournal journal = GameJournal.open(directory.resolve("journal"))) {
+                assertTrue(journal.recover().isEmpty());
+            }
+        }
+    }
+
+    @Nested
+    class CompactionTests {
+        @Test
+        void compactionReplacesOldSegments() throws IOException {
+            GameRegistry registry = GameRegistry.of(100, Duration.ofMinutes(1));
+            try (GameJournal journal = GameJournal.open(directory)) {
+                for (int i = 0; i < 10; i++) {
+                    String id = "game-" + i;
+                    Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+                    registry.register(id, game);
+                    journal.recordCreated(id, game);
+                    guess(journal, id, game, List.of(i % 8, 0, 0, 0));
+                }
+                registry.remove("game-0");
+                journal.recordRemoved("game-0");
+
+                journal.compact(registry);
+
+                Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+                registry.register("late", game);
+                journal.recordCreated("late", game);
+                guess(journal, "late", game, SECRET);
+            }
+
+            List<String> names = files(directory).stream().map(file -> file.getFileName().toString()).toList();
+            assertEquals(List.of("journal-2.log", "snapshot-2.snap"), names);
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                Map<String, Game> recovered = journal.recover();
+
+                assertEquals(registry.size(), recovered.size());
+                assertFalse(recovered.containsKey("game-0"));
+                recovered.forEach((id, game) ->
+                        assertTrue(registry.withGame(id, expected -> {
+                            assertSameGame(expected, game);
+                            return true;
+                        }).orElse(false)));
+            }
+        }
+    }
+
+    @Nested
+    class ConcurrencyTests {
+        @Test
+        void concurrentAppendsAreAllDurable() throws Exception {
+            int threads = 8;
+            int gamesPerThread = 25;
+            try (GameJournal journal = GameJournal.open(directory);
+                 ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    workers.add(executor.submit(() -> {
+                        for (int i = 0; i < gamesPerThread; i++) {
+                            String id = thread + "-" + i;
+                            Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+                            journal.recordCreated(id, game);
+                            guess(journal, id, game, List.of(thread % 8, i % 8, 0, 0));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            }
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                Map<String, Game> recovered = journal.recover();
+
+                assertEquals(threads * gamesPerThread, recovered.size());
+                recovered.values().forEach(game -> assertEquals(1, game.movesCompleted()));
+            }
+        }
+    }
+
+    @Nested
+    class InvalidUseTests {
+        @Test
+        void invalidParams() throws IOException {
+            assertThrows(IllegalArgumentException.class, () -> GameJournal.open(null));
+            try (GameJournal journal = GameJournal.open(directory)) {
+                Game game = newGame(FeedbackStrategyImpl.DEFAULT);
+                FeedbackStrategy custom = (secret, guess) -> FeedbackStrategyImpl.DEFAULT.get(secret, guess);
+
+                assertThrows(IllegalArgumentException.class, () -> journal.recordCreated(null, game));
+                assertThrows(IllegalArgumentException.class, () -> journal.recordCreated("game", null));
+                assertThrows(IllegalArgumentException.class, () -> journal.recordCreated("game", newGame(custom)));
+                Game won = newGame(FeedbackStrategyImpl.DEFAULT);
+                won.processGuess(SECRET);
+                Code guess = Code.from(SECRET, 4, 8);
+
+                assertThrows(IllegalStateException.class, () -> journal.recordGuess("game", won, guess));
+                assertThrows(IllegalArgumentException.class, () -> journal.recordGuess("game", game, Code.from(List.of(1, 2, 3), 3, 8)));
+                assertThrows(IllegalArgumentException.class, () -> journal.recordGuess("game", game, null));
+                assertThrows(IllegalArgumentException.class, () -> journal.compact(null));
+            }
+        }
+
+        @Test
+        void closedJournalRejectsRecords() throws IOException {
+            GameJournal journal = GameJournal.open(directory);
+            journal.close();
+
+            assertThrows(IOException.class, () -> journal.recordRemoved("game"));
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
+import org.jmel.mastermind.core.secretcodesupplier.SeededRandomCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRecordTests {
+    private static final List<Integer> SECRET = List.of(1, 2, 3, 4);
+
+    private static Game playedGame(FeedbackStrategy strategy, List<List<Integer>> guesses) throws IOException {
+        Game game = new Game.Builder()
+                .maxAttempts(guesses.size())
+                .feedbackStrategy(strategy)
+                .codeSupplier(UserDefinedCodeSupplier.of(SECRET))
+                .build();
+        for (List<Integer> guess : guesses) {
+            game.processGuess(guess);
+        }
+
+        return game;
+    }
+
+    /**
+     * Plays random games of random configurations until they are over.
+     */
+    private static List<Game> randomGames(int count, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        FeedbackStrategyImpl[] strategies = FeedbackStrategyImpl.values();
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int codeLength = 1 + random.nextInt(6);
+            int numColors = 2 + random.nextInt(9);
+            SeededRandomCodeSupplier codes = SeededRandomCodeSupplier.of(codeLength, numColors, random.nextLong());
+            Game game = new Game.Builder()
+                    .codeLength(codeLength)
+                    .numColors(numColors)
+                    .maxAttempts(1 + random.nextInt(12))
+                    .feedbackStrategy(strategies[random.nextInt(strategies.length)])
+                    .codeSupplier(codes)
+                    .build();
+            while (!game.isGameWon() && game.movesCompleted() < game.maxAttempts()) {
+                game.processGuess(codes.get());
+            }
+            games.add(game);
+        }
+
+        return games;
+    }
+
+    private static byte[] write(List<Game> games) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = GameRecordWriter.of(bytes)) {
+            for (Game game : games) {
+                writer.write(game);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static List<GameRecord> read(byte[] bytes) throws IOException {
+        try (GameRecordReader reader = GameRecordReader.of(new ByteArrayInputStream(bytes))) {
+            return reader.records().toList();
+        }
+    }
+
+    /**
+     * Encodes a file of one block holding one DEFAULT record of 4 positions and 8 colors with one guess, with a valid
+     * checksum whatever the values.
+     */
+    private static byte[] singleRecordFile(int maxAttempts, long secret, long guess, int ordinal) throws IOException {
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        Varints.write(block, 1);
+        writeColumn(block, 4, 1);
+        writeColumn(block, 8, 1);
+        writeColumn(block, maxAttempts, 1);
+        byte[] name = FeedbackStrategyImpl.DEFAULT.name().getBytes(StandardCharsets.UTF_8);
+        Varints.write(block, 1 + name.length);
+        Varints.write(block, name.length);
+        block.writeBytes(name);
+        writeColumn(block, 0, 1);
+        writeColumn(block, 1);
+        writeColumn(block, secret);
+        writeColumn(block, guess);
+        writeColumn(block, ordinal);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(GameRecordWriter.MAGIC);
+        out.writeInt(GameRecordWriter.VERSION);
+        out.writeInt(block.size());
+        out.write(block.toByteArray());
+        CRC32 crc = new CRC32();
+        crc.update(block.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        return bytes.toByteArray();
+    }
+
+    private static void writeColumn(ByteArrayOutputStream block, long... values) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        for (long value : values) {
+            Varints.write(column, value);
+        }
+        Varints.write(block, column.size());
+        block.writeBytes(column.toByteArray());
+    }
+
+    @Nested
+    class RecordTests {
+        @Test
+        void recordMatchesGame() throws IOException {
+            Game game = playedGame(FeedbackStrategyImpl.DEFAULT, List.of(List.of(0, 0, 0, 0), List.of(4, 3, 2, 1), SECRET));
+            GameRecord record = GameRecord.of(game);
+
+            assertEquals(game.secretCode(), record.secretCode());
+            assertEquals(3, record.movesCompleted());
+            assertTrue(record.isWon());
+            for (int move = 0; move < 3; move++) {
+                assertEquals(game.guessHistory().get(move), record.guess(move));
+                assertEquals(game.feedbackHistory().get(move), record.feedback(move));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> record.guess(3));
+        }
+
+        @Test
+        void feedbackTablesAreRecordedAsTheirStrategy() throws IOException {
+            FeedbackTable table = FeedbackTable.build(FeedbackStrategyImpl.PERFECT, 4, 8);
+            GameRecord record = GameRecord.of(playedGame(table, List.of(List.of(0, 0, 0, 0))));
+
+            assertEquals(FeedbackStrategyImpl.PERFECT, record.feedbackStrategy());
+            assertFalse(record.isWon());
+        }
+
+        @Test
+        void arraysAreCopied() throws IOException {
+            long[] guesses = {0, 1};
+            GameRecord record = new GameRecord(4, 8, 10, FeedbackStrategyImpl.DEFAULT, 5, guesses, new int[]{0, 1});
+            guesses[0] = 7;
+            record.packedGuesses()[1] = 7;
+
+            assertArrayEquals(new long[]{0, 1}, record.packedGuesses());
+            assertEquals(record, new GameRecord(4, 8, 10, FeedbackStrategyImpl.DEFAULT, 5, new long[]{0, 1}, new int[]{0, 1}));
+        }
+
+        @Test
+        void invalidRecords() throws IOException {
+            Game unfinished = new Game.Builder().codeSupplier(UserDefinedCodeSupplier.of(SECRET)).build();
+            Game custom = playedGame((secret, guess) -> FeedbackStrategyImpl.DEFAULT.get(secret, guess), List.of(SECRET));
+
+            assertThrows(IllegalArgumentException.class, () -> GameRecord.of(null));
+            assertThrows(IllegalStateException.class, () -> GameRecord.of(unfinished));
+            assertThrows(IllegalArgumentException.class, () -> GameRecord.of(custom));
+            assertThrows(IllegalArgumentException.class, () -> new GameRecord(4, 8, 10, FeedbackStrategyImpl.DEFAULT, 4096, new long[0], new int[0]));
+            assertThrows(IllegalArgumentException.class, () -> new GameRecord(4, 8, 1, FeedbackStrategyImpl.DEFAULT, 0, new long[]{0, 1}, new int[]{0, 0}));
+            assertThrows(IllegalArgumentException.class, () -> new GameRecord(4, 8, 10, FeedbackStrategyImpl.DEFAULT, 0, new long[]{0}, new int[]{99}));
+            assertThrows(IllegalArgumentException.class, () -> new GameRecord(4, 8, 10, null, 0, new long[0], new int[0]));
+            assertThrows(IllegalArgumentException.class, () -> new GameRecord(30, 8, 10, FeedbackStrategyImpl.DEFAULT, 0, new long[0], new int[0]));
+        }
+    }
+
+    @Nested
+    class FormatTests {
+        @DisplayName("Records read back equal the records written, across several blocks and configurations.")
+        @Test
+        void roundTrip() throws IOException {
+            List<Game> games = randomGames(2 * GameRecordWriter.BLOCK_SIZE + 17, 42);
+            List<GameRecord> records = read(write(games));
+
+            assertEquals(games.size(), records.size());
+            for (int i = 0; i < games.size(); i++) {
+                assertEquals(GameRecord.of(games.get(i)), records.get(i));
+            }
+        }
+
+        @Test
+        void standardGamesAreCompact() throws IOException {
+            List<List<Integer>> guesses = List.of(List.of(0, 0, 0, 0), List.of(1, 1, 2, 2), List.of(4, 3, 2, 1), SECRET);
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < GameRecordWriter.BLOCK_SIZE; i++) {
+                games.add(playedGame(FeedbackStrategyImpl.DEFAULT, guesses));
+            }
+            byte[] bytes = write(games);
+
+            // 1 byte of length, 2 bytes of secret code, and 3 bytes per guess with its feedback
+            assertTrue(bytes.length < games.size() * (1 + 2 + 4 * 3) + 100, "%d bytes".formatted(bytes.length));
+        }
+
+        @DisplayName("Feedback strategies are stored by name, so reordering the enum does not relabel files.")
+        @Test
+        void strategiesAreStoredByName() throws IOException {
+            byte[] bytes = write(List.of(playedGame(FeedbackStrategyImpl.HIGHER_LOWER, List.of(SECRET)),
+                    playedGame(FeedbackStrategyImpl.PERFECT, List.of(SECRET))));
+            String contents = new String(bytes, StandardCharsets.ISO_8859_1);
+
+            assertTrue(contents.contains("HIGHER_LOWER") && contents.contains("PERFECT"));
+            assertEquals(List.of(FeedbackStrategyImpl.HIGHER_LOWER, FeedbackStrategyImpl.PERFECT),
+                    read(bytes).stream().map(GameRecord::feedbackStrategy).toList());
+
+            byte[] unsupported = bytes.clone();
+            unsupported[7] = 2; // an unknown version
+            assertThrows(IOException.class, () -> read(unsupported));
+        }
+
+        @Test
+        void flushedRecordsAreReadable() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            GameRecordWriter writer = GameRecordWriter.of(bytes);
+            writer.write(playedGame(FeedbackStrategyImpl.DEFAULT, List.of(SECRET)));
+            writer.flush();
+
+            assertEquals(1, read(bytes.toByteArray()).size());
+            assertEquals(1, writer.recordCount());
+            writer.close();
+            assertThrows(IllegalStateException.class, () -> writer.write(playedGame(FeedbackStrategyImpl.DEFAULT, List.of(SECRET))));
+        }
+
+        @Test
+        void writerFailsAfterBlockError() throws IOException {
+            OutputStream failing = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("disk full");
+                }
+            };
+            // A block of long games does not fit in the writer's buffer, so it reaches the stream
+            GameRecord record = GameRecord.of(playedGame(FeedbackStrategyImpl.DEFAULT, Collections.nCopies(12, List.of(0, 0, 0, 0))));
+            GameRecordWriter writer = GameRecordWriter.of(failing);
+            IOException e = null;
+            for (int i = 0; i <= GameRecordWriter.BLOCK_SIZE && e == null; i++) {
+                try {
+                    writer.write(record);
+                } catch (IOException thrown) {
+                    e = thrown;
+                }
+            }
+
+            assertNotNull(e);
+            assertEquals(0, writer.recordCount());
+            IOException failed = assertThrows(IOException.class, () -> writer.write(record));
+            assertSame(e, failed.getCause());
+            assertThrows(IOException.class, writer::flush);
+            assertThrows(IOException.class, writer::close);
+            assertThrows(IllegalStateException.class, () -> writer.write(record));
+        }
+
+        @Test
+        void emptyFile(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("games.bin");
+            GameRecordWriter.create(file).close();
+
+            try (GameRecordReader reader = GameRecordReader.open(file)) {
+                assertNull(reader.read());
+                assertEquals(0, reader.recordCount());
+            }
+        }
+
+        @Test
+        void truncatedAndCorruptedFiles() throws IOException {
+            byte[] bytes = write(randomGames(10, 7));
+
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+            assertThrows(UncheckedIOException.class, () -> read(truncated));
+
+            byte[] corrupted = bytes.clone();
+            corrupted[bytes.length / 2] ^= 1;
+            assertThrows(UncheckedIOException.class, () -> read(corrupted));
+
+            assertThrows(IOException.class, () -> GameRecordReader.of(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+            assertThrows(IOException.class, () -> GameRecordReader.of(new ByteArrayInputStream(new byte[8])));
+        }
+
+        @DisplayName("Blocks with a valid checksum but invalid records are rejected.")
+        @Test
+        void invalidRecordsInValidBlocks() throws IOException {
+            assertEquals(List.of(new GameRecord(4, 8, 10, FeedbackStrategyImpl.DEFAULT, 5, new long[]{5}, new int[]{0})),
+                    read(singleRecordFile(10, 5, 5, 0)));
+            assertAll(
+                    () -> assertThrows(UncheckedIOException.class, () -> read(singleRecordFile(0, 5, 5, 0))),
+                    () -> assertThrows(UncheckedIOException.class, () -> read(singleRecordFile(10, 4096, 5, 0))),
+                    () -> assertThrows(UncheckedIOException.class, () -> read(singleRecordFile(10, 5, 4096, 0))),
+                    () -> assertThrows(UncheckedIOException.class, () -> read(singleRecordFile(10, 5, 5, 99)))
+            );
+        }
+
+        @Test
+        void largeFileIsStreamed(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("games.bin");
+            List<Game> games = randomGames(100, 3);
+            int copies = 200;
+            try (GameRecordWriter writer = GameRecordWriter.create(file)) {
+                for (int i = 0; i < copies; i++) {
+                    for (Game game : games) {
+                        writer.write(game);
+                    }
+                }
+            }
+            assertTrue(Files.size(file) > 0);
+
+            long won = 0;
+            try (GameRecordReader reader = GameRecordReader.open(file)) {
+                for (GameRecord record = reader.read(); record != null; record = reader.read()) {
+                    if (record.isWon()) won++;
+                }
+                assertEquals((long) copies * games.size(), reader.recordCount());
+            }
+            assertEquals(copies * games.stream().filter(Game::isGameWon).count(), won);
+        }
+    }
+}
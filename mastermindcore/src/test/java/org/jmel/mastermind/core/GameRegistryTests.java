@@ -0,0 +1,215 @@
+package org.jmel.mastermind.core;
+
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRegistryTests {
+    private static final List<Integer> SECRET = List.of(1, 2, 3, 4);
+    private static final List<Integer> MISS = List.of(0, 0, 0, 0);
+
+    private static Game newGame(int maxAttempts) throws IOException {
+        return new Game.Builder()
+                .maxAttempts(maxAttempts)
+                .codeSupplier(UserDefinedCodeSupplier.of(SECRET))
+                .build();
+    }
+
+    @Nested
+    class LookupTests {
+        @Test
+        void registeredGamesCanBePlayed() throws IOException {
+            GameRegistry registry = GameRegistry.of(100, Duration.ofMinutes(1));
+            String id = registry.register(newGame(10));
+
+            assertTrue(registry.contains(id));
+            assertEquals(Optional.of(false), registry.withGame(id, game -> game.processGuess(MISS)).map(f -> false));
+            assertEquals(Optional.of(1), registry.withGame(id, Game::movesCompleted));
+            assertEquals(1, registry.size());
+        }
+
+        @Test
+        void unknownAndRemovedGames() throws IOException {
+            GameRegistry registry = GameRegistry.of(100, Duration.ofMinutes(1));
+            registry.register("game", newGame(10));
+
+            assertThrows(IllegalArgumentException.class, () -> registry.register("game", newGame(10)));
+            assertTrue(registry.remove("game"));
+            assertFalse(registry.remove("game"));
+            assertEquals(Optional.empty(), registry.withGame("game", Game::movesCompleted));
+            assertEquals(Optional.empty(), registry.withGame(null, Game::movesCompleted));
+        }
+
+        @Test
+        void invalidParams() {
+            Duration minute = Duration.ofMinutes(1);
+
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(0, minute));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, null));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, minute, minute.negated(), 1));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, minute, minute, 0));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, minute, minute, 11));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, minute).register(null));
+            assertThrows(IllegalArgumentException.class, () -> GameRegistry.of(10, minute).withGame("id", null));
+        }
+    }
+
+    @Nested
+    class EvictionTests {
+        private final AtomicLong now = new AtomicLong();
+
+        private GameRegistry newRegistry(int maxGames, int shards) {
+            return GameRegistry.of(maxGames, Duration.ofNanos(100), Duration.ofNanos(10), shards, now::get);
+        }
+
+        @Test
+        void idleGamesExpire() throws IOException {
+            GameRegistry registry = newRegistry(10, 1);
+            String idle = registry.register(newGame(10));
+            now.addAndGet(60);
+            String used = registry.register(newGame(10));
+            now.addAndGet(60);
+            registry.withGame(used, Game::movesCompleted);
+
+            assertFalse(registry.contains(idle));
+            assertTrue(registry.contains(used));
+            assertEquals(1, registry.evictExpired());
+            assertEquals(1, registry.size());
+        }
+
+        @Test
+        void finishedGamesExpireSooner() throws IOException {
+            GameRegistry registry = newRegistry(10, 1);
+            String won = registry.register(newGame(10));
+            String playing = registry.register(newGame(10));
+            registry.withGame(won, game -> game.processGuess(SECRET));
+            registry.withGame(playing, game -> game.processGuess(MISS));
+            now.addAndGet(20);
+
+            assertEquals(1, registry.evictExpired());
+            assertFalse(registry.contains(won));
+            assertTrue(registry.contains(playing));
+        }
+
+        @DisplayName("A full shard evicts a finished game first, then its least recently used game.")
+        @Test
+        void fullShardEvictsFinishedThenLeastRecentlyUsed() throws IOException {
+            GameRegistry registry = newRegistry(3, 1);
+            String first = registry.register(newGame(10));
+            String lost = registry.register(newGame(1));
+            String third = registry.register(newGame(10));
+            registry.withGame(lost, game -> game.processGuess(MISS));
+            registry.withGame(first, Game::movesCompleted);
+
+            String fourth = registry.register(newGame(10));
+            assertFalse(registry.contains(lost));
+
+            String fifth = registry.register(newGame(10));
+            assertFalse(registry.contains(third));
+            assertTrue(registry.contains(first));
+            assertTrue(registry.contains(fourth));
+            assertTrue(registry.contains(fifth));
+            assertEquals(3, registry.size());
+        }
+
+        @DisplayName("Checking for a game does not count as using it, so it is still evicted in order.")
+        @Test
+        void containsDoesNotUseGames() throws IOException {
+            GameRegistry registry = newRegistry(3, 1);
+            String older = registry.register(newGame(10));
+            now.addAndGet(60);
+            String newer = registry.register(newGame(10));
+            assertTrue(registry.contains(older));
+
+            now.addAndGet(60); // older is idle for longer than the timeout, newer is not
+            registry.register(newGame(10));
+            assertEquals(2, registry.size());
+            assertTrue(registry.contains(newer));
+
+            registry.register(newGame(10));
+            assertTrue(registry.contains(newer));
+            registry.register(newGame(10));
+            assertFalse(registry.contains(newer));
+        }
+
+        @Test
+        void sizeIsBounded() throws IOException {
+            GameRegistry registry = newRegistry(64, 8);
+            for (int i = 0; i < 1000; i++) {
+                registry.register(newGame(10));
+            }
+
+            assertTrue(registry.size() <= 64);
+        }
+    }
+
+    @Nested
+    class ConcurrencyTests {
+        @Test
+        void concurrentGuessesToOneGameAreSerialized() throws Exception {
+            GameRegistry registry = GameRegistry.of(10, Duration.ofMinutes(1));
+            String id = registry.register(newGame(1000));
+            AtomicInteger rejected = new AtomicInteger();
+            try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+                for (int i = 0; i < 1200; i++) {
+                    threads.submit(() -> {
+                        try {
+                            registry.withGame(id, game -> game.processGuess(MISS));
+                        } catch (IllegalStateException e) {
+                            rejected.incrementAndGet();
+                        }
+                    });
+                }
+            }
+
+            assertEquals(Optional.of(1000), registry.withGame(id, Game::movesCompleted));
+            assertEquals(Optional.of(1000), registry.withGame(id, game -> game.guessHistory().size()));
+            assertEquals(200, rejected.get());
+        }
+
+        @DisplayName("A slow action on one game does not block other games.")
+        @Test
+        void gamesAreLockedIndependently() throws Exception {
+            GameRegistry registry = GameRegistry.of(10, Duration.ofMinutes(1), Duration.ofMinutes(1), 1);
+            String slow = registry.register(newGame(10));
+            String fast = registry.register(newGame(10));
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread holder = Thread.ofVirtual().start(() -> registry.withGame(slow, game -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return null;
+            }));
+            started.await();
+
+            List<Integer> moves = new ArrayList<>();
+            registry.withGame(fast, game -> game.processGuess(MISS));
+            registry.withGame(fast, Game::movesCompleted).ifPresent(moves::add);
+            release.countDown();
+            holder.join();
+
+            assertEquals(List.of(1), moves);
+        }
+    }
+}
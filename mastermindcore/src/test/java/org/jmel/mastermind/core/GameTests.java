@@ -1,6 +1,8 @@
 package org.jmel.mastermind.core;
 
 import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
 import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
 import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,7 +10,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -111,4 +115,46 @@ public class GameTests {
                 () -> assertEquals(f3.size(), 3)
         );
     }
+
+    @DisplayName("History is the same whether guesses and feedback are stored as primitives or as objects.")
+    @Test
+    void historyMatchesFeedbackForEveryStorage() throws IOException {
+        record Config(int codeLength, int numColors, FeedbackStrategy strategy) {
+        }
+        List<Config> configs = List.of(
+                new Config(4, 8, FeedbackStrategyImpl.DEFAULT), // packed guesses, byte ordinals
+                new Config(6, 6, FeedbackStrategyImpl.HIGHER_LOWER), // more than 256 ordinals
+                new Config(30, 10, FeedbackStrategyImpl.PERFECT), // codes too large to pack
+                new Config(4, 8, (secret, guess) -> FeedbackStrategyImpl.DEFAULT.get(secret, guess))); // no ordinals
+        Random random = new Random(23);
+        for (Config config : configs) {
+            List<Integer> secret = randomCode(random, config.codeLength(), config.numColors());
+            Game compact = new Game.Builder()
+                    .codeLength(config.codeLength())
+                    .numColors(config.numColors())
+                    .maxAttempts(100)
+                    .feedbackStrategy(config.strategy())
+                    .codeSupplier(UserDefinedCodeSupplier.of(secret))
+                    .build();
+            List<Code> guesses = new ArrayList<>();
+            List<Feedback> feedbacks = new ArrayList<>();
+            for (int i = 0; i < 99; i++) {
+                Code guess = Code.from(randomCode(random, config.codeLength(), config.numColors()), config.codeLength(), config.numColors());
+                guesses.add(guess);
+                feedbacks.add(compact.processGuessCode(guess));
+                assertEquals(config.strategy().get(Code.from(secret, config.codeLength(), config.numColors()), guess), feedbacks.get(i));
+            }
+            compact.processGuess(secret);
+            guesses.add(Code.from(secret, config.codeLength(), config.numColors()));
+
+            assertEquals(guesses, compact.guessHistory(), config.toString());
+            assertEquals(feedbacks, compact.feedbackHistory().subList(0, 99), config.toString());
+            assertTrue(compact.isGameWon());
+            assertEquals(100, compact.movesCompleted());
+        }
+    }
+
+    private static List<Integer> randomCode(Random random, int codeLength, int numColors) {
+        return random.ints(codeLength, 0, numColors).boxed().toList();
+    }
 }
@@ -0,0 +1,148 @@
+package org.jmel.mastermind.core.secretcodesupplier;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cool-downs are measured with a manual clock. Only attempt deadlines use the wall clock: the tests that need one to
+ * elapse give a slow supplier a short timeout, and the others a generous one.
+ */
+public class FallbackCodeSupplierTests {
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+    private static final Duration GENEROUS_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration COOL_DOWN = Duration.ofSeconds(30);
+    private static final List<Integer> FALLBACK_CODE = List.of(0, 0, 0, 0);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final CodeSupplier slow = () -> {
+        slowCalls.incrementAndGet();
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+
+        return List.of(1, 1, 1, 1);
+    };
+    private final CodeSupplier fallback = () -> FALLBACK_CODE;
+
+    private FallbackCodeSupplier supplier(Duration attemptTimeout, CodeSupplier... suppliers) {
+        return FallbackCodeSupplier.of(List.of(suppliers), attemptTimeout, COOL_DOWN, now::get);
+    }
+
+    private void coolDownElapses() {
+        now.addAndGet(COOL_DOWN.toNanos() + 1);
+    }
+
+    @Test
+    void firstHealthySupplierServes() throws IOException {
+        FallbackCodeSupplier supplier = supplier(GENEROUS_TIMEOUT, () -> List.of(3, 3, 3, 3), fallback);
+
+        assertEquals(List.of(3, 3, 3, 3), supplier.get());
+        assertEquals(1, supplier.stats().get(0).served());
+        assertEquals(0, supplier.stats().get(1).served());
+    }
+
+    @Test
+    void slowSupplierIsAbandonedAtDeadline() throws IOException {
+        FallbackCodeSupplier supplier = supplier(TIMEOUT, slow, fallback);
+        long start = System.nanoTime();
+
+        assertEquals(FALLBACK_CODE, supplier.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(1, supplier.stats().get(0).timedOut());
+        assertTrue(supplier.stats().get(0).coolingDown());
+    }
+
+    @Test
+    void failingSupplierIsSkippedDuringCoolDown() throws IOException {
+        FallbackCodeSupplier supplier = supplier(TIMEOUT, slow, fallback);
+        supplier.get();
+        now.addAndGet(COOL_DOWN.toNanos() - 1);
+        supplier.get();
+        supplier.get();
+
+        assertEquals(1, slowCalls.get());
+        assertEquals(2, supplier.stats().get(0).skipped());
+        assertEquals(3, supplier.stats().get(1).served());
+
+        coolDownElapses();
+        supplier.get();
+        assertEquals(2, slowCalls.get());
+    }
+
+    @Test
+    void recoveredSupplierServesAgain() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        CodeSupplier flaky = () -> {
+            if (calls.getAndIncrement() == 0) throw new IOException("unavailable");
+
+            return List.of(2, 2, 2, 2);
+        };
+        FallbackCodeSupplier supplier = supplier(GENEROUS_TIMEOUT, flaky, fallback);
+
+        assertEquals(FALLBACK_CODE, supplier.get());
+        assertTrue(supplier.stats().get(0).coolingDown());
+        coolDownElapses();
+        assertFalse(supplier.stats().get(0).coolingDown());
+        assertEquals(List.of(2, 2, 2, 2), supplier.get());
+        assertEquals(1, supplier.stats().get(0).failed());
+    }
+
+    @Test
+    void lastSupplierIsNeverSkipped() {
+        AtomicInteger calls = new AtomicInteger();
+        CodeSupplier failing = () -> {
+            calls.incrementAndGet();
+            throw new IOException("unavailable");
+        };
+        FallbackCodeSupplier supplier = supplier(GENEROUS_TIMEOUT, failing);
+
+        IOException e = assertThrows(IOException.class, supplier::get);
+        assertThrows(IOException.class, supplier::get);
+        assertEquals(2, calls.get());
+        assertEquals("unavailable", e.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    void getManyUsesOneSupplier() throws IOException {
+        FallbackCodeSupplier supplier = supplier(TIMEOUT, slow, fallback);
+
+        assertEquals(List.of(FALLBACK_CODE, FALLBACK_CODE), supplier.getMany(2));
+    }
+
+    @Test
+    void largeBatchesGetMoreTime() {
+        FallbackCodeSupplier supplier = supplier(TIMEOUT, fallback);
+        long timeout = TIMEOUT.toNanos();
+
+        assertAll(
+                () -> assertEquals(timeout, supplier.timeoutNanos(1)),
+                () -> assertEquals(timeout, supplier.timeoutNanos(FallbackCodeSupplier.CODES_PER_ATTEMPT_TIMEOUT - 1)),
+                () -> assertEquals(2 * timeout, supplier.timeoutNanos(FallbackCodeSupplier.CODES_PER_ATTEMPT_TIMEOUT)),
+                () -> assertEquals(101 * timeout, supplier.timeoutNanos(100 * FallbackCodeSupplier.CODES_PER_ATTEMPT_TIMEOUT)),
+                () -> assertEquals(Long.MAX_VALUE, supplier(Duration.ofDays(100_000), fallback).timeoutNanos(Integer.MAX_VALUE))
+        );
+    }
+
+    @Test
+    void invalidParametersFail() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, FallbackCodeSupplier::of),
+                () -> assertThrows(IllegalArgumentException.class, () -> FallbackCodeSupplier.of(fallback, null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> FallbackCodeSupplier.of(Collections.emptyList(), TIMEOUT, COOL_DOWN)),
+                () -> assertThrows(IllegalArgumentException.class, () -> FallbackCodeSupplier.of(List.of(fallback), Duration.ZERO, COOL_DOWN)),
+                () -> assertThrows(IllegalArgumentException.class, () -> FallbackCodeSupplier.of(List.of(fallback), TIMEOUT, null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> supplier(TIMEOUT, fallback).getMany(-1))
+        );
+    }
+}
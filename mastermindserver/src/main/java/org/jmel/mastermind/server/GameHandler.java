@@ -0,0 +1,239 @@
+package org.jmel.mastermind.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.GameJournal;
+import org.jmel.mastermind.core.GameRegistry;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Handles the {@code /games} endpoints of a {@link MastermindServer}.
+ */
+class GameHandler implements HttpHandler {
+    static final String PATH = "/games";
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final BiFunction<Integer, Integer, ? extends CodeSupplier> codeSuppliers;
+    private final GameRegistry games;
+    private final GameJournal journal; // null if games are not journaled
+
+    GameHandler(BiFunction<Integer, Integer, ? extends CodeSupplier> codeSuppliers, GameRegistry games,
+                GameJournal journal) {
+        this.codeSuppliers = codeSuppliers;
+        this.games = games;
+        this.journal = journal;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = route(exchange);
+            } catch (IllegalArgumentException e) {
+                response = Response.error(400, e.getMessage());
+            } catch (IllegalStateException e) {
+                response = Response.error(409, e.getMessage());
+            } catch (UncheckedIOException e) {
+                response = Response.error(503, e.getCause().getMessage());
+            }
+            send(exchange, response);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] segments = exchange.getRequestURI().getPath().substring(PATH.length()).split("/");
+        // segments[0] is empty for "/games/..." and the whole path for "/games"
+        if (segments.length <= 1) {
+            if (segments.length == 1 && !segments[0].isEmpty()) return Response.error(404, "Not found");
+            if (!method.equals("POST")) return Response.error(405, "Method not allowed");
+
+            return createGame(exchange.getRequestURI());
+        }
+
+        String id = segments[1];
+        if (segments.length == 2) {
+            if (!method.equals("GET")) return Response.error(405, "Method not allowed");
+
+            return found(games.withGame(id, game -> status(id, game)));
+        }
+        if (segments.length == 3 && segments[2].equals("guesses")) {
+            if (!method.equals("POST")) return Response.error(405, "Method not allowed");
+            List<Integer> guess = parseGuess(readBody(exchange));
+
+            return found(games.withGame(id, game -> guess(id, game, guess)));
+        }
+
+        return Response.error(404, "Not found");
+    }
+
+    private Response createGame(URI uri) {
+        Map<String, String> params = queryParams(uri);
+        Game.Builder builder = new Game.Builder();
+        if (params.containsKey("codeLength")) builder.codeLength(intParam(params, "codeLength"));
+        if (params.containsKey("numColors")) builder.numColors(intParam(params, "numColors"));
+        if (params.containsKey("maxAttempts")) builder.maxAttempts(intParam(params, "maxAttempts"));
+        if (params.containsKey("feedbackStrategy"))
+            builder.feedbackStrategy(FeedbackStrategyImpl.valueOf(params.get("feedbackStrategy")));
+        builder.codeSupplier(codeSuppliers.apply(builder.codeLength(), builder.numColors()));
+
+        Game game;
+        try {
+            game = builder.build();
+        } catch (IOException e) {
+            return Response.error(503, e.getMessage());
+        }
+        String id = games.register(game);
+        if (journal != null) {
+            try {
+                journal.recordCreated(id, game);
+            } catch (IOException e) {
+                games.remove(id);
+                return Response.error(503, e.getMessage());
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.putAll(configuration(game));
+
+        return new Response(201, body);
+    }
+
+    private static Response found(Optional<Map<String, Object>> body) {
+        return body.map(found -> new Response(200, found)).orElseGet(() -> Response.error(404, "Game not found"));
+    }
+
+    private static List<Integer> parseGuess(String body) {
+        try {
+            return Stream.of(body.replaceAll("[\\[\\]]", "").trim().split("[\\s,]+"))
+                    .map(Integer::parseInt)
+                    .toList();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid guess! Must be a list of numbers, e.g. [1, 2, 3, 4]");
+        }
+    }
+
+    /**
+     * Records a guess in the journal, then processes it. Runs under the game's lock, so guesses are journaled in the
+     * order they are processed, and a guess that cannot be journaled leaves the game unchanged.
+     */
+    private Map<String, Object> guess(String id, Game game, List<Integer> guess) {
+        Feedback feedback;
+        if (journal == null) {
+            feedback = game.processGuess(guess);
+        } else {
+            Code code = Code.from(guess, game.codeLength(), game.numColors());
+            try {
+                journal.recordGuess(id, game, code);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            feedback = game.processGuessCode(code);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("feedback", feedback.toString());
+        body.putAll(state(game));
+
+        return body;
+    }
+
+    /**
+     * Describes a game. Runs under the game's lock.
+     */
+    private static Map<String, Object> status(String id, Game game) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.putAll(configuration(game));
+        body.putAll(state(game));
+        body.put("guesses", game.guessHistory().stream().map(Code::value).toList());
+        body.put("feedback", game.feedbackHistory().stream().map(Feedback::toString).toList());
+
+        return body;
+    }
+
+    private static Map<String, Object> configuration(Game game) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("codeLength", game.codeLength());
+        body.put("numColors", game.numColors());
+        body.put("maxAttempts", game.maxAttempts());
+
+        return body;
+    }
+
+    private static Map<String, Object> state(Game game) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("movesCompleted", game.movesCompleted());
+        body.put("won", game.isGameWon());
+        body.put("over", game.isGameWon() || game.movesCompleted() == game.maxAttempts());
+
+        return body;
+    }
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getQuery();
+        if (query == null || query.isEmpty()) return params;
+
+        for (String param : query.split("&")) {
+            int separator = param.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Invalid query parameter " + param);
+            params.put(URLDecoder.decode(param.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(param.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        try {
+            return Integer.parseInt(params.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid %s! Must be a number".formatted(name));
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) throw new IllegalArgumentException("Request body is too large");
+
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record Response(int status, Map<String, Object> body) {
+        private static Response error(int status, String message) {
+            return new Response(status, Map.of("error", String.valueOf(message)));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.jmel.mastermind.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the JSON documents returned by the server. Values are strings, numbers, booleans, lists and maps with string
+ * keys, which is all the server needs.
+ */
+class Json {
+    private Json() {
+        throw new AssertionError("Utility class should not be instantiated."); // See Effective Java (3rd edition) Item 4
+    }
+
+    static String write(Object value) {
+        if (value == null) return "null";
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+        if (value instanceof List<?> list)
+            return list.stream().map(Json::write).collect(Collectors.joining(",", "[", "]"));
+        if (value instanceof Map<?, ?> map)
+            return map.entrySet().stream()
+                    .map(entry -> quote(entry.getKey().toString()) + ":" + write(entry.getValue()))
+                    .collect(Collectors.joining(",", "{", "}"));
+
+        return quote(value.toString());
+    }
+
+    private static String quote(String string) {
+        StringBuilder quoted = new StringBuilder(string.length() + 2).append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) quoted.append("\\u%04x".formatted((int) c));
+                    else quoted.append(c);
+                }
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+}
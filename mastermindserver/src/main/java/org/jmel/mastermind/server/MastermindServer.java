@@ -0,0 +1,221 @@
+package org.jmel.mastermind.server;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.GameJournal;
+import org.jmel.mastermind.core.GameRegistry;
+import org.jmel.mastermind.core.secretcodesupplier.CodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.LocalRandomCodeSupplier;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * An HTTP server hosting Mastermind games.
+ * <p></p>
+ * The server exposes the following endpoints, all answering with JSON:
+ * <ul>
+ *     <li>{@code POST /games} creates a game and returns its id. The configuration can be set with the optional query
+ *     parameters {@code codeLength}, {@code numColors}, {@code maxAttempts} and {@code feedbackStrategy} (the name of
+ *     a {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl}).</li>
+ *     <li>{@code POST /games/{id}/guesses} processes the guess in the request body, e.g. {@code [1, 2, 3, 4]} or
+ *     {@code 1 2 3 4}, and returns its feedback.</li>
+ *     <li>{@code GET /games/{id}} returns the configuration, state and history of a game.</li>
+ * </ul>
+ * Each request is handled on its own virtual thread, so requests waiting on a slow client or a remote code supplier
+ * do not hold a platform thread, and a single server can host a very large number of concurrent games. Games are kept
+ * in a {@link GameRegistry}, whose expired games are evicted every {@link #EVICTION_PERIOD}.
+ * <p></p>
+ * Games are lost when the server stops, unless it is started with a {@link GameJournal}: every game created is then
+ * recorded before it is answered, and every guess before it is processed, the games of the journal are hosted again
+ * on startup, and the journal is compacted every {@link #COMPACTION_PERIOD}, which also drops the games evicted since.
+ * Requests whose record cannot be written are answered with 503 and leave the games unchanged. A journal stops after
+ * a write fails twice in a row (see {@link GameJournal}), after which games can no longer be created or played until
+ * the server is restarted.
+ */
+public class MastermindServer implements Closeable {
+    /**
+     * The port {@link #main(String[])} listens on when none is given: 8080.
+     */
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * How often expired games are evicted from the registry: every minute.
+     */
+    public static final Duration EVICTION_PERIOD = Duration.ofMinutes(1);
+    /**
+     * How often the journal of a server is compacted: every 10 minutes.
+     */
+    public static final Duration COMPACTION_PERIOD = Duration.ofMinutes(10);
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService maintenance;
+    private final GameRegistry games;
+
+    private MastermindServer(HttpServer httpServer, ExecutorService executor, ScheduledExecutorService maintenance,
+                             GameRegistry games) {
+        this.httpServer = httpServer;
+        this.executor = executor;
+        this.maintenance = maintenance;
+        this.games = games;
+    }
+
+    /**
+     * Returns the registry used by {@link #start(InetSocketAddress)}: up to a million games, evicted after 30 minutes
+     * without use, or 5 minutes once finished.
+     *
+     * @return a new instance of GameRegistry
+     */
+    public static GameRegistry defaultRegistry() {
+        return GameRegistry.of(1_000_000, Duration.ofMinutes(30), Duration.ofMinutes(5),
+                4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts a server whose secret codes are generated locally. See
+     * {@link LocalRandomCodeSupplier}.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @return a new, started instance of MastermindServer
+     * @throws IOException              if the server cannot listen on the address
+     * @throws IllegalArgumentException if the address is null
+     */
+    public static MastermindServer start(InetSocketAddress address) throws IOException {
+        return start(address, LocalRandomCodeSupplier::of, defaultRegistry());
+    }
+
+    /**
+     * Starts a server whose games are not journaled.
+     *
+     * @param address       the address to listen on; port 0 picks a free port
+     * @param codeSuppliers a function returning the code supplier of a new game from its code length and number of
+     *                      colors
+     * @param games         the registry holding the games
+     * @return a new, started instance of MastermindServer
+     * @throws IOException              if the server cannot listen on the address
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public static MastermindServer start(InetSocketAddress address,
+                                         BiFunction<Integer, Integer, ? extends CodeSupplier> codeSuppliers,
+                                         GameRegistry games) throws IOException {
+        if (Objects.isNull(address)) throw new IllegalArgumentException("Invalid address");
+        if (Objects.isNull(codeSuppliers)) throw new IllegalArgumentException("Invalid code suppliers");
+        if (Objects.isNull(games)) throw new IllegalArgumentException("Invalid game registry");
+
+        return listen(address, codeSuppliers, games, null);
+    }
+
+    /**
+     * Starts a server recording its games in a journal. The games recovered from the journal are registered before
+     * the server starts listening. The journal is not closed when the server is.
+     *
+     * @param address       the address to listen on; port 0 picks a free port
+     * @param codeSuppliers a function returning the code supplier of a new game from its code length and number of
+     *                      colors
+     * @param games         the registry holding the games
+     * @param journal       the journal the games are recorded in
+     * @return a new, started instance of MastermindServer
+     * @throws IOException              if the journal cannot be recovered or the server cannot listen on the address
+     * @throws IllegalArgumentException if a parameter is null, or a recovered game is already registered
+     */
+    public static MastermindServer start(InetSocketAddress address,
+                                         BiFunction<Integer, Integer, ? extends CodeSupplier> codeSuppliers,
+                                         GameRegistry games, GameJournal journal) throws IOException {
+        if (Objects.isNull(address)) throw new IllegalArgumentException("Invalid address");
+        if (Objects.isNull(codeSuppliers)) throw new IllegalArgumentException("Invalid code suppliers");
+        if (Objects.isNull(games)) throw new IllegalArgumentException("Invalid game registry");
+        if (Objects.isNull(journal)) throw new IllegalArgumentException("Invalid game journal");
+
+        for (Map.Entry<String, Game> game : journal.recover().entrySet()) {
+            games.register(game.getKey(), game.getValue());
+        }
+
+        return listen(address, codeSuppliers, games, journal);
+    }
+
+    private static MastermindServer listen(InetSocketAddress address,
+                                           BiFunction<Integer, Integer, ? extends CodeSupplier> codeSuppliers,
+                                           GameRegistry games, GameJournal journal) throws IOException {
+        HttpServer httpServer = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.createContext(GameHandler.PATH, new GameHandler(codeSuppliers, games, journal));
+        httpServer.setExecutor(executor);
+        httpServer.start();
+
+        ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("game-maintenance").factory());
+        long period = EVICTION_PERIOD.toMillis();
+        maintenance.scheduleAtFixedRate(games::evictExpired, period, period, TimeUnit.MILLISECONDS);
+        if (journal != null) {
+            long compactionPeriod = COMPACTION_PERIOD.toMillis();
+            maintenance.scheduleWithFixedDelay(() -> compact(journal, games), compactionPeriod, compactionPeriod,
+                    TimeUnit.MILLISECONDS);
+        }
+
+        return new MastermindServer(httpServer, executor, maintenance, games);
+    }
+
+    /**
+     * Compacts a journal. A failed compaction leaves the journal complete, and is retried at the next period.
+     */
+    private static void compact(GameJournal journal, GameRegistry games) {
+        try {
+            journal.compact(games);
+        } catch (IOException e) {
+            // The segments are kept until a compaction succeeds
+        }
+    }
+
+    /**
+     * Returns the address the server listens on, with the actual port if port 0 was requested.
+     *
+     * @return the address of the server
+     */
+    public InetSocketAddress address() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Returns the number of games hosted by the server.
+     *
+     * @return the number of games
+     */
+    public int gameCount() {
+        return games.size();
+    }
+
+    /**
+     * Stops the server, closing its connections without waiting for requests in progress.
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        maintenance.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a server on the port given as the first argument, or on {@link #DEFAULT_PORT}. If a directory is given as
+     * the second argument, games are journaled in it, and recovered from it on the next start.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the journal cannot be recovered or the server cannot listen on the port
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        InetSocketAddress address = new InetSocketAddress(port);
+        MastermindServer server = args.length > 1
+                ? start(address, LocalRandomCodeSupplier::of, defaultRegistry(), GameJournal.open(Path.of(args[1])))
+                : start(address);
+        System.out.printf("Mastermind server listening on port %d%n", server.address().getPort());
+    }
+}
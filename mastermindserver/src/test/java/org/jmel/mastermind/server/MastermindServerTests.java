@@ -0,0 +1,248 @@
+package org.jmel.mastermind.server;
+
+import org.jmel.mastermind.core.GameJournal;
+import org.jmel.mastermind.core.secretcodesupplier.LocalRandomCodeSupplier;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MastermindServerTests {
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private final HttpClient client = HttpClient.newHttpClient();
+    private MastermindServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = MastermindServer.start(new InetSocketAddress("localhost", 0),
+                (codeLength, numColors) -> UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4)),
+                MastermindServer.defaultRegistry());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:%d%s".formatted(server.address().getPort(), path));
+    }
+
+    private String createGame(String query) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/games" + query, "");
+        assertEquals(201, response.statusCode(), response.body());
+        Matcher matcher = ID.matcher(response.body());
+        assertTrue(matcher.find());
+
+        return matcher.group(1);
+    }
+
+    @Nested
+    class GameplayTests {
+        @Test
+        void createGuessAndWin() throws Exception {
+            String id = createGame("?maxAttempts=5&feedbackStrategy=PERFECT");
+
+            HttpResponse<String> miss = post("/games/%s/guesses".formatted(id), "[1, 2, 3, 5]");
+            assertEquals(200, miss.statusCode());
+            assertTrue(miss.body().contains("\"movesCompleted\":1"));
+            assertTrue(miss.body().contains("\"won\":false"));
+
+            HttpResponse<String> hit = post("/games/%s/guesses".formatted(id), "1 2 3 4");
+            assertEquals(200, hit.statusCode());
+            assertTrue(hit.body().contains("\"won\":true"));
+            assertTrue(hit.body().contains("\"over\":true"));
+
+            HttpResponse<String> status = get("/games/" + id);
+            assertEquals(200, status.statusCode());
+            assertTrue(status.body().contains("\"maxAttempts\":5"));
+            assertTrue(status.body().contains("\"guesses\":[[1,2,3,5],[1,2,3,4]]"));
+        }
+
+        @Test
+        void guessAfterWinIsAConflict() throws Exception {
+            String id = createGame("");
+            post("/games/%s/guesses".formatted(id), "[1,2,3,4]");
+
+            assertEquals(409, post("/games/%s/guesses".formatted(id), "[1,2,3,4]").statusCode());
+        }
+
+        @Test
+        void invalidRequests() throws Exception {
+            String id = createGame("");
+
+            assertEquals(400, post("/games?codeLength=0", "").statusCode());
+            assertEquals(400, post("/games?feedbackStrategy=UNKNOWN", "").statusCode());
+            assertEquals(400, post("/games/%s/guesses".formatted(id), "[1, 2, x, 4]").statusCode());
+            assertEquals(400, post("/games/%s/guesses".formatted(id), "[1, 2, 3]").statusCode());
+            assertEquals(404, get("/games/unknown").statusCode());
+            assertEquals(404, post("/games/unknown/guesses", "[1,2,3,4]").statusCode());
+            assertEquals(404, get("/games/%s/other".formatted(id)).statusCode());
+            assertEquals(405, get("/games").statusCode());
+            assertEquals(405, get("/games/%s/guesses".formatted(id)).statusCode());
+        }
+
+        @Test
+        void failingCodeSupplierIsUnavailable() throws Exception {
+            try (MastermindServer failing = MastermindServer.start(new InetSocketAddress("localhost", 0),
+                    (codeLength, numColors) -> () -> {
+                        throw new IOException("No codes");
+                    }, MastermindServer.defaultRegistry())) {
+                URI uri = URI.create("http://localhost:%d/games".formatted(failing.address().getPort()));
+                HttpResponse<String> response = client.send(
+                        HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                        HttpResponse.BodyHandlers.ofString());
+
+                assertEquals(503, response.statusCode());
+                assertEquals(0, failing.gameCount());
+            }
+        }
+    }
+
+    @Nested
+    class ConcurrencyTests {
+        @DisplayName("Concurrent clients can create and play many games at once.")
+        @Test
+        void concurrentGames() throws Exception {
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    results.add(clients.submit(() -> {
+                        String id = createGame("");
+                        post("/games/%s/guesses".formatted(id), "[0,0,0,0]");
+
+                        return post("/games/%s/guesses".formatted(id), "[1,2,3,4]").body();
+                    }));
+                }
+
+                for (Future<String> result : results) {
+                    assertTrue(result.get().contains("\"movesCompleted\":2"));
+                }
+            }
+
+            assertEquals(200, server.gameCount());
+        }
+
+        @Test
+        void concurrentGuessesToOneGameAreSerialized() throws Exception {
+            String id = createGame("?maxAttempts=50");
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 50; i++) {
+                    clients.submit(() -> post("/games/%s/guesses".formatted(id), "[0,0,0,0]"));
+                }
+            }
+
+            String status = get("/games/" + id).body();
+            assertTrue(status.contains("\"movesCompleted\":50"), status);
+            assertEquals(409, post("/games/%s/guesses".formatted(id), "[0,0,0,0]").statusCode());
+        }
+    }
+
+    @Nested
+    class JournalTests {
+        @TempDir
+        Path directory;
+
+        private MastermindServer startJournaled(GameJournal journal) throws IOException {
+            return MastermindServer.start(new InetSocketAddress("localhost", 0),
+                    (codeLength, numColors) -> UserDefinedCodeSupplier.of(List.of(1, 2, 3, 4)),
+                    MastermindServer.defaultRegistry(), journal);
+        }
+
+        @DisplayName("Games of a journaled server are hosted again after a restart.")
+        @Test
+        void gamesSurviveRestart() throws Exception {
+            server.close();
+            String id;
+            try (GameJournal journal = GameJournal.open(directory)) {
+                server = startJournaled(journal);
+                id = createGame("?maxAttempts=5&feedbackStrategy=PERFECT");
+                post("/games/%s/guesses".formatted(id), "[1, 2, 3, 5]");
+                server.close();
+            }
+
+            try (GameJournal journal = GameJournal.open(directory)) {
+                server = startJournaled(journal);
+
+                assertEquals(1, server.gameCount());
+                String status = get("/games/" + id).body();
+                assertTrue(status.contains("\"maxAttempts\":5"), status);
+                assertTrue(status.contains("\"guesses\":[[1,2,3,5]]"), status);
+                assertTrue(post("/games/%s/guesses".formatted(id), "1 2 3 4").body().contains("\"won\":true"));
+            }
+        }
+
+        @Test
+        void closedJournalIsUnavailable() throws Exception {
+            server.close();
+            GameJournal journal = GameJournal.open(directory);
+            server = startJournaled(journal);
+            journal.close();
+
+            assertEquals(503, post("/games", "").statusCode());
+            assertEquals(0, server.gameCount());
+        }
+
+        @DisplayName("A guess that cannot be journaled is refused without using an attempt.")
+        @Test
+        void guessAfterJournalFailureLeavesGameUnchanged() throws Exception {
+            server.close();
+            GameJournal journal = GameJournal.open(directory);
+            server = startJournaled(journal);
+            String id = createGame("?maxAttempts=5");
+            post("/games/%s/guesses".formatted(id), "[0, 0, 0, 0]");
+            journal.close();
+
+            assertEquals(503, post("/games/%s/guesses".formatted(id), "[1, 2, 3, 5]").statusCode());
+            assertEquals(503, post("/games/%s/guesses".formatted(id), "[1, 2, 3, 5]").statusCode());
+            String status = get("/games/" + id).body();
+            assertTrue(status.contains("\"movesCompleted\":1"), status);
+            assertTrue(status.contains("\"guesses\":[[0,0,0,0]]"), status);
+            server.close();
+
+            try (GameJournal reopened = GameJournal.open(directory)) {
+                server = startJournaled(reopened);
+
+                assertTrue(get("/games/" + id).body().contains("\"movesCompleted\":1"));
+            }
+        }
+    }
+
+    @Test
+    void invalidParams() {
+        assertThrows(IllegalArgumentException.class, () -> MastermindServer.start(null));
+        assertThrows(IllegalArgumentException.class, () -> MastermindServer.start(new InetSocketAddress(0), null, MastermindServer.defaultRegistry()));
+        assertThrows(IllegalArgumentException.class, () -> MastermindServer.start(new InetSocketAddress(0), LocalRandomCodeSupplier::of, null));
+        assertThrows(IllegalArgumentException.class, () -> MastermindServer.start(new InetSocketAddress(0), LocalRandomCodeSupplier::of, MastermindServer.defaultRegistry(), null));
+    }
+}
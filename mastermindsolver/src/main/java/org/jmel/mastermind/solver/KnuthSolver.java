@@ -0,0 +1,144 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A solver implementing Knuth's minimax algorithm.
+ * <p></p>
+ * The solver keeps the set of codes that are consistent with all the feedback received so far. Each guess is chosen
+ * among all codes as the one whose worst-case feedback leaves the fewest consistent codes. Ties are broken by
+ * preferring codes that are still consistent (they might win right away), and then by the lowest code in lexicographic
+ * order, so the solver is fully deterministic. For the classic game of 4 positions and 6 colors with
+ * {@code ORIGINAL_MASTERMIND} feedback, this wins every game in at most 5 guesses.
+ * <p></p>
+ * Any feedback strategy that supports ordinals can be used (see
+ * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy#supportsOrdinals(int)}), which includes every
+ * {@link org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl}. The opening guess depends only on the game
+ * configuration and is computed once and shared by all solvers of that configuration.
+ */
+public class KnuthSolver implements Solver {
+    private final SearchSpace space;
+    private final int[] candidates;
+    private int numCandidates;
+    private boolean opening = true;
+    private ForkJoinPool pool; // null to score on the calling thread
+
+    private KnuthSolver(SearchSpace space) {
+        this.space = space;
+        this.candidates = new int[space.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i;
+        }
+        this.numCandidates = candidates.length;
+    }
+
+    /**
+     * Creates a new instance of KnuthSolver for the given configuration.
+     *
+     * @param codeLength the length of the code
+     * @param numColors  the number of colors that can be used in the code
+     * @param strategy   the feedback strategy of the game to be solved
+     * @return a new instance of KnuthSolver
+     * @throws IllegalArgumentException if the strategy does not support ordinals, or if there are more than 65536
+     *                                  possible codes
+     */
+    public static KnuthSolver of(int codeLength, int numColors, FeedbackStrategy strategy) {
+        return new KnuthSolver(SearchSpace.of(codeLength, numColors, strategy));
+    }
+
+    /**
+     * Creates a new instance of KnuthSolver for the configuration of a game.
+     *
+     * @param game the game to be solved
+     * @return a new instance of KnuthSolver
+     * @throws IllegalArgumentException if the game's strategy does not support ordinals, or if there are more than
+     *                                  65536 possible codes
+     */
+    public static KnuthSolver of(Game game) {
+        if (Objects.isNull(game)) throw new IllegalArgumentException("Invalid game");
+
+        return of(game.codeLength(), game.numColors(), game.feedbackStrategy());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Code nextGuess() {
+        if (numCandidates == 0) throw new IllegalStateException("No code is consistent with the feedback received");
+        if (numCandidates == 1) return space.code(candidates[0]);
+        if (opening) return space.openingGuess(() -> space.code(bestGuess()));
+
+        return space.code(bestGuess());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the guess does not match the solver's configuration
+     */
+    @Override
+    public void update(Code guess, Feedback feedback) {
+        if (Objects.isNull(guess) || guess.length() != space.codeLength() || guess.numColors() != space.numColors())
+            throw new IllegalArgumentException("Guess does not match the solver's configuration");
+
+        opening = false;
+        int guessIndex = (int) guess.packed();
+        int ordinal = feedback.ordinal();
+        int kept = 0;
+        for (int i = 0; i < numCandidates; i++) {
+            int candidate = candidates[i];
+            if (space.ordinal(candidate, guessIndex) == ordinal) candidates[kept++] = candidate;
+        }
+        numCandidates = kept;
+    }
+
+    /**
+     * Returns the number of codes still consistent with the feedback received.
+     *
+     * @return the number of remaining candidate codes
+     */
+    public int remainingCandidates() {
+        return numCandidates;
+    }
+
+    /**
+     * Makes the solver score guesses in parallel on the common fork/join pool. See {@link #parallel(ForkJoinPool)}.
+     *
+     * @return this solver
+     */
+    public KnuthSolver parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes the solver score guesses in parallel on the given pool.
+     * <p></p>
+     * Choosing a guess scores every code against every remaining candidate, which dominates the solver's running time
+     * early in a game. Guesses are split across the pool's threads, and the result is always the same guess the
+     * sequential solver would choose.
+     *
+     * @param pool the pool used to score guesses
+     * @return this solver
+     * @throws IllegalArgumentException if the pool is null
+     */
+    public KnuthSolver parallel(ForkJoinPool pool) {
+        if (Objects.isNull(pool)) throw new IllegalArgumentException("Invalid fork/join pool");
+        this.pool = pool;
+
+        return this;
+    }
+
+    private int bestGuess() {
+        PartitionScorer scorer = new PartitionScorer(space, candidates, numCandidates);
+        PartitionStats best = pool == null ? scorer.bestSequential() : scorer.bestParallel(pool);
+
+        return best.guess();
+    }
+}
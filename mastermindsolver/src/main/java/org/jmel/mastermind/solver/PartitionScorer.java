@@ -0,0 +1,113 @@
+package org.jmel.mastermind.solver;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the best guess for a set of candidate codes by scoring every code of a search space against every candidate.
+ * <p></p>
+ * This is quadratic in the size of the search space, so the guesses can be split across a fork/join pool. Each task
+ * scores a contiguous range of guesses and the per-range winners are reduced with {@link PartitionStats#MINIMAX}, a
+ * total order, so the parallel result is always the same as the sequential one.
+ */
+final class PartitionScorer {
+    private static final int MIN_SCORINGS_PER_TASK = 1 << 15; // below this, forking costs more than it saves
+
+    private final SearchSpace space;
+    private final int[] candidates;
+    private final int numCandidates;
+    private final boolean[] isCandidate;
+
+    PartitionScorer(SearchSpace space, int[] candidates, int numCandidates) {
+        this.space = space;
+        this.candidates = candidates;
+        this.numCandidates = numCandidates;
+        this.isCandidate = new boolean[space.size()];
+        for (int i = 0; i < numCandidates; i++) {
+            isCandidate[candidates[i]] = true;
+        }
+    }
+
+    /**
+     * Returns the best guess, scoring on the calling thread.
+     */
+    PartitionStats bestSequential() {
+        return bestInRange(0, space.size());
+    }
+
+    /**
+     * Returns the best guess, scoring on the given pool.
+     */
+    PartitionStats bestParallel(ForkJoinPool pool) {
+        return pool.invoke(new ScoreTask(this, 0, space.size()));
+    }
+
+    private PartitionStats bestInRange(int from, int to) {
+        int[] partitionSizes = new int[space.ordinalCount()];
+        PartitionStats best = null;
+        for (int guess = from; guess < to; guess++) {
+            best = PartitionStats.better(best, score(guess, partitionSizes));
+        }
+
+        return best;
+    }
+
+    /**
+     * Scores one guess. {@code partitionSizes} must be all zeros and is left all zeros.
+     */
+    PartitionStats score(int guess, int[] partitionSizes) {
+        int largestPart = 0;
+        int numParts = 0;
+        long sumOfSquares = 0;
+        for (int i = 0; i < numCandidates; i++) {
+            int size = ++partitionSizes[space.ordinal(candidates[i], guess)];
+            if (size == 1) numParts++;
+            if (size > largestPart) largestPart = size;
+            sumOfSquares += 2L * size - 1; // (k + 1)^2 - k^2
+        }
+
+        // Clearing only the touched counters is cheaper when there are more outcomes than candidates
+        if (partitionSizes.length <= numCandidates) {
+            Arrays.fill(partitionSizes, 0);
+        } else {
+            for (int i = 0; i < numCandidates; i++) {
+                partitionSizes[space.ordinal(candidates[i], guess)] = 0;
+            }
+        }
+
+        return new PartitionStats(guess, isCandidate[guess], largestPart, numParts, sumOfSquares);
+    }
+
+    /**
+     * Scores a range of guesses, splitting it in halves while there is enough work. Tasks are never serialized.
+     */
+    private static final class ScoreTask extends RecursiveTask<PartitionStats> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient PartitionScorer scorer;
+        private final int from;
+        private final int to;
+
+        private ScoreTask(PartitionScorer scorer, int from, int to) {
+            this.scorer = scorer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PartitionStats compute() {
+            if (to - from < 2 || (long) (to - from) * scorer.numCandidates <= MIN_SCORINGS_PER_TASK)
+                return scorer.bestInRange(from, to);
+
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scorer, from, middle);
+            left.fork();
+            PartitionStats right = new ScoreTask(scorer, middle, to).compute();
+
+            return PartitionStats.better(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.jmel.mastermind.solver;
+
+import java.util.Comparator;
+
+/**
+ * Statistics of how a guess splits the remaining candidate codes by feedback.
+ *
+ * @param guess        the index of the guess in its search space
+ * @param consistent   true if the guess is itself one of the candidates
+ * @param largestPart  the number of candidates in the largest group sharing the same feedback
+ * @param numParts     the number of distinct feedbacks among the candidates
+ * @param sumOfSquares the sum of the squared group sizes, proportional to the expected number of remaining candidates
+ */
+record PartitionStats(int guess, boolean consistent, int largestPart, int numParts, long sumOfSquares) {
+    /**
+     * Orders guesses by Knuth's minimax rule: smallest largest part first, then consistent guesses, then lowest index.
+     * Every guess has a distinct index, so this is a total order and the best guess does not depend on the order in
+     * which guesses were scored.
+     */
+    static final Comparator<PartitionStats> MINIMAX = Comparator.comparingInt(PartitionStats::largestPart)
+            .thenComparing(PartitionStats::consistent, Comparator.reverseOrder())
+            .thenComparingInt(PartitionStats::guess);
+
+    static PartitionStats better(PartitionStats a, PartitionStats b) {
+        if (a == null) return b;
+        if (b == null) return a;
+
+        return MINIMAX.compare(a, b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,148 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.CodeSpace;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategy;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackTable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Every code of a game configuration, together with the strategy used to score them.
+ * <p></p>
+ * Instances are shared between solvers of the same configuration, so the list of codes and the best opening guess
+ * are only computed once. Only the {@value #CACHE_SIZE} most recently used configurations are kept, as a private table
+ * can take up to 64 MiB; strategies are compared by identity, so each lambda strategy is its own configuration. Scoring goes through a {@link FeedbackTable}: the one registered for the configuration if
+ * there is one, otherwise a private table built on first use when it fits in {@link FeedbackTable#DEFAULT_MAX_BYTES}.
+ */
+final class SearchSpace {
+    static final int MAX_CODES = 1 << 16; // minimax is quadratic in the number of codes
+    static final int CACHE_SIZE = 4;
+    private static final Map<Key, SearchSpace> cache = new LinkedHashMap<>(16, 0.75f, true) { // in access order
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, SearchSpace> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int codeLength;
+    private final int numColors;
+    private final FeedbackStrategy strategy;
+    private final FeedbackTable table; // null if no table fits
+    private final Code[] codes;
+    private final int ordinalCount;
+    private volatile Code openingGuess;
+
+    private SearchSpace(int codeLength, int numColors, FeedbackStrategy strategy) {
+        this.codeLength = codeLength;
+        this.numColors = numColors;
+        this.strategy = strategy;
+        this.ordinalCount = strategy.ordinalCount(codeLength);
+
+        this.codes = CodeSpace.of(codeLength, numColors).stream().toArray(Code[]::new);
+
+        this.table = FeedbackTable.lookup(strategy, codeLength, numColors)
+                .or(() -> buildTable(strategy, codeLength, numColors))
+                .filter(FeedbackTable::usesOrdinals)
+                .orElse(null);
+    }
+
+    private static Optional<FeedbackTable> buildTable(FeedbackStrategy strategy, int codeLength, int numColors) {
+        try {
+            return Optional.of(FeedbackTable.build(strategy, codeLength, numColors));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the shared search space for a configuration.
+     *
+     * @throws IllegalArgumentException if the strategy does not support ordinals or there are too many codes
+     */
+    static SearchSpace of(int codeLength, int numColors, FeedbackStrategy strategy) {
+        if (Objects.isNull(strategy)) throw new IllegalArgumentException("Invalid feedback strategy");
+        if (!strategy.supportsOrdinals(codeLength))
+            throw new IllegalArgumentException("Feedback strategy must support ordinals");
+        long size = spaceSize(codeLength, numColors);
+        if (size < 1 || size > MAX_CODES)
+            throw new IllegalArgumentException("Too many codes to solve: at most %d are supported".formatted(MAX_CODES));
+
+        Key key = new Key(codeLength, numColors, strategy);
+        synchronized (cache) {
+            SearchSpace space = cache.get(key);
+            if (space != null) return space;
+        }
+        // Built outside the lock, so solvers of other configurations are not held up; a racing thread may build it too
+        SearchSpace space = new SearchSpace(codeLength, numColors, strategy);
+        synchronized (cache) {
+            SearchSpace cached = cache.putIfAbsent(key, space);
+
+            return cached != null ? cached : space;
+        }
+    }
+
+    private static long spaceSize(int codeLength, int numColors) {
+        if (codeLength < 1 || numColors <= 1 || !Code.isPackable(codeLength, numColors)) return -1;
+
+        return CodeSpace.of(codeLength, numColors).size();
+    }
+
+    int codeLength() {
+        return codeLength;
+    }
+
+    int numColors() {
+        return numColors;
+    }
+
+    FeedbackStrategy strategy() {
+        return strategy;
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    Code code(int index) {
+        return codes[index];
+    }
+
+    int ordinalCount() {
+        return ordinalCount;
+    }
+
+    /**
+     * Returns the ordinal of the feedback for a candidate secret code and a guess, both given as indexes.
+     */
+    int ordinal(int secretCode, int guess) {
+        if (table != null) return table.outcomeIndex(secretCode, guess);
+
+        return strategy.ordinal(codes[secretCode], codes[guess]);
+    }
+
+    /**
+     * Returns the minimax opening guess, computing it with {@code finder} the first time it is requested.
+     */
+    Code openingGuess(Supplier<Code> finder) {
+        Code guess = openingGuess;
+        if (guess == null) {
+            synchronized (this) {
+                guess = openingGuess;
+                if (guess == null) {
+                    guess = finder.get();
+                    openingGuess = guess;
+                }
+            }
+        }
+
+        return guess;
+    }
+
+    private record Key(int codeLength, int numColors, FeedbackStrategy strategy) {
+    }
+}
@@ -0,0 +1,44 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+
+/**
+ * Represents an automated player for a single Mastermind game.
+ * <p></p>
+ * A solver proposes guesses with {@link #nextGuess()} and narrows down its search with the feedback received for each
+ * guess through {@link #update(Code, Feedback)}. {@link #solve(Game)} plays a whole game this way.
+ */
+public interface Solver {
+    /**
+     * Returns the guess the solver would make next.
+     *
+     * @return a Code representing the next guess
+     * @throws IllegalStateException if no code is consistent with the feedback received so far
+     */
+    Code nextGuess();
+
+    /**
+     * Informs the solver of the feedback received for a guess.
+     *
+     * @param guess    the guess that was made
+     * @param feedback the feedback received for the guess
+     */
+    void update(Code guess, Feedback feedback);
+
+    /**
+     * Plays a game until it is won or there are no attempts left.
+     *
+     * @param game a game that uses the same configuration as the solver
+     * @return true if the game was won
+     */
+    default boolean solve(Game game) {
+        while (!game.isGameWon() && game.movesCompleted() < game.maxAttempts()) {
+            Code guess = nextGuess();
+            update(guess, game.processGuessCode(guess));
+        }
+
+        return game.isGameWon();
+    }
+}
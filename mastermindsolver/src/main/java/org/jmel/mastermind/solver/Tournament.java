@@ -0,0 +1,163 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Plays many games with an automated player across several threads and reports how the player fared.
+ * <p></p>
+ * Games are built from a {@link Game.Builder}, so any configuration, feedback strategy and code supplier can be
+ * simulated; for large runs, a local supplier such as
+ * {@link org.jmel.mastermind.core.secretcodesupplier.SeededRandomCodeSupplier} avoids network calls. Workers build
+ * games in batches of {@value #BATCH_SIZE} with {@link Game.Builder#buildMany(int)}, one batch at a time, so code
+ * suppliers do not need to be thread-safe. Each game is played by a new solver created by the player function, e.g.
+ * {@code KnuthSolver::of}. The builder must not be changed while a tournament runs.
+ */
+public class Tournament {
+    static final int BATCH_SIZE = 256;
+    private final Game.Builder gameBuilder;
+    private final Function<Game, ? extends Solver> player;
+    private final int threads;
+
+    private Tournament(Game.Builder gameBuilder, Function<Game, ? extends Solver> player, int threads) {
+        this.gameBuilder = gameBuilder;
+        this.player = player;
+        this.threads = threads;
+    }
+
+    /**
+     * Creates a new tournament using one thread per available processor.
+     *
+     * @param gameBuilder the builder the games are built with
+     * @param player      a function creating the solver that plays a game
+     * @return a new instance of Tournament
+     * @throws IllegalArgumentException if the builder or the player is null
+     */
+    public static Tournament of(Game.Builder gameBuilder, Function<Game, ? extends Solver> player) {
+        return of(gameBuilder, player, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new tournament.
+     *
+     * @param gameBuilder the builder the games are built with
+     * @param player      a function creating the solver that plays a game
+     * @param threads     the number of threads playing games
+     * @return a new instance of Tournament
+     * @throws IllegalArgumentException if the builder or the player is null, or the number of threads is less than 1
+     */
+    public static Tournament of(Game.Builder gameBuilder, Function<Game, ? extends Solver> player, int threads) {
+        if (Objects.isNull(gameBuilder)) throw new IllegalArgumentException("Invalid game builder");
+        if (Objects.isNull(player)) throw new IllegalArgumentException("Invalid player");
+        if (threads < 1) throw new IllegalArgumentException("Invalid number of threads");
+
+        return new Tournament(gameBuilder, player, threads);
+    }
+
+    /**
+     * Plays a number of games and waits for all of them to finish.
+     *
+     * @param numGames the number of games to play
+     * @return the results of the games
+     * @throws IllegalArgumentException if the number of games is negative
+     * @throws IOException              if the code supplier fails to supply codes
+     * @throws InterruptedException     if the calling thread is interrupted while waiting
+     */
+    public TournamentResult run(long numGames) throws IOException, InterruptedException {
+        if (numGames < 0) throw new IllegalArgumentException("Invalid number of games");
+
+        AtomicLong unclaimed = new AtomicLong(numGames);
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Tally>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> play(unclaimed)));
+            }
+
+            Tally total = new Tally();
+            for (Future<Tally> worker : workers) {
+                total.add(worker.get());
+            }
+
+            return total.toResult(Duration.ofNanos(System.nanoTime() - start));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Tournament worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Tally play(AtomicLong unclaimed) {
+        Tally tally = new Tally();
+        long batch;
+        while ((batch = claim(unclaimed)) > 0 && !Thread.currentThread().isInterrupted()) {
+            for (Game game : buildGames((int) batch)) {
+                Solver solver = player.apply(game);
+                tally.record(game, solver.solve(game));
+            }
+        }
+
+        return tally;
+    }
+
+    private static long claim(AtomicLong unclaimed) {
+        long left = unclaimed.getAndUpdate(n -> Math.max(0, n - BATCH_SIZE));
+
+        return Math.min(left, BATCH_SIZE);
+    }
+
+    private List<Game> buildGames(int count) {
+        try {
+            synchronized (gameBuilder) {
+                return gameBuilder.buildMany(count);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Per-thread counters, merged once all games are played.
+     */
+    private static final class Tally {
+        private long[] wins = new long[0]; // wins[n] is the number of games won with n guesses
+        private long games;
+
+        private void record(Game game, boolean won) {
+            games++;
+            if (!won) return;
+
+            int guesses = game.movesCompleted();
+            if (guesses >= wins.length) wins = Arrays.copyOf(wins, guesses + 1);
+            wins[guesses]++;
+        }
+
+        private void add(Tally other) {
+            games += other.games;
+            if (other.wins.length > wins.length) wins = Arrays.copyOf(wins, other.wins.length);
+            for (int i = 0; i < other.wins.length; i++) {
+                wins[i] += other.wins[i];
+            }
+        }
+
+        private TournamentResult toResult(Duration elapsed) {
+            return new TournamentResult(games, wins, elapsed);
+        }
+    }
+}
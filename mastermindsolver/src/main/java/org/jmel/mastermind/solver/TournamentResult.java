@@ -0,0 +1,139 @@
+package org.jmel.mastermind.solver;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The outcome of a {@link Tournament}.
+ *
+ * @param games   the number of games played
+ * @param wins    the number of games won with each number of guesses: {@code wins[n]} games were won with exactly
+ *                {@code n} guesses
+ * @param elapsed the wall-clock time the tournament took
+ */
+public record TournamentResult(long games, long[] wins, Duration elapsed) {
+    /**
+     * Creates a result, copying the wins array.
+     *
+     * @throws IllegalArgumentException if a parameter is null or negative, or there are more wins than games
+     */
+    public TournamentResult {
+        if (games < 0) throw new IllegalArgumentException("Invalid number of games");
+        if (Objects.isNull(wins) || Arrays.stream(wins).anyMatch(n -> n < 0) || Arrays.stream(wins).sum() > games)
+            throw new IllegalArgumentException("Invalid wins");
+        if (Objects.isNull(elapsed) || elapsed.isNegative()) throw new IllegalArgumentException("Invalid duration");
+
+        wins = wins.clone();
+    }
+
+    /**
+     * Returns the number of games won with each number of guesses.
+     *
+     * @return a copy of the wins array
+     */
+    @Override
+    public long[] wins() {
+        return wins.clone();
+    }
+
+    /**
+     * Returns the number of games won with exactly a given number of guesses.
+     *
+     * @param guesses a number of guesses
+     * @return the number of games won with that many guesses
+     */
+    public long winsWith(int guesses) {
+        return guesses >= 0 && guesses < wins.length ? wins[guesses] : 0;
+    }
+
+    /**
+     * Returns the number of games won within the maximum number of attempts.
+     *
+     * @return the number of games won
+     */
+    public long totalWins() {
+        return Arrays.stream(wins).sum();
+    }
+
+    /**
+     * Returns the fraction of games won within the maximum number of attempts.
+     *
+     * @return a number between 0 and 1, or 0 if no game was played
+     */
+    public double winRate() {
+        return games == 0 ? 0 : (double) totalWins() / games;
+    }
+
+    /**
+     * Returns the average number of guesses of the games that were won.
+     *
+     * @return the average number of guesses to win, or 0 if no game was won
+     */
+    public double averageGuessesToWin() {
+        long totalWins = totalWins();
+        if (totalWins == 0) return 0;
+
+        long guesses = 0;
+        for (int n = 0; n < wins.length; n++) {
+            guesses += n * wins[n];
+        }
+
+        return (double) guesses / totalWins;
+    }
+
+    /**
+     * Returns the largest number of guesses a game was won with.
+     *
+     * @return the largest number of guesses to win, or 0 if no game was won
+     */
+    public int maxGuessesToWin() {
+        for (int n = wins.length - 1; n > 0; n--) {
+            if (wins[n] > 0) return n;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the throughput of the tournament.
+     *
+     * @return the number of games played per second of wall-clock time
+     */
+    public double gamesPerSecond() {
+        long nanos = elapsed.toNanos();
+
+        return nanos == 0 ? 0 : games * 1e9 / nanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TournamentResult that)) return false;
+
+        return games == that.games && Arrays.equals(wins, that.wins) && elapsed.equals(that.elapsed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(games, Arrays.hashCode(wins), elapsed);
+    }
+
+    /**
+     * Returns a summary of the results, e.g. {@code 1000 games, 100.0% won, 4.48 guesses on average (max 5),
+     * 2500 games/s}.
+     *
+     * @return a human-readable summary
+     */
+    @Override
+    public String toString() {
+        return "%d games, %.1f%% won, %.2f guesses on average (max %d), %.0f games/s"
+                .formatted(games, winRate() * 100, averageGuessesToWin(), maxGuessesToWin(), gamesPerSecond());
+    }
+}
@@ -0,0 +1,77 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.secretcodesupplier.UserDefinedCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KnuthSolverTests {
+    @DisplayName("Every classic 4x6 game is solved in at most 5 guesses.")
+    @Test
+    void solvesClassicGameInFiveGuesses() throws IOException {
+        for (long secret = 0; secret < 1296; secret++) {
+            Game game = newGame(Code.fromPacked(secret, 4, 6).value(), 6, FeedbackStrategyImpl.ORIGINAL_MASTERMIND);
+
+            assertTrue(KnuthSolver.of(game).solve(game));
+            assertTrue(game.movesCompleted() <= 5, "Secret %s took %d guesses".formatted(game.guessHistory(), game.movesCompleted()));
+        }
+    }
+
+    @Test
+    void classicOpeningGuessIsKnuths() {
+        KnuthSolver solver = KnuthSolver.of(4, 6, FeedbackStrategyImpl.ORIGINAL_MASTERMIND);
+
+        assertEquals(List.of(0, 0, 1, 1), solver.nextGuess().value());
+    }
+
+    @Test
+    void solvesDefaultGames() throws IOException {
+        Random random = new Random(7);
+        for (int i = 0; i < 25; i++) {
+            Game game = newGame(Code.fromPacked(random.nextInt(4096), 4, 8).value(), 8, FeedbackStrategyImpl.DEFAULT);
+
+            assertTrue(KnuthSolver.of(game).solve(game));
+        }
+    }
+
+    @Test
+    void solvesWithEveryStrategy() throws IOException {
+        for (FeedbackStrategyImpl strategy : FeedbackStrategyImpl.values()) {
+            Game game = newGame(List.of(3, 0, 2, 2), 4, strategy);
+
+            assertTrue(KnuthSolver.of(game).solve(game), strategy.name());
+        }
+    }
+
+    @Test
+    void candidatesShrinkWithFeedback() throws IOException {
+        Game game = newGame(List.of(1, 2, 3, 4), 6, FeedbackStrategyImpl.ORIGINAL_MASTERMIND);
+        KnuthSolver solver = KnuthSolver.of(game);
+        Code guess = solver.nextGuess();
+        solver.update(guess, game.processGuessCode(guess));
+
+        assertTrue(solver.remainingCandidates() < 1296);
+    }
+
+    @Test
+    void tooLargeConfigurationFails() {
+        assertThrows(IllegalArgumentException.class, () -> KnuthSolver.of(10, 10, FeedbackStrategyImpl.DEFAULT));
+    }
+
+    private static Game newGame(List<Integer> secret, int numColors, FeedbackStrategyImpl strategy) throws IOException {
+        return new Game.Builder()
+                .codeLength(secret.size())
+                .numColors(numColors)
+                .feedbackStrategy(strategy)
+                .codeSupplier(UserDefinedCodeSupplier.of(secret))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionScorerTests {
+    @Test
+    void parallelAndSequentialScoringAgree() {
+        SearchSpace space = SearchSpace.of(4, 6, FeedbackStrategyImpl.ORIGINAL_MASTERMIND);
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                int numCandidates = 1 + random.nextInt(space.size());
+                int[] candidates = random.ints(0, space.size()).distinct().limit(numCandidates).sorted().toArray();
+                PartitionScorer scorer = new PartitionScorer(space, candidates, candidates.length);
+
+                assertEquals(scorer.bestSequential(), scorer.bestParallel(pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void statsDescribeThePartition() {
+        SearchSpace space = SearchSpace.of(2, 3, FeedbackStrategyImpl.PERFECT);
+        int[] candidates = {0, 1, 2, 3}; // 00, 01, 02, 10
+        PartitionScorer scorer = new PartitionScorer(space, candidates, candidates.length);
+        PartitionStats stats = scorer.score(0, new int[space.ordinalCount()]); // guess 00 gives 2, 1, 1, 1 well placed
+
+        assertAll(
+                () -> assertTrue(stats.consistent()),
+                () -> assertEquals(3, stats.largestPart()),
+                () -> assertEquals(2, stats.numParts()),
+                () -> assertEquals(10, stats.sumOfSquares())
+        );
+    }
+
+    @Test
+    void parallelSolverPlaysLikeSequentialSolver() {
+        KnuthSolver sequential = KnuthSolver.of(4, 6, FeedbackStrategyImpl.DEFAULT);
+        KnuthSolver parallel = KnuthSolver.of(4, 6, FeedbackStrategyImpl.DEFAULT).parallel();
+        Code secret = Code.from(List.of(5, 2, 2, 0), 4, 6);
+
+        for (int move = 0; move < 4; move++) {
+            Code guess = sequential.nextGuess();
+            assertEquals(guess, parallel.nextGuess());
+
+            sequential.update(guess, FeedbackStrategyImpl.DEFAULT.get(secret, guess));
+            parallel.update(guess, FeedbackStrategyImpl.DEFAULT.get(secret, guess));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchSpaceTests {
+    @Test
+    void spacesAreSharedPerConfiguration() {
+        SearchSpace space = SearchSpace.of(2, 3, FeedbackStrategyImpl.PERFECT);
+
+        assertSame(space, SearchSpace.of(2, 3, FeedbackStrategyImpl.PERFECT));
+        assertNotSame(space, SearchSpace.of(2, 3, FeedbackStrategyImpl.DEFAULT));
+        assertEquals(9, space.size());
+    }
+
+    @Test
+    void leastRecentlyUsedSpacesAreEvicted() {
+        SearchSpace space = SearchSpace.of(2, 2, FeedbackStrategyImpl.PERFECT);
+        for (int numColors = 3; numColors < 3 + SearchSpace.CACHE_SIZE; numColors++) {
+            SearchSpace.of(2, numColors, FeedbackStrategyImpl.PERFECT);
+        }
+
+        assertNotSame(space, SearchSpace.of(2, 2, FeedbackStrategyImpl.PERFECT));
+    }
+
+    @Test
+    void invalidParams() {
+        assertThrows(IllegalArgumentException.class, () -> SearchSpace.of(2, 3, null));
+        assertThrows(IllegalArgumentException.class, () -> SearchSpace.of(5, 10, FeedbackStrategyImpl.DEFAULT));
+    }
+}
@@ -0,0 +1,124 @@
+package org.jmel.mastermind.solver;
+
+import org.jmel.mastermind.core.Code;
+import org.jmel.mastermind.core.Game;
+import org.jmel.mastermind.core.feedbackstrategy.Feedback;
+import org.jmel.mastermind.core.feedbackstrategy.FeedbackStrategyImpl;
+import org.jmel.mastermind.core.secretcodesupplier.SeededRandomCodeSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTests {
+    private static Game.Builder classicGames(long seed) {
+        return new Game.Builder()
+                .codeLength(4)
+                .numColors(6)
+                .feedbackStrategy(FeedbackStrategyImpl.ORIGINAL_MASTERMIND)
+                .codeSupplier(SeededRandomCodeSupplier.of(4, 6, seed));
+    }
+
+    @Nested
+    class RunTests {
+        @DisplayName("Knuth's algorithm wins every classic game in at most 5 guesses.")
+        @Test
+        void knuthWinsEveryClassicGame() throws Exception {
+            TournamentResult result = Tournament.of(classicGames(1), KnuthSolver::of, 4).run(1000);
+
+            assertEquals(1000, result.games());
+            assertEquals(1000, result.totalWins());
+            assertEquals(1.0, result.winRate());
+            assertTrue(result.maxGuessesToWin() <= 5);
+            assertTrue(result.averageGuessesToWin() > 1 && result.averageGuessesToWin() < 5);
+            assertTrue(result.gamesPerSecond() > 0);
+        }
+
+        @Test
+        void resultsDoNotDependOnTheNumberOfThreads() throws Exception {
+            TournamentResult single = Tournament.of(classicGames(2), KnuthSolver::of, 1).run(600);
+            TournamentResult parallel = Tournament.of(classicGames(2), KnuthSolver::of, 3).run(600);
+
+            assertArrayEquals(single.wins(), parallel.wins());
+        }
+
+        @Test
+        void lossesAreCounted() throws Exception {
+            Game.Builder builder = classicGames(3).maxAttempts(1);
+            TournamentResult result = Tournament.of(builder, game -> new FixedGuessSolver(List.of(0, 0, 0, 0)), 2)
+                    .run(Tournament.BATCH_SIZE * 3 + 5);
+
+            assertEquals(Tournament.BATCH_SIZE * 3 + 5, result.games());
+            assertTrue(result.totalWins() < result.games());
+            assertEquals(result.totalWins(), result.winsWith(1));
+            assertTrue(result.winRate() < 1);
+        }
+
+        @Test
+        void noGames() throws Exception {
+            TournamentResult result = Tournament.of(classicGames(4), KnuthSolver::of).run(0);
+
+            assertEquals(0, result.games());
+            assertEquals(0, result.winRate());
+            assertEquals(0, result.averageGuessesToWin());
+            assertEquals(0, result.maxGuessesToWin());
+        }
+
+        @Test
+        void supplierFailureIsRethrown() {
+            Game.Builder builder = new Game.Builder().codeSupplier(() -> {
+                throw new IOException("No codes");
+            });
+
+            assertThrows(IOException.class, () -> Tournament.of(builder, KnuthSolver::of, 2).run(10));
+        }
+    }
+
+    @Nested
+    class InvalidParamTests {
+        @Test
+        void invalidTournament() {
+            assertThrows(IllegalArgumentException.class, () -> Tournament.of(null, KnuthSolver::of));
+            assertThrows(IllegalArgumentException.class, () -> Tournament.of(classicGames(0), null));
+            assertThrows(IllegalArgumentException.class, () -> Tournament.of(classicGames(0), KnuthSolver::of, 0));
+            assertThrows(IllegalArgumentException.class, () -> Tournament.of(classicGames(0), KnuthSolver::of).run(-1));
+        }
+
+        @Test
+        void invalidResult() {
+            assertThrows(IllegalArgumentException.class, () -> new TournamentResult(-1, new long[0], Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> new TournamentResult(1, null, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> new TournamentResult(1, new long[]{0, 2}, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> new TournamentResult(1, new long[0], null));
+        }
+
+        @Test
+        void resultIsImmutable() {
+            long[] wins = {0, 1, 2};
+            TournamentResult result = new TournamentResult(3, wins, Duration.ofSeconds(1));
+            wins[1] = 3;
+            result.wins()[2] = 3;
+
+            assertTrue(Arrays.equals(new long[]{0, 1, 2}, result.wins()));
+            assertEquals(5.0 / 3, result.averageGuessesToWin());
+            assertEquals(3.0, result.gamesPerSecond());
+        }
+    }
+
+    private record FixedGuessSolver(List<Integer> guess) implements Solver {
+        @Override
+        public Code nextGuess() {
+            return Code.from(guess, guess.size(), 6);
+        }
+
+        @Override
+        public void update(Code guess, Feedback feedback) {
+        }
+    }
+}